@@ -0,0 +1,29 @@
+package com.innogent.pantry_mind.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+// Bounded pool for per-kitchen alert evaluation; the pool size caps concurrent alert queries against the database
+@Configuration
+public class AlertExecutorConfig {
+
+    @Bean(name = "inventoryAlertExecutor")
+    public ThreadPoolTaskExecutor inventoryAlertExecutor(@Value("${alerts.parallelism:4}") int parallelism,
+                                                         MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("inventory-alert-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "inventory-alerts", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,21 @@
+package com.innogent.pantry_mind.config;
+
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+// Security principal carrying the ids that handlers otherwise look up by email
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+    private final Long kitchenId;
+
+    public AuthenticatedUser(String username, String password, String role, Long userId, Long kitchenId) {
+        super(username, password != null ? password : "", List.of(new SimpleGrantedAuthority(role != null ? role : "USER")));
+        this.userId = userId;
+        this.kitchenId = kitchenId;
+    }
+}
@@ -1,9 +1,31 @@
 package com.innogent.pantry_mind.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.innogent.pantry_mind.service.ReferenceDataService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @EnableCaching
 public class CacheConfig {
+
+    // Caches are declared up front so their hit/miss metrics (cache.gets) are registered at startup
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.reference-data.ttl:1h}") Duration ttl,
+                                     @Value("${cache.reference-data.max-size:1000}") long maxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats());
+        cacheManager.setCacheNames(ReferenceDataService.CACHE_NAMES);
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
 }
@@ -1,19 +1,26 @@
 package com.innogent.pantry_mind.config;
 
+import com.innogent.pantry_mind.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Component
 @RequiredArgsConstructor
@@ -21,6 +28,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final JwtPrincipalCache principalCache;
+    private final UserRepository userRepository;
+
+    private static final LocalDateTime NEVER_REVOKED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Trust signed role/kitchen claims and cache principals per token instead of loading the user per request
+    @Value("${jwt.fast-path.enabled:true}")
+    private boolean fastPathEnabled;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -32,23 +47,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         String jwt = authHeader.substring(7);
-        String username = jwtUtil.extractUsername(jwt);
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                var userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (jwtUtil.isTokenValid(jwt, username)) {
-                    var authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                UserDetails userDetails = fastPathEnabled ? resolveFast(jwt) : resolveFromDatabase(jwt);
+                var authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             } catch (Exception e) {
-                // User not found (database reset) - clear authentication
+                // Invalid or expired token, or user not found (database reset) - clear authentication
                 SecurityContextHolder.clearContext();
             }
         }
         
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveFast(String jwt) {
+        JwtPrincipalCache.Entry cached = principalCache.get(jwt);
+        if (cached != null) {
+            return cached.principal();
+        }
+
+        Claims claims = jwtUtil.extractClaims(jwt);
+        String username = claims.getSubject();
+        Instant issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+
+        JwtPrincipalCache.Entry entry;
+        if (role != null && !principalCache.isRevoked(username, issuedAt) && issuedAfterRevocation(username, issuedAt)) {
+            entry = new JwtPrincipalCache.Entry(new AuthenticatedUser(username, null, role,
+                    claims.get(JwtUtil.CLAIM_USER_ID, Long.class), claims.get(JwtUtil.CLAIM_KITCHEN_ID, Long.class)),
+                    issuedAt, claims.getExpiration().toInstant());
+        } else {
+            // Tokens without claims, or issued before the user's kitchen or role changed, fall back to the database
+            Instant loadedAt = Instant.now();
+            entry = new JwtPrincipalCache.Entry(userDetailsService.loadUserByUsername(username),
+                    loadedAt, claims.getExpiration().toInstant());
+        }
+        principalCache.put(jwt, entry);
+        return entry.principal();
+    }
+
+    // The persisted cut-off covers revocations made on other instances; a missing user has no valid tokens
+    private boolean issuedAfterRevocation(String username, Instant issuedAt) {
+        if (issuedAt == null) {
+            return false;
+        }
+        return userRepository.findTokensValidAfterByEmail(username, NEVER_REVOKED)
+                .map(validAfter -> issuedAt.isAfter(validAfter.atZone(ZoneId.systemDefault()).toInstant()))
+                .orElse(false);
+    }
+
+    private UserDetails resolveFromDatabase(String jwt) {
+        String username = jwtUtil.extractUsername(jwt);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!jwtUtil.isTokenValid(jwt, username)) {
+            throw new JwtException("Token is not valid for " + username);
+        }
+        return userDetails;
+    }
 }
@@ -0,0 +1,70 @@
+package com.innogent.pantry_mind.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Short-lived map from a verified token to its principal, so repeat requests skip signature checks.
+// Revoking a user marks every token issued before that moment as stale; the filter then rebuilds the
+// principal from the database. The local revocations take effect at once on this instance; other instances
+// see the persisted users.tokens_valid_after on their next cache miss, within the cache TTL.
+@Component
+public class JwtPrincipalCache {
+
+    // verifiedAt is the token's issue time for claim-based principals and the load time for database ones
+    public record Entry(UserDetails principal, Instant verifiedAt, Instant expiresAt) {
+    }
+
+    private final Cache<String, Entry> principals;
+    private final Cache<String, Instant> revocations;
+
+    public JwtPrincipalCache(@Value("${jwt.principal-cache.ttl:60s}") Duration ttl,
+                             @Value("${jwt.principal-cache.max-size:10000}") long maxSize,
+                             @Value("${jwt.expiration}") long tokenLifetimeMs,
+                             MeterRegistry meterRegistry) {
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.revocations = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(tokenLifetimeMs))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "jwt-principals");
+    }
+
+    public Entry get(String token) {
+        Entry entry = principals.getIfPresent(token);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt().isAfter(Instant.now()) || isRevoked(entry.principal().getUsername(), entry.verifiedAt())) {
+            principals.invalidate(token);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(String token, Entry entry) {
+        principals.put(token, entry);
+    }
+
+    public boolean isRevoked(String username, Instant verifiedAt) {
+        Instant revokedAt = revocations.getIfPresent(username);
+        // iat has second precision, so a token from the same second as the revocation counts as stale
+        return revokedAt != null && (verifiedAt == null || !verifiedAt.isAfter(revokedAt));
+    }
+
+    public void revoke(String username) {
+        if (username != null) {
+            revocations.put(username, Instant.now());
+        }
+    }
+}
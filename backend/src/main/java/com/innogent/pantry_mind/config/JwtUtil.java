@@ -2,6 +2,7 @@ package com.innogent.pantry_mind.config;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -10,24 +11,45 @@ import java.util.Date;
 
 @Component
 public class JwtUtil {
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_KITCHEN_ID = "kitchenId";
     
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
-    
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+
+    // The key and parser are immutable and thread-safe, so they are built once instead of per call
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
     
     public String generateToken(String username) {
-        return Jwts.builder()
+        return generateToken(username, null, null, null);
+    }
+
+    // Role and kitchen are signed into the token so authentication does not need the users table
+    public String generateToken(String username, Long userId, String role, Long kitchenId) {
+        JwtBuilder builder = Jwts.builder()
                 .subject(username)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
-                .compact();
+                .expiration(new Date(System.currentTimeMillis() + expiration));
+        if (userId != null) builder.claim(CLAIM_USER_ID, userId);
+        if (role != null) builder.claim(CLAIM_ROLE, role);
+        if (kitchenId != null) builder.claim(CLAIM_KITCHEN_ID, kitchenId);
+        return builder.signWith(signingKey).compact();
+    }
+
+    public long getExpiration() {
+        return expiration;
     }
     
     public String extractUsername(String token) {
@@ -35,18 +57,12 @@ public class JwtUtil {
     }
     
     public boolean isTokenValid(String token, String username) {
-        return extractUsername(token).equals(username) && !isTokenExpired(token);
-    }
-    
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
+        Claims claims = extractClaims(token);
+        return claims.getSubject().equals(username) && !claims.getExpiration().before(new Date());
     }
-    
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+
+    // Verifies signature and expiry in a single parse; throws JwtException for any invalid token
+    public Claims extractClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
-}
\ No newline at end of file
+}
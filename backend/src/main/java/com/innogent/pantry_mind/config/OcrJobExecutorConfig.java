@@ -0,0 +1,44 @@
+package com.innogent.pantry_mind.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+// Bounded worker pools for OCR; a full job queue rejects new uploads instead of piling up Python calls
+@Configuration
+public class OcrJobExecutorConfig {
+
+    @Bean(name = "ocrJobExecutor")
+    public ThreadPoolTaskExecutor ocrJobExecutor(@Value("${ocr.jobs.pool-size:4}") int poolSize,
+                                                 @Value("${ocr.jobs.queue-capacity:50}") int queueCapacity,
+                                                 MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ocr-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "ocr-jobs", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    // Page fan-out for multi-page receipts; separate from the job pool so a batch never waits behind queued jobs
+    @Bean(name = "ocrBatchExecutor")
+    public ThreadPoolTaskExecutor ocrBatchExecutor(@Value("${ocr.batch.parallelism:4}") int parallelism,
+                                                   MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("ocr-page-");
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "ocr-batch", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
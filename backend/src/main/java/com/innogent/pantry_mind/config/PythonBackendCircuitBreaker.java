@@ -0,0 +1,152 @@
+package com.innogent.pantry_mind.config;
+
+import com.innogent.pantry_mind.exception.PythonBackendUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Circuit breaker for the Python suggestions backend (python.backend.url).
+// CLOSED lets calls through; after consecutive failures it OPENs and callers fall back immediately;
+// once the open period has passed a single HALF_OPEN probe decides whether to close again.
+// A background /health check keeps the state fresh so requests never pay for a health round trip.
+@Slf4j
+@Component
+public class PythonBackendCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final PythonHttpClients pythonHttpClients;
+    private final PythonCallMetrics pythonCallMetrics;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    @Value("${python.backend.url:http://localhost:8000}")
+    private String pythonBackendUrl;
+
+    @Value("${python.circuit.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${python.circuit.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    public PythonBackendCircuitBreaker(PythonHttpClients pythonHttpClients, PythonCallMetrics pythonCallMetrics,
+                                       MeterRegistry meterRegistry) {
+        this.pythonHttpClients = pythonHttpClients;
+        this.pythonCallMetrics = pythonCallMetrics;
+        Gauge.builder("pantry.python.circuit.state", state, s -> s.get().ordinal())
+                .description("Python suggestions backend circuit: 0 closed, 1 half-open, 2 open")
+                .tag("backend", "suggestions")
+                .register(meterRegistry);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    // Cheap check for callers that want to skip preparing a request while the circuit is open
+    public boolean isAvailable() {
+        return state.get() != State.OPEN || openPeriodElapsed();
+    }
+
+    public <T> T call(Supplier<T> call) {
+        if (!tryAcquire()) {
+            throw new PythonBackendUnavailableException("Python backend circuit is open");
+        }
+        try {
+            T result = call.get();
+            recordSuccess();
+            return result;
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            // Only an unreachable, timed-out or failing backend counts toward opening the circuit
+            recordFailure("request failed: " + e.getMessage());
+            throw e;
+        } catch (HttpClientErrorException e) {
+            // A 4xx is this request's fault and proves the backend is up; it must not trip the circuit for everyone
+            recordSuccess();
+            throw e;
+        } catch (RuntimeException e) {
+            probeInFlight.set(false);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${python.circuit.health-interval-ms:15000}")
+    public void refreshHealth() {
+        try {
+            String response = pythonCallMetrics.record("suggestions", "health", () ->
+                pythonHttpClients.getSuggestions().getForObject(pythonBackendUrl + "/health", String.class));
+            if (response != null && response.contains("healthy")) {
+                recordSuccess();
+            } else {
+                recordFailure("health check reported " + response);
+            }
+        } catch (Exception e) {
+            recordFailure("health check failed: " + e.getMessage());
+        }
+    }
+
+    private boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (!openPeriodElapsed()) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                log.info("Python backend circuit half-open, probing");
+                probeInFlight.set(false);
+            }
+        }
+        // Half-open: exactly one caller probes, everyone else keeps falling back
+        return probeInFlight.compareAndSet(false, true);
+    }
+
+    private void recordSuccess() {
+        consecutiveFailures.set(0);
+        probeInFlight.set(false);
+        State previous = state.getAndSet(State.CLOSED);
+        if (previous != State.CLOSED) {
+            log.info("Python backend circuit closed");
+        }
+    }
+
+    // Request and health check failures count against the same threshold
+    private void recordFailure(String lastFailure) {
+        probeInFlight.set(false);
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            trip(consecutiveFailures.get() + " consecutive failures, last: " + lastFailure);
+        }
+    }
+
+    private void trip(String reason) {
+        openedAt.set(System.currentTimeMillis());
+        probeInFlight.set(false);
+        State previous = state.getAndSet(State.OPEN);
+        if (previous != State.OPEN) {
+            log.warn("Python backend circuit opened: {}", reason);
+        }
+    }
+
+    private boolean openPeriodElapsed() {
+        return System.currentTimeMillis() - openedAt.get() >= openDurationMs;
+    }
+}
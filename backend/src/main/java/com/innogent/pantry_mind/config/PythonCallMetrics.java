@@ -0,0 +1,42 @@
+package com.innogent.pantry_mind.config;
+
+import com.innogent.pantry_mind.util.TimingSpans;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Times outbound calls to the Python OCR / recipe / suggestion services as pantry.python.calls,
+// tagged with a fixed operation name so query strings never leak into tag values.
+// Also the PYTHON timing span: every Python call goes through here, so no RestTemplate interceptor
+// (which would buffer each request body in memory) is needed.
+@Component
+@RequiredArgsConstructor
+public class PythonCallMetrics {
+
+    public static final String METRIC_NAME = "pantry.python.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T record(String service, String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        TimingSpans.enter(TimingSpans.Span.PYTHON);
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            TimingSpans.exit(TimingSpans.Span.PYTHON);
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Latency of calls to the Python backends")
+                    .tag("service", service)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.innogent.pantry_mind.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+@EnableConfigurationProperties(PythonHttpProperties.class)
+public class PythonHttpClientConfig {
+
+    @Bean
+    public PythonHttpClients pythonHttpClients(PythonHttpProperties properties, MeterRegistry meterRegistry) {
+        return new PythonHttpClients(
+                restTemplate("python-ocr", properties.getOcr(), meterRegistry),
+                restTemplate("python-recipe", properties.getRecipe(), meterRegistry),
+                restTemplate("python-suggestions", properties.getSuggestions(), meterRegistry));
+    }
+
+    private RestTemplate restTemplate(String poolName, PythonHttpProperties.Client settings, MeterRegistry meterRegistry) {
+        // Each downstream talks to a single host, so the per-route limit is the concurrency bound
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.getMaxConnections())
+                .setMaxConnPerRoute(settings.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(settings.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(settings.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(settings.getKeepAlive().multipliedBy(4)))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, poolName).bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(settings.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(settings.getReadTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(settings.getKeepAlive()))
+                .evictIdleConnections(TimeValue.of(settings.getKeepAlive()))
+                .evictExpiredConnections()
+                .build();
+
+        // No interceptors: they force the request body into a byte array, which defeats streamed OCR uploads
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+}
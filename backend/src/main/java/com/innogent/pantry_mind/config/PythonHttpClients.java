@@ -0,0 +1,14 @@
+package com.innogent.pantry_mind.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.web.client.RestTemplate;
+
+// Separate pooled clients per Python downstream; see PythonHttpClientConfig
+@Getter
+@AllArgsConstructor
+public class PythonHttpClients {
+    private final RestTemplate ocr;
+    private final RestTemplate recipe;
+    private final RestTemplate suggestions;
+}
@@ -0,0 +1,34 @@
+package com.innogent.pantry_mind.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// python.http.* settings, one block per downstream so a slow OCR model cannot starve recipe or suggestion calls
+@Data
+@ConfigurationProperties(prefix = "python.http")
+public class PythonHttpProperties {
+
+    private Client ocr = new Client(Duration.ofSeconds(60), 4);
+    private Client recipe = new Client(Duration.ofSeconds(45), 8);
+    private Client suggestions = new Client(Duration.ofSeconds(15), 8);
+
+    @Data
+    public static class Client {
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout;
+        // How long a request waits for a free pooled connection before failing fast
+        private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+        private int maxConnections;
+        private Duration keepAlive = Duration.ofSeconds(30);
+
+        public Client() {
+        }
+
+        public Client(Duration readTimeout, int maxConnections) {
+            this.readTimeout = readTimeout;
+            this.maxConnections = maxConnections;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.innogent.pantry_mind.config;
+
+import com.innogent.pantry_mind.util.TimingSpans;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Logs DB / Python / mapping time per request while the "pantry.timing" logger is at DEBUG.
+// Toggle it at runtime on the loopback management port, e.g.
+// curl -X POST localhost:8081/actuator/loggers/pantry.timing -H 'Content-Type: application/json' -d '{"configuredLevel":"DEBUG"}'
+// (configuredLevel null resets it), or set logging.level.pantry.timing=DEBUG to have it on from startup.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String TIMING_LOGGER = "pantry.timing";
+
+    private static final Logger timingLog = LoggerFactory.getLogger(TIMING_LOGGER);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!timingLog.isDebugEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        TimingSpans.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            timingLog.debug("{} {} status={} total={}ms db={}ms python={}ms mapping={}ms",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    (System.nanoTime() - start) / 1_000_000,
+                    TimingSpans.millis(TimingSpans.Span.DB),
+                    TimingSpans.millis(TimingSpans.Span.PYTHON),
+                    TimingSpans.millis(TimingSpans.Span.MAPPING));
+            TimingSpans.clear();
+        }
+    }
+}
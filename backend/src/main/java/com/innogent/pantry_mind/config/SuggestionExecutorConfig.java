@@ -0,0 +1,29 @@
+package com.innogent.pantry_mind.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+// Bounded pool for the daily suggestion job; each kitchen may call the AI service, so this also caps concurrent calls
+@Configuration
+public class SuggestionExecutorConfig {
+
+    @Bean(name = "suggestionExecutor")
+    public ThreadPoolTaskExecutor suggestionExecutor(@Value("${suggestions.daily.parallelism:4}") int parallelism,
+                                                     MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("suggestion-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "daily-suggestions", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,35 @@
+package com.innogent.pantry_mind.config;
+
+import com.innogent.pantry_mind.util.TimingSpans;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+// Feeds repository and mapper time into TimingSpans when a timed request is in flight
+@Aspect
+@Component
+public class TimingSpanAspect {
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(TimingSpans.Span.DB, joinPoint);
+    }
+
+    @Around("within(com.innogent.pantry_mind.mapper..*)")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(TimingSpans.Span.MAPPING, joinPoint);
+    }
+
+    private Object time(TimingSpans.Span span, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!TimingSpans.isActive()) {
+            return joinPoint.proceed();
+        }
+        TimingSpans.enter(span);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            TimingSpans.exit(span);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.innogent.pantry_mind.controller;
 
-import com.innogent.pantry_mind.entity.ConsumptionEvent;
+import com.innogent.pantry_mind.dto.response.ConsumptionEventResponseDTO;
+import com.innogent.pantry_mind.dto.response.CursorPageResponseDTO;
 import com.innogent.pantry_mind.repository.ConsumptionEventRepository;
+import com.innogent.pantry_mind.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,15 +19,52 @@ import java.util.List;
 public class ConsumptionController {
     
     private final ConsumptionEventRepository consumptionRepository;
+
+    @Value("${consumption.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${consumption.history.max-days:365}")
+    private int maxHistoryDays;
     
     @GetMapping
-    public ResponseEntity<List<ConsumptionEvent>> getConsumptionHistory(
+    public ResponseEntity<List<ConsumptionEventResponseDTO>> getConsumptionHistory(
             @RequestParam Long kitchenId,
             @RequestParam(defaultValue = "30") int days) {
         
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<ConsumptionEvent> events = consumptionRepository
-            .findByKitchenIdAndCreatedAtAfter(kitchenId, since);
+        LocalDateTime since = since(days);
+        List<ConsumptionEventResponseDTO> events = consumptionRepository
+            .findHistorySince(kitchenId, since);
         return ResponseEntity.ok(events);
     }
+
+    // Keyset paging on (createdAt, id) DESC; the cursor resumes strictly after the last row returned
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<ConsumptionEventResponseDTO>> getConsumptionPage(
+            @RequestParam Long kitchenId,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        int pageSize = CursorCodec.clampLimit(limit, 50, maxPageSize);
+        LocalDateTime since = since(days);
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        try {
+            List<ConsumptionEventResponseDTO> rows;
+            if (cursor == null) {
+                rows = consumptionRepository.findFirstHistoryPage(kitchenId, since, window);
+            } else {
+                CursorCodec.TimeCursor after = CursorCodec.decodeTime(cursor);
+                rows = consumptionRepository.findHistoryPageAfter(kitchenId, since, after.createdAt(), after.id(), window);
+            }
+            return ResponseEntity.ok(CursorPageResponseDTO.of(rows, pageSize,
+                    dto -> CursorCodec.encode(dto.getCreatedAt(), dto.getId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // The look-back window is capped so a large days value cannot pull a kitchen's entire history
+    private LocalDateTime since(int days) {
+        return LocalDateTime.now().minusDays(Math.min(Math.max(days, 1), maxHistoryDays));
+    }
 }
@@ -9,6 +9,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
@@ -60,6 +61,8 @@ public class DashboardController {
         if (settings.containsKey("alertsEnabled")) {
             kitchen.setAlertsEnabled((Boolean) settings.get("alertsEnabled"));
         }
+        // The alert scheduler only looks at next_alert_at, so a new time takes effect from its next occurrence
+        kitchen.scheduleNextAlert(LocalDateTime.now());
         
         kitchenRepository.save(kitchen);
         return ResponseEntity.ok().build();
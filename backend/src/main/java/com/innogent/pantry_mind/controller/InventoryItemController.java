@@ -4,13 +4,19 @@ import com.innogent.pantry_mind.dto.request.ConsumeItemsRequestDTO;
 import com.innogent.pantry_mind.dto.request.CreateInventoryItemRequestDTO;
 import com.innogent.pantry_mind.dto.request.UpdateInventoryAlertsRequestDTO;
 import com.innogent.pantry_mind.dto.request.UpdateInventoryItemRequestDTO;
+import com.innogent.pantry_mind.dto.response.ConsumeItemsResponseDTO;
+import com.innogent.pantry_mind.dto.response.CursorPageResponseDTO;
 import com.innogent.pantry_mind.dto.response.InventoryItemResponseDTO;
 import com.innogent.pantry_mind.dto.response.InventoryResponseDTO;
+import com.innogent.pantry_mind.exception.ConcurrentInventoryChangeException;
 import com.innogent.pantry_mind.service.impl.InventoryServiceImpl;
+import com.innogent.pantry_mind.util.CursorCodec;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,6 +30,9 @@ public class InventoryItemController {
 
     private final InventoryServiceImpl inventoryService;
 
+    @Value("${inventory.page.max-size:200}")
+    private int maxPageSize;
+
     @PostMapping
     @Operation(summary = "Add a new inventory item")
     public ResponseEntity<InventoryItemResponseDTO> addItem(@Valid @RequestBody CreateInventoryItemRequestDTO dto) {
@@ -31,19 +40,33 @@ public class InventoryItemController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all grouped inventory products")
-    public ResponseEntity<List<InventoryResponseDTO>> getAllInventory(@RequestParam(required = false) Long kitchenId) {
-        if (kitchenId != null) {
-            return ResponseEntity.ok(inventoryService.getInventoryItemsByKitchen(kitchenId));
+    @Operation(summary = "Get all grouped inventory products of a kitchen")
+    public ResponseEntity<List<InventoryResponseDTO>> getAllInventory(@RequestParam Long kitchenId) {
+        return ResponseEntity.ok(inventoryService.getInventoryItemsByKitchen(kitchenId));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get one keyset page of grouped inventory products for a kitchen")
+    public ResponseEntity<CursorPageResponseDTO<InventoryResponseDTO>> getInventoryPage(@RequestParam Long kitchenId,
+                                                                                        @RequestParam(required = false) String cursor,
+                                                                                        @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(inventoryService.getInventoryPage(kitchenId, cursor,
+                    CursorCodec.clampLimit(limit, 50, maxPageSize)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(inventoryService.getAllInventoryItems());
     }
 
     @PostMapping("/consume")
     @Operation(summary = "Consume inventory items for cooking")
-    public ResponseEntity<String> consumeItems(@Valid @RequestBody ConsumeItemsRequestDTO dto) {
-        inventoryService.consumeItems(dto);
-        return ResponseEntity.ok("Items consumed successfully");
+    public ResponseEntity<ConsumeItemsResponseDTO> consumeItems(@Valid @RequestBody ConsumeItemsRequestDTO dto) {
+        try {
+            return ResponseEntity.ok(inventoryService.consumeItems(dto));
+        } catch (ConcurrentInventoryChangeException e) {
+            // Nothing was applied; the client can reload and submit the plan again
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.innogent.pantry_mind.entity.Location;
 import com.innogent.pantry_mind.repository.LocationRepository;
+import com.innogent.pantry_mind.service.ReferenceDataService;
 
 @RestController
 @RequestMapping("/api/locations")
@@ -20,6 +21,9 @@ public class LocationController {
     @Autowired
     private LocationRepository locationRepository;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
     @GetMapping
     public ResponseEntity<List<Location>> getAllLocations() {
         List<Location> locations = locationRepository.findAll();
@@ -29,6 +33,7 @@ public class LocationController {
     @PostMapping
     public ResponseEntity<Location> createLocation(@RequestBody Location location) {
         Location savedLocation = locationRepository.save(location);
+        referenceDataService.evictLocations();
         return ResponseEntity.ok(savedLocation);
     }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package com.innogent.pantry_mind.controller;
 
-import com.innogent.pantry_mind.entity.Notification;
-import com.innogent.pantry_mind.repository.NotificationRepository;
+import com.innogent.pantry_mind.dto.response.CursorPageResponseDTO;
+import com.innogent.pantry_mind.dto.response.NotificationResponseDTO;
+import com.innogent.pantry_mind.service.NotificationService;
+import com.innogent.pantry_mind.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -14,69 +16,47 @@ import java.util.stream.Collectors;
 @CrossOrigin
 public class NotificationController {
     
-    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
 
+    @Value("${notifications.page.max-size:200}")
+    private int maxPageSize;
+
+    // Full list, bounded by notifications.retention.days; clients that scroll use the /page cursor instead
     @GetMapping
-    public ResponseEntity<List<Notification>> getNotifications(@RequestParam Long kitchenId, @RequestParam(defaultValue = "ADMIN") String userRole, @RequestParam Long userId) {
-        List<Notification> notifications = notificationRepository.findByKitchenIdOrderByCreatedAtDesc(kitchenId);
-        
-        notifications = notifications.stream()
-            .filter(n -> !n.isDeletedByUser(userId))
-            .collect(Collectors.toList());
-        
-        if ("MEMBER".equals(userRole)) {
-            notifications = notifications.stream()
-                .filter(n -> !"MEMBER_JOINED".equals(n.getType()) && !"MEMBER_REMOVED".equals(n.getType()))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<NotificationResponseDTO>> getNotifications(@RequestParam Long kitchenId,
+                                                                          @RequestParam(defaultValue = "ADMIN") String userRole,
+                                                                          @RequestParam Long userId) {
+        return ResponseEntity.ok(notificationService.getNotificationsForUser(kitchenId, userId, userRole));
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<NotificationResponseDTO>> getNotificationPage(@RequestParam Long kitchenId,
+                                                                                              @RequestParam(defaultValue = "ADMIN") String userRole,
+                                                                                              @RequestParam Long userId,
+                                                                                              @RequestParam(required = false) String cursor,
+                                                                                              @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(notificationService.getNotificationPageForUser(kitchenId, userId, userRole, cursor,
+                    CursorCodec.clampLimit(limit, 50, maxPageSize)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(notifications);
     }
     
     @GetMapping("/unread-count")
     public ResponseEntity<Long> getUnreadCount(@RequestParam Long kitchenId, @RequestParam(defaultValue = "ADMIN") String userRole, @RequestParam Long userId) {
-        List<Notification> notifications = notificationRepository.findByKitchenIdOrderByCreatedAtDesc(kitchenId);
-        
-        long count = notifications.stream()
-            .filter(n -> !n.isDeletedByUser(userId))
-            .filter(n -> !n.isReadByUser(userId))
-            .filter(n -> {
-                if ("MEMBER".equals(userRole)) {
-                    return !"MEMBER_JOINED".equals(n.getType()) && !"MEMBER_REMOVED".equals(n.getType());
-                }
-                return true;
-            })
-            .count();
-        
-        return ResponseEntity.ok(count);
+        return ResponseEntity.ok(notificationService.getUnreadCount(kitchenId, userId, userRole));
     }
     
     @PostMapping("/mark-read")
     public ResponseEntity<Void> markAllAsRead(@RequestParam Long kitchenId, @RequestParam(defaultValue = "ADMIN") String userRole, @RequestParam Long userId) {
-        List<Notification> notifications = notificationRepository.findByKitchenIdOrderByCreatedAtDesc(kitchenId);
-        
-        notifications = notifications.stream()
-            .filter(n -> !n.isDeletedByUser(userId))
-            .collect(Collectors.toList());
-        
-        if ("MEMBER".equals(userRole)) {
-            notifications = notifications.stream()
-                .filter(n -> !"MEMBER_JOINED".equals(n.getType()) && !"MEMBER_REMOVED".equals(n.getType()))
-                .collect(Collectors.toList());
-        }
-        
-        notifications.forEach(n -> n.markAsReadByUser(userId));
-        notificationRepository.saveAll(notifications);
+        notificationService.markAllAsRead(kitchenId, userId, userRole);
         return ResponseEntity.ok().build();
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable Long id, @RequestParam Long userId) {
-        Notification notification = notificationRepository.findById(id).orElse(null);
-        if (notification != null) {
-            notification.markAsDeletedByUser(userId);
-            notificationRepository.save(notification);
-        }
+        notificationService.deleteForUser(id, userId);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,27 @@
 package com.innogent.pantry_mind.controller;
 
+import com.innogent.pantry_mind.dto.request.ConfirmItemsRequestDto;
+import com.innogent.pantry_mind.dto.response.OcrUploadStatusDTO;
+import com.innogent.pantry_mind.entity.OcrUpload;
+import com.innogent.pantry_mind.exception.DuplicateResourceException;
+import com.innogent.pantry_mind.exception.ResourceNotFoundException;
 import com.innogent.pantry_mind.service.OCRService;
+import com.innogent.pantry_mind.service.OcrJobService;
+import com.innogent.pantry_mind.service.PantryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/ocr")
 @RequiredArgsConstructor
@@ -17,6 +29,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class OCRController {
     
     private final OCRService ocrService;
+    private final OcrJobService ocrJobService;
+    private final PantryService pantryService;
     
     @PostMapping(value = "/bill", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Process bill image and extract items using AI")
@@ -28,8 +42,14 @@ public class OCRController {
             @RequestParam("kitchenId") Long kitchenId,
             
             @Parameter(description = "User ID who uploaded", required = true)
-            @RequestParam("userId") Long userId
+            @RequestParam("userId") Long userId,
+            
+            @Parameter(description = "Queue the job and return 202 with the upload id instead of waiting")
+            @RequestParam(value = "async", defaultValue = "false") boolean async
     ) {
+        if (async) {
+            return submit(file, kitchenId, userId, OcrUpload.DocumentType.BILL, null);
+        }
         try {
             OCRService.OCRProcessingResult result = ocrService.processBill(file, kitchenId, userId);
             return ResponseEntity.ok(result);
@@ -38,6 +58,26 @@ public class OCRController {
         }
     }
     
+    @PostMapping(value = "/bill/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Process a long receipt photographed as several images, merged into one upload")
+    public ResponseEntity<?> processBillPages(
+            @Parameter(description = "Receipt images in page order", required = true)
+            @RequestPart("images") List<MultipartFile> files,
+            
+            @Parameter(description = "Kitchen ID", required = true)
+            @RequestParam("kitchenId") Long kitchenId,
+            
+            @Parameter(description = "User ID who uploaded", required = true)
+            @RequestParam("userId") Long userId
+    ) {
+        try {
+            OCRService.OCRProcessingResult result = ocrService.processBillPages(files, kitchenId, userId);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error processing bill: " + e.getMessage());
+        }
+    }
+    
     @PostMapping(value = "/label", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Process product label and extract product info using AI")
     public ResponseEntity<?> processLabel(
@@ -48,8 +88,14 @@ public class OCRController {
             @RequestParam("kitchenId") Long kitchenId,
             
             @Parameter(description = "User ID who uploaded", required = true)
-            @RequestParam("userId") Long userId
+            @RequestParam("userId") Long userId,
+            
+            @Parameter(description = "Queue the job and return 202 with the upload id instead of waiting")
+            @RequestParam(value = "async", defaultValue = "false") boolean async
     ) {
+        if (async) {
+            return submit(file, kitchenId, userId, OcrUpload.DocumentType.LABEL, null);
+        }
         try {
             OCRService.OCRProcessingResult result = ocrService.processLabel(file, kitchenId, userId);
             return ResponseEntity.ok(result);
@@ -71,8 +117,14 @@ public class OCRController {
             @RequestParam("userId") Long userId,
             
             @Parameter(description = "Processing mode: single, shelf, or auto")
-            @RequestParam(value = "mode", defaultValue = "auto") String mode
+            @RequestParam(value = "mode", defaultValue = "auto") String mode,
+            
+            @Parameter(description = "Queue the job and return 202 with the upload id instead of waiting")
+            @RequestParam(value = "async", defaultValue = "false") boolean async
     ) {
+        if (async) {
+            return submit(file, kitchenId, userId, OcrUpload.DocumentType.PRODUCT, mode);
+        }
         try {
             OCRService.OCRProcessingResult result = ocrService.processProduct(file, kitchenId, userId, mode);
             return ResponseEntity.ok(result);
@@ -80,4 +132,41 @@ public class OCRController {
             return ResponseEntity.badRequest().body("Error processing product: " + e.getMessage());
         }
     }
+    
+    @PostMapping("/confirm")
+    @Operation(summary = "Confirm reviewed OCR items into inventory")
+    public ResponseEntity<?> confirmItems(@Valid @RequestBody ConfirmItemsRequestDto request) {
+        try {
+            return ResponseEntity.ok(pantryService.confirmAndSaveItems(request));
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error confirming items: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/{id}")
+    @Operation(summary = "Get processing status of an OCR upload, with extracted items once completed")
+    public ResponseEntity<?> getStatus(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(ocrJobService.getStatus(id));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    private ResponseEntity<?> submit(MultipartFile file, Long kitchenId, Long userId,
+                                     OcrUpload.DocumentType docType, String mode) {
+        try {
+            OcrUploadStatusDTO status = ocrJobService.submit(file, kitchenId, userId, docType, mode);
+            // A dedup hit is already complete, there is no job to wait for
+            return status.getStatus() == OcrUpload.ProcessingStatus.PENDING
+                ? ResponseEntity.accepted().body(status)
+                : ResponseEntity.ok(status);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("OCR queue is full, please retry shortly");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error queuing OCR job: " + e.getMessage());
+        }
+    }
 }
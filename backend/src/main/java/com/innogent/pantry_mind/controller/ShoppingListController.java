@@ -1,5 +1,6 @@
 package com.innogent.pantry_mind.controller;
 
+import com.innogent.pantry_mind.config.AuthenticatedUser;
 import com.innogent.pantry_mind.dto.request.AddShoppingListItemRequestDTO;
 import com.innogent.pantry_mind.dto.request.AddToInventoryRequest;
 import com.innogent.pantry_mind.dto.request.UpdateShoppingListItemRequestDTO;
@@ -160,6 +161,9 @@ public class ShoppingListController {
 
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal && principal.getUserId() != null) {
+            return principal.getUserId();
+        }
         String email = authentication.getName();
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
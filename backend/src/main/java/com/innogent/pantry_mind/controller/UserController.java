@@ -46,8 +46,8 @@ public class UserController {
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
             
-            String token = jwtUtil.generateToken(request.getEmail());
             UserResponseDTO user = userService.getUserByEmail(request.getEmail());
+            String token = tokenFor(user);
             return ResponseEntity.ok(Map.of("token", token, "user", user));
         } catch (Exception e) {
             return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
@@ -163,7 +163,7 @@ public class UserController {
     public ResponseEntity<?> verifyRegistrationOtp(@RequestBody VerifyOtpRequestDTO request) {
         try {
             UserResponseDTO user = userService.verifyRegistrationOtp(request.getEmail(), request.getOtp());
-            String token = jwtUtil.generateToken(request.getEmail());
+            String token = tokenFor(user);
             return ResponseEntity.ok(Map.of(
                 "message", "Email verified successfully",
                 "token", token,
@@ -188,7 +188,7 @@ public class UserController {
     public ResponseEntity<?> resetPasswordWithOtp(@RequestBody ResetPasswordRequestDTO request) {
         try {
             UserResponseDTO user = userService.resetPasswordWithOtp(request);
-            String token = jwtUtil.generateToken(request.getEmail());
+            String token = tokenFor(user);
             return ResponseEntity.ok(Map.of(
                 "message", "Password reset successful",
                 "token", token,
@@ -199,6 +199,10 @@ public class UserController {
         }
     }
     
+    private String tokenFor(UserResponseDTO user) {
+        return jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole(), user.getKitchenId());
+    }
+    
     private String getCurrentUserEmail() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated()) {
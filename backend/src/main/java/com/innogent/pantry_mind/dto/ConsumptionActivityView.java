@@ -0,0 +1,20 @@
+package com.innogent.pantry_mind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One line of consumption history for analytics: a single raw event, or a daily/weekly rollup bucket
+@Data
+@AllArgsConstructor
+public class ConsumptionActivityView {
+    private String itemName;
+    private BigDecimal quantity;
+    private String unitName;
+    private String reason;
+    private LocalDateTime consumedAt;
+    private Long eventCount;
+    private String granularity;
+}
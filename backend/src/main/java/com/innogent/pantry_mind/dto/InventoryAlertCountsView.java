@@ -0,0 +1,8 @@
+package com.innogent.pantry_mind.dto;
+
+// Per-kitchen alert aggregates, computed by a single query when the kitchen's alert slot comes due
+public interface InventoryAlertCountsView {
+    Long getExpiredCount();
+    Long getExpiringSoonCount();
+    Long getLowStockCount();
+}
@@ -0,0 +1,8 @@
+package com.innogent.pantry_mind.dto;
+
+// Per-group item count and quantity sum, used to reconcile the denormalized columns on inventory
+public interface InventoryItemAggregateView {
+    Long getInventoryId();
+    Long getItemCount();
+    Long getTotalQuantity();
+}
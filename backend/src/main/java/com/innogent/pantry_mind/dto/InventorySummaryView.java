@@ -0,0 +1,18 @@
+package com.innogent.pantry_mind.dto;
+
+import java.util.Date;
+
+// Read-only projection of an inventory group with its item aggregates, filled by a single GROUP BY query
+public interface InventorySummaryView {
+    Long getId();
+    String getName();
+    Long getCategoryId();
+    String getCategoryName();
+    Long getUnitId();
+    String getUnitName();
+    Long getTotalQuantity();
+    Long getItemCount();
+    Integer getMinExpiryDaysAlert();
+    Long getMinStock();
+    Date getEarliestExpiry();
+}
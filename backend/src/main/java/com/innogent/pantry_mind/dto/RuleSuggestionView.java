@@ -0,0 +1,11 @@
+package com.innogent.pantry_mind.dto;
+
+import java.math.BigDecimal;
+
+// Below-threshold inventory group joined with its suggestion rule, filled by the SQL-side rule evaluation
+public interface RuleSuggestionView {
+    String getName();
+    String getUnitName();
+    Long getTotalQuantity();
+    BigDecimal getSuggestedQuantity();
+}
@@ -0,0 +1,12 @@
+package com.innogent.pantry_mind.dto.response;
+
+import lombok.Data;
+
+@Data
+public class ConfirmItemsResponseDTO {
+    private Long ocrUploadId;
+    private int itemsCreated;
+    private int groupsCreated;
+    private int groupsUpdated;
+    private int referenceDataCreated;
+}
@@ -0,0 +1,26 @@
+package com.innogent.pantry_mind.dto.response;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ConsumeItemsResponseDTO {
+    private List<ConsumeItemResultDTO> results = new ArrayList<>();
+    private int itemsUpdated;
+    private int itemsRemoved;
+    private int groupsRemoved;
+
+    @Data
+    public static class ConsumeItemResultDTO {
+        private Long id;
+        private String name;
+        private Long requestedQuantity;
+        private Long consumedQuantity;
+        private ConsumeStatus status;
+    }
+
+    public enum ConsumeStatus {
+        CONSUMED, PARTIAL, INSUFFICIENT_QUANTITY, NOT_FOUND
+    }
+}
@@ -0,0 +1,25 @@
+package com.innogent.pantry_mind.dto.response;
+
+import com.innogent.pantry_mind.entity.ConsumptionEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat projection of a consumption event; associations are reduced to ids and names
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionEventResponseDTO {
+    private Long id;
+    private String canonicalName;
+    private BigDecimal quantityConsumed;
+    private Long unitId;
+    private String unitName;
+    private Long kitchenId;
+    private ConsumptionEvent.EventReason reason;
+    private Long triggeredById;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,27 @@
+package com.innogent.pantry_mind.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One keyset page; nextCursor is passed back as ?cursor= and is null on the last page
+@Data
+@NoArgsConstructor
+public class CursorPageResponseDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int limit;
+
+    // rows were fetched with limit + 1 so the extra row only signals that another page exists
+    public static <T> CursorPageResponseDTO<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        CursorPageResponseDTO<T> page = new CursorPageResponseDTO<>();
+        page.setLimit(limit);
+        page.setHasMore(rows.size() > limit);
+        page.setItems(page.isHasMore() ? List.copyOf(rows.subList(0, limit)) : rows);
+        page.setNextCursor(page.isHasMore() ? cursorOf.apply(page.getItems().get(limit - 1)) : null);
+        return page;
+    }
+}
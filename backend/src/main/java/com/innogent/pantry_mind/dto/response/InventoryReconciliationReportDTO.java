@@ -0,0 +1,15 @@
+package com.innogent.pantry_mind.dto.response;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class InventoryReconciliationReportDTO {
+    private int scannedGroups;
+    private int chunks;
+    private int itemCountFixes;
+    private int totalQuantityFixes;
+    private List<Long> fixedInventoryIds = new ArrayList<>();
+    private long durationMs;
+}
@@ -0,0 +1,25 @@
+package com.innogent.pantry_mind.dto.response;
+
+import com.innogent.pantry_mind.entity.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A kitchen notification as seen by one user; read reflects that user's state only
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponseDTO {
+    private Long id;
+    private Long kitchenId;
+    private Long userId;
+    private String type;
+    private String title;
+    private String message;
+    private Notification.NotificationSeverity severity;
+    private Long relatedItemId;
+    private LocalDateTime createdAt;
+    private boolean read;
+}
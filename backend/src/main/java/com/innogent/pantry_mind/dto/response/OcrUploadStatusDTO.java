@@ -0,0 +1,24 @@
+package com.innogent.pantry_mind.dto.response;
+
+import com.innogent.pantry_mind.entity.AiExtractedItems;
+import com.innogent.pantry_mind.entity.OcrUpload;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class OcrUploadStatusDTO {
+    private Long id;
+    private Long kitchenId;
+    private OcrUpload.DocumentType documentType;
+    private OcrUpload.ProcessingStatus status;
+    private String originalFilename;
+    private Double confidenceSummary;
+    private Integer processingTimeMs;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    // Only filled once processing has completed
+    private List<AiExtractedItems> extractedItems;
+}
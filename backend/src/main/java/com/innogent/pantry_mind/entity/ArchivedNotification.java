@@ -0,0 +1,44 @@
+package com.innogent.pantry_mind.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Notifications past the retention window, moved out of the hot table by NotificationRetentionService
+@Entity
+@Table(name = "notifications_archive", indexes = {
+    @Index(name = "idx_notifications_archive_kitchen_created", columnList = "kitchen_id, created_at")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedNotification {
+
+    // Same id as the original notification
+    @Id
+    private Long id;
+
+    @Column(name = "kitchen_id", nullable = false)
+    private Long kitchenId;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private String type;
+
+    private String title;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    private Notification.NotificationSeverity severity;
+
+    private Long relatedItemId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
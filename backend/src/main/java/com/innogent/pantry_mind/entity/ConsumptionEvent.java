@@ -11,7 +11,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "consumption_events")
+@Table(name = "consumption_events", indexes = {
+    @Index(name = "idx_consumption_events_kitchen_created", columnList = "kitchen_id, created_at")
+})
 public class ConsumptionEvent {
     
     @Id
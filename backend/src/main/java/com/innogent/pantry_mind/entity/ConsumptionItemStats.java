@@ -0,0 +1,106 @@
+package com.innogent.pantry_mind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Running consumption statistics per kitchen item, folded in as consumption events are written so usage
+// patterns are read from one row per item instead of re-scanning the event history
+@Entity
+@Table(name = "consumption_item_stats",
+    uniqueConstraints = @UniqueConstraint(name = "uk_consumption_item_stats", columnNames = {"kitchen_id", "canonical_name"}),
+    indexes = @Index(name = "idx_consumption_item_stats_recent", columnList = "kitchen_id, last_event_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionItemStats {
+
+    private static final double SECONDS_PER_DAY = 86_400d;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "kitchen_id", nullable = false)
+    private Long kitchenId;
+
+    @Column(name = "canonical_name", nullable = false)
+    private String canonicalName;
+
+    @Builder.Default
+    @Column(name = "event_count", nullable = false)
+    private long eventCount = 0;
+
+    @Builder.Default
+    @Column(name = "quantity_sum", nullable = false, precision = 19, scale = 4)
+    private BigDecimal quantitySum = BigDecimal.ZERO;
+
+    @Column(name = "first_event_at")
+    private LocalDateTime firstEventAt;
+
+    @Column(name = "last_event_at")
+    private LocalDateTime lastEventAt;
+
+    // Welford running mean and sum of squared deviations of the gaps between consecutive events, in days
+    @Builder.Default
+    @Column(name = "gap_mean_days", nullable = false)
+    private double gapMeanDays = 0;
+
+    @Builder.Default
+    @Column(name = "gap_m2", nullable = false)
+    private double gapM2 = 0;
+
+    // Unit of the most recent event that had one
+    @Column(name = "unit_id")
+    private Long unitId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public void observe(BigDecimal quantity, Long eventUnitId, LocalDateTime at) {
+        eventCount++;
+        quantitySum = quantitySum.add(quantity != null ? quantity : BigDecimal.ZERO);
+        if (eventUnitId != null) {
+            unitId = eventUnitId;
+        }
+        updatedAt = LocalDateTime.now();
+        if (lastEventAt == null) {
+            firstEventAt = at;
+            lastEventAt = at;
+        } else if (!at.isBefore(lastEventAt)) {
+            addGap(daysBetween(lastEventAt, at));
+            lastEventAt = at;
+        } else if (!at.isAfter(firstEventAt)) {
+            addGap(daysBetween(at, firstEventAt));
+            firstEventAt = at;
+        } else {
+            // A back-dated event splits an existing gap: the mean stays exact (span / gaps), the spread is kept as is
+            gapMeanDays = daysBetween(firstEventAt, lastEventAt) / (eventCount - 1);
+        }
+    }
+
+    public long getGapCount() {
+        return Math.max(eventCount - 1, 0);
+    }
+
+    public double getGapVarianceDays() {
+        return getGapCount() > 1 ? gapM2 / (getGapCount() - 1) : 0;
+    }
+
+    private void addGap(double gap) {
+        long n = getGapCount();
+        double delta = gap - gapMeanDays;
+        gapMeanDays += delta / n;
+        gapM2 += delta * (gap - gapMeanDays);
+    }
+
+    private static double daysBetween(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMillis() / 1000d / SECONDS_PER_DAY;
+    }
+}
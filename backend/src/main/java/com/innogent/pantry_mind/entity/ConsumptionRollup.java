@@ -0,0 +1,63 @@
+package com.innogent.pantry_mind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Consumption events aggregated per kitchen, item, unit and reason into day or week buckets by the
+// compaction job; analytics read these for anything older than the raw-event horizon
+@Entity
+@Table(name = "consumption_rollups",
+    indexes = @Index(name = "idx_consumption_rollups_kitchen_bucket", columnList = "kitchen_id, granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Granularity granularity;
+
+    @Column(name = "kitchen_id", nullable = false)
+    private Long kitchenId;
+
+    // First day of the bucket; weekly buckets start on Monday
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "canonical_name", nullable = false)
+    private String canonicalName;
+
+    @Column(name = "unit_id")
+    private Long unitId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ConsumptionEvent.EventReason reason;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+
+    @Column(name = "quantity_sum", nullable = false, precision = 19, scale = 4)
+    private BigDecimal quantitySum;
+
+    @Column(name = "first_event_at")
+    private LocalDateTime firstEventAt;
+
+    @Column(name = "last_event_at")
+    private LocalDateTime lastEventAt;
+
+    public enum Granularity {
+        DAILY, WEEKLY
+    }
+}
@@ -0,0 +1,38 @@
+package com.innogent.pantry_mind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Progress of the consumption compaction job per granularity. Everything before rolledUntil is in the rollups;
+// for DAILY, retainedFrom is the first day still kept at day resolution, older days only exist as weeks, and
+// rolledEventId is the highest event id covered: rows before rolledUntil with a higher id arrived late.
+@Entity
+@Table(name = "consumption_rollup_watermarks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionRollupWatermark {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ConsumptionRollup.Granularity granularity;
+
+    @Column(name = "rolled_until", nullable = false)
+    private LocalDate rolledUntil;
+
+    @Column(name = "retained_from")
+    private LocalDate retainedFrom;
+
+    @Column(name = "rolled_event_id")
+    private Long rolledEventId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -4,10 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "kitchens")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "kitchens")
+@Table(name = "kitchens", indexes = {
+    @Index(name = "idx_kitchens_alert_due", columnList = "alerts_enabled, next_alert_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,6 +38,24 @@ public class Kitchen {
     @Column(name = "alerts_enabled")
     private Boolean alertsEnabled = true;
 
+    // Next daily alert slot; the alert scheduler only ever reads kitchens whose slot has passed
+    @Column(name = "next_alert_at")
+    private LocalDateTime nextAlertAt;
+
     @OneToMany(mappedBy = "kitchen", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<User> users;
+
+    // First alert slot strictly after the given time, at minute resolution
+    public void scheduleNextAlert(LocalDateTime after) {
+        LocalTime alertTime = LocalTime.of(alertTimeHour != null ? alertTimeHour : 8, alertTimeMinute != null ? alertTimeMinute : 0);
+        LocalDateTime candidate = after.toLocalDate().atTime(alertTime);
+        this.nextAlertAt = candidate.isAfter(after) ? candidate : candidate.plusDays(1);
+    }
+
+    @PrePersist
+    void initNextAlert() {
+        if (nextAlertAt == null) {
+            scheduleNextAlert(LocalDateTime.now());
+        }
+    }
 }
@@ -7,11 +7,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_kitchen_created", columnList = "kitchen_id, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -43,38 +43,10 @@ public class Notification {
     @Column(nullable = false)
     private boolean isRead = false;
     
-    @ElementCollection
-    @CollectionTable(name = "notification_read_by", joinColumns = @JoinColumn(name = "notification_id"))
-    @Column(name = "user_id")
-    @Builder.Default
-    private Set<Long> readByUsers = new HashSet<>();
-    
-    @ElementCollection
-    @CollectionTable(name = "notification_deleted_by", joinColumns = @JoinColumn(name = "notification_id"))
-    @Column(name = "user_id")
-    @Builder.Default
-    private Set<Long> deletedByUsers = new HashSet<>();
-    
     @CreationTimestamp
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
-    public boolean isReadByUser(Long userId) {
-        return readByUsers.contains(userId);
-    }
-    
-    public void markAsReadByUser(Long userId) {
-        readByUsers.add(userId);
-    }
-    
-    public void markAsDeletedByUser(Long userId) {
-        deletedByUsers.add(userId);
-    }
-    
-    public boolean isDeletedByUser(Long userId) {
-        return deletedByUsers.contains(userId);
-    }
-    
     public enum NotificationSeverity {
         INFO, WARNING, CRITICAL
     }
@@ -0,0 +1,36 @@
+package com.innogent.pantry_mind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Sparse per-user state of a kitchen notification: a row exists only once the user has read or deleted it
+@Entity
+@Table(name = "notification_user_state",
+    uniqueConstraints = @UniqueConstraint(name = "uk_notification_user_state", columnNames = {"notification_id", "user_id"}),
+    indexes = @Index(name = "idx_notification_user_state_user", columnList = "user_id, notification_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationUserState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+}
@@ -46,6 +46,9 @@ public class OcrUpload {
     @Column(name = "processing_time_ms")
     private Integer processingTimeMs;
 
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
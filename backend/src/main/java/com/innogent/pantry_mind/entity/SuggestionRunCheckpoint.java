@@ -0,0 +1,49 @@
+package com.innogent.pantry_mind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Progress of the daily suggestion job: one row per kitchen and run date, so an interrupted run resumes
+// with the kitchens still PENDING instead of starting over
+@Entity
+@Table(name = "suggestion_run_checkpoints",
+    uniqueConstraints = @UniqueConstraint(name = "uk_suggestion_run_checkpoint", columnNames = {"run_date", "kitchen_id"}),
+    indexes = @Index(name = "idx_suggestion_run_checkpoint_status", columnList = "run_date, status, kitchen_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionRunCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "kitchen_id", nullable = false)
+    private Long kitchenId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "items_added")
+    private Integer itemsAdded;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        PENDING, DONE, FAILED
+    }
+}
@@ -30,6 +30,9 @@ public class User {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    // Tokens issued at or before this moment carry stale kitchen/role claims
+    private LocalDateTime tokensValidAfter;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "kitchen_id")
     private Kitchen kitchen;
@@ -0,0 +1,7 @@
+package com.innogent.pantry_mind.exception;
+
+public class ConcurrentInventoryChangeException extends RuntimeException {
+    public ConcurrentInventoryChangeException(String message) {
+        super(message);
+    }
+}
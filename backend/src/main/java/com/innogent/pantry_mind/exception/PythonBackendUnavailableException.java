@@ -0,0 +1,7 @@
+package com.innogent.pantry_mind.exception;
+
+public class PythonBackendUnavailableException extends RuntimeException {
+    public PythonBackendUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -12,5 +12,6 @@ public interface KitchenMapper {
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "users", ignore = true)
+    @Mapping(target = "nextAlertAt", ignore = true)
     Kitchen toEntity(KitchenRequestDTO request);
 }
@@ -2,6 +2,9 @@ package com.innogent.pantry_mind.repository;
 
 import com.innogent.pantry_mind.entity.AiExtractedItems;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +13,8 @@ import java.util.List;
 public interface AiExtractedItemsRepository extends JpaRepository<AiExtractedItems, Long> {
     List<AiExtractedItems> findByOcrUploadId(Long ocrUploadId);
     List<AiExtractedItems> findByIsConfirmed(Boolean isConfirmed);
+
+    @Modifying
+    @Query("UPDATE AiExtractedItems a SET a.isConfirmed = true WHERE a.ocrUploadId = :ocrUploadId")
+    int markConfirmed(@Param("ocrUploadId") Long ocrUploadId);
 }
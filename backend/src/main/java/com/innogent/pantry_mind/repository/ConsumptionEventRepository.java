@@ -1,10 +1,15 @@
 package com.innogent.pantry_mind.repository;
 
+import com.innogent.pantry_mind.dto.ConsumptionActivityView;
+import com.innogent.pantry_mind.dto.response.ConsumptionEventResponseDTO;
 import com.innogent.pantry_mind.entity.ConsumptionEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -18,4 +23,59 @@ public interface ConsumptionEventRepository extends JpaRepository<ConsumptionEve
     
     @Query("SELECT ce FROM ConsumptionEvent ce WHERE ce.kitchen.id = :kitchenId AND ce.createdAt >= :since ORDER BY ce.createdAt DESC")
     List<ConsumptionEvent> findByKitchenIdAndCreatedAtAfter(@Param("kitchenId") Long kitchenId, @Param("since") LocalDateTime since);
+
+    // History projection: associations are read as foreign keys, so no lazy proxy reaches the serializer
+    String HISTORY_SELECT = "SELECT new com.innogent.pantry_mind.dto.response.ConsumptionEventResponseDTO(ce.id, ce.canonicalName, " +
+           "ce.quantityConsumed, u.id, u.name, ce.kitchen.id, ce.reason, ce.triggeredBy.id, ce.createdAt) " +
+           "FROM ConsumptionEvent ce LEFT JOIN ce.unit u " +
+           "WHERE ce.kitchen.id = :kitchenId AND ce.createdAt >= :since ";
+
+    String HISTORY_ORDER = "ORDER BY ce.createdAt DESC, ce.id DESC";
+
+    @Query(HISTORY_SELECT + HISTORY_ORDER)
+    List<ConsumptionEventResponseDTO> findHistorySince(@Param("kitchenId") Long kitchenId, @Param("since") LocalDateTime since);
+
+    @Query(HISTORY_SELECT + HISTORY_ORDER)
+    List<ConsumptionEventResponseDTO> findFirstHistoryPage(@Param("kitchenId") Long kitchenId, @Param("since") LocalDateTime since,
+                                                           Pageable pageable);
+
+    @Query(HISTORY_SELECT + "AND (ce.createdAt < :createdAt OR (ce.createdAt = :createdAt AND ce.id < :id)) " + HISTORY_ORDER)
+    List<ConsumptionEventResponseDTO> findHistoryPageAfter(@Param("kitchenId") Long kitchenId, @Param("since") LocalDateTime since,
+                                                           @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                           Pageable pageable);
+
+    // Raw tail of the analytics history, in the same shape as the rollup rows
+    @Query("SELECT new com.innogent.pantry_mind.dto.ConsumptionActivityView(ce.canonicalName, ce.quantityConsumed, u.name, " +
+           "CAST(ce.reason AS String), ce.createdAt, 1L, 'EVENT') " +
+           "FROM ConsumptionEvent ce LEFT JOIN ce.unit u WHERE ce.kitchen.id = :kitchenId AND ce.createdAt >= :since " +
+           "ORDER BY ce.createdAt DESC")
+    List<ConsumptionActivityView> findActivitySince(@Param("kitchenId") Long kitchenId, @Param("since") LocalDateTime since);
+
+    // Raw tail plus late events below the watermark that the compaction has not reached yet
+    @Query("SELECT new com.innogent.pantry_mind.dto.ConsumptionActivityView(ce.canonicalName, ce.quantityConsumed, u.name, " +
+           "CAST(ce.reason AS String), ce.createdAt, 1L, 'EVENT') " +
+           "FROM ConsumptionEvent ce LEFT JOIN ce.unit u WHERE ce.kitchen.id = :kitchenId AND ce.createdAt >= :since " +
+           "AND (ce.createdAt >= :rawFrom OR ce.id > :rolledEventId) " +
+           "ORDER BY ce.createdAt DESC")
+    List<ConsumptionActivityView> findActivitySinceWithLate(@Param("kitchenId") Long kitchenId, @Param("since") LocalDateTime since,
+                                                            @Param("rawFrom") LocalDateTime rawFrom,
+                                                            @Param("rolledEventId") Long rolledEventId);
+
+    @Query("SELECT MIN(ce.createdAt) FROM ConsumptionEvent ce")
+    LocalDateTime findEarliestCreatedAt();
+
+    @Query("SELECT COALESCE(MAX(ce.id), 0) FROM ConsumptionEvent ce")
+    Long findMaxId();
+
+    @Query("SELECT DISTINCT CAST(ce.createdAt AS LocalDate) FROM ConsumptionEvent ce " +
+           "WHERE ce.createdAt < :before AND ce.id > :afterId AND ce.id <= :upToId")
+    List<LocalDate> findDaysBetweenIds(@Param("before") LocalDateTime before, @Param("afterId") Long afterId,
+                                       @Param("upToId") Long upToId);
+
+    // Pruning of raw events that are already covered by DAILY rollups
+    @Modifying
+    @Query("DELETE FROM ConsumptionEvent ce WHERE ce.createdAt >= :from AND ce.createdAt < :to " +
+           "AND ce.id > :afterId AND ce.id <= :upToId")
+    int deleteRolledUp(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                       @Param("afterId") Long afterId, @Param("upToId") Long upToId);
 }
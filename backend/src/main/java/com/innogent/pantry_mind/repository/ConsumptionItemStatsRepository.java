@@ -0,0 +1,32 @@
+package com.innogent.pantry_mind.repository;
+
+import com.innogent.pantry_mind.entity.ConsumptionItemStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ConsumptionItemStatsRepository extends JpaRepository<ConsumptionItemStats, Long> {
+
+    // Plain read: a locking read that misses would take a gap lock and block the row inserts that follow it
+    @Query("SELECT s.canonicalName FROM ConsumptionItemStats s WHERE s.kitchenId = :kitchenId AND s.canonicalName IN :names")
+    List<String> findExistingNames(@Param("kitchenId") Long kitchenId, @Param("names") Collection<String> names);
+
+    // Rows are locked in name order so concurrent writers for the same kitchen cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ConsumptionItemStats s WHERE s.kitchenId = :kitchenId AND s.canonicalName IN :names " +
+           "ORDER BY s.canonicalName")
+    List<ConsumptionItemStats> findForUpdate(@Param("kitchenId") Long kitchenId, @Param("names") Collection<String> names);
+
+    // Pattern read: items consumed within the window, served by idx_consumption_item_stats_recent
+    @Query("SELECT s FROM ConsumptionItemStats s WHERE s.kitchenId = :kitchenId AND s.lastEventAt >= :since " +
+           "ORDER BY s.canonicalName")
+    List<ConsumptionItemStats> findActiveSince(@Param("kitchenId") Long kitchenId, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,66 @@
+package com.innogent.pantry_mind.repository;
+
+import com.innogent.pantry_mind.dto.ConsumptionActivityView;
+import com.innogent.pantry_mind.entity.ConsumptionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConsumptionRollupRepository extends JpaRepository<ConsumptionRollup, Long> {
+
+    // Raw events of whole days [from, to) with ids in (afterId, upToId] into one DAILY row per kitchen, day, item,
+    // unit and reason
+    @Modifying
+    @Query(value = "INSERT INTO consumption_rollups (granularity, kitchen_id, bucket_start, canonical_name, unit_id, reason, " +
+           "event_count, quantity_sum, first_event_at, last_event_at) " +
+           "SELECT 'DAILY', kitchen_id, CAST(created_at AS DATE), canonical_name, unit_id, reason, " +
+           "COUNT(*), SUM(quantity_consumed), MIN(created_at), MAX(created_at) FROM consumption_events " +
+           "WHERE created_at >= :from AND created_at < :to AND id > :afterId AND id <= :upToId " +
+           "GROUP BY kitchen_id, CAST(created_at AS DATE), canonical_name, unit_id, reason", nativeQuery = true)
+    int rollUpDays(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                   @Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // Late raw events of a week that is already rolled up, straight into extra WEEKLY rows
+    @Modifying
+    @Query(value = "INSERT INTO consumption_rollups (granularity, kitchen_id, bucket_start, canonical_name, unit_id, reason, " +
+           "event_count, quantity_sum, first_event_at, last_event_at) " +
+           "SELECT 'WEEKLY', kitchen_id, CAST(:weekStart AS DATE), canonical_name, unit_id, reason, " +
+           "COUNT(*), SUM(quantity_consumed), MIN(created_at), MAX(created_at) FROM consumption_events " +
+           "WHERE created_at >= :from AND created_at < :to AND id > :afterId AND id <= :upToId " +
+           "GROUP BY kitchen_id, canonical_name, unit_id, reason", nativeQuery = true)
+    int rollUpEventsIntoWeek(@Param("weekStart") LocalDate weekStart, @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to, @Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // DAILY rows of one week into WEEKLY rows starting on weekStart
+    @Modifying
+    @Query(value = "INSERT INTO consumption_rollups (granularity, kitchen_id, bucket_start, canonical_name, unit_id, reason, " +
+           "event_count, quantity_sum, first_event_at, last_event_at) " +
+           "SELECT 'WEEKLY', kitchen_id, CAST(:weekStart AS DATE), canonical_name, unit_id, reason, " +
+           "SUM(event_count), SUM(quantity_sum), MIN(first_event_at), MAX(last_event_at) FROM consumption_rollups " +
+           "WHERE granularity = 'DAILY' AND bucket_start >= :weekStart AND bucket_start < :weekEnd " +
+           "GROUP BY kitchen_id, canonical_name, unit_id, reason", nativeQuery = true)
+    int rollUpWeek(@Param("weekStart") LocalDate weekStart, @Param("weekEnd") LocalDate weekEnd);
+
+    @Modifying
+    @Query("DELETE FROM ConsumptionRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteBucketsBefore(@Param("granularity") ConsumptionRollup.Granularity granularity, @Param("before") LocalDate before);
+
+    // Weeks before dailyFrom, days from dailyFrom until dailyTo; callers pass empty ranges for the parts they do not need
+    @Query("SELECT new com.innogent.pantry_mind.dto.ConsumptionActivityView(r.canonicalName, r.quantitySum, u.name, " +
+           "CAST(r.reason AS String), r.lastEventAt, r.eventCount, CAST(r.granularity AS String)) " +
+           "FROM ConsumptionRollup r LEFT JOIN Unit u ON u.id = r.unitId WHERE r.kitchenId = :kitchenId AND (" +
+           "(r.granularity = com.innogent.pantry_mind.entity.ConsumptionRollup.Granularity.WEEKLY " +
+           "AND r.bucketStart >= :weeklyFrom AND r.bucketStart < :dailyFrom) OR " +
+           "(r.granularity = com.innogent.pantry_mind.entity.ConsumptionRollup.Granularity.DAILY " +
+           "AND r.bucketStart >= :dailyFrom AND r.bucketStart < :dailyTo)) " +
+           "ORDER BY r.bucketStart DESC, r.canonicalName")
+    List<ConsumptionActivityView> findActivity(@Param("kitchenId") Long kitchenId, @Param("weeklyFrom") LocalDate weeklyFrom,
+                                               @Param("dailyFrom") LocalDate dailyFrom, @Param("dailyTo") LocalDate dailyTo);
+}
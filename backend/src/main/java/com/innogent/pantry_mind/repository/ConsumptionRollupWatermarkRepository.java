@@ -0,0 +1,21 @@
+package com.innogent.pantry_mind.repository;
+
+import com.innogent.pantry_mind.entity.ConsumptionRollup.Granularity;
+import com.innogent.pantry_mind.entity.ConsumptionRollupWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ConsumptionRollupWatermarkRepository extends JpaRepository<ConsumptionRollupWatermark, Granularity> {
+
+    // Compaction steps hold this lock, so two instances never roll the same range twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM ConsumptionRollupWatermark w WHERE w.granularity = :granularity")
+    Optional<ConsumptionRollupWatermark> findForUpdate(@Param("granularity") Granularity granularity);
+}
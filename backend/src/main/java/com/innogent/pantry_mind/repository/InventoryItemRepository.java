@@ -1,5 +1,6 @@
 package com.innogent.pantry_mind.repository;
 
+import com.innogent.pantry_mind.dto.InventoryItemAggregateView;
 import com.innogent.pantry_mind.entity.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -17,6 +19,14 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     
     @Query("SELECT i FROM InventoryItem i WHERE i.inventory.id = :inventoryId ORDER BY i.expiryDate ASC")
     List<InventoryItem> findByInventoryIdOrderByExpiryDateAsc(@Param("inventoryId") Long inventoryId);
+
+    // Batch consume: resolve requested item ids and the FEFO candidates of requested groups in one query each
+    @Query("SELECT i FROM InventoryItem i JOIN FETCH i.inventory WHERE i.id IN :ids")
+    List<InventoryItem> findWithInventoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i FROM InventoryItem i JOIN FETCH i.inventory inv WHERE inv.id IN :inventoryIds " +
+           "ORDER BY inv.id, i.expiryDate ASC NULLS LAST, i.id")
+    List<InventoryItem> findWithInventoryByInventoryIdInOrderByExpiry(@Param("inventoryIds") Collection<Long> inventoryIds);
     
     @Query("SELECT SUM(i.quantity) FROM InventoryItem i WHERE i.inventory.id = :inventoryId")
     Long sumQuantityByInventoryId(@Param("inventoryId") Long inventoryId);
@@ -26,6 +36,10 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     
     @Query("SELECT COUNT(i) FROM InventoryItem i WHERE i.inventory.id = :inventoryId")
     Long countByInventoryId(@Param("inventoryId") Long inventoryId);
+
+    @Query("SELECT i.inventory.id AS inventoryId, COUNT(i.id) AS itemCount, COALESCE(SUM(i.quantity), 0) AS totalQuantity " +
+           "FROM InventoryItem i WHERE i.inventory.id IN :inventoryIds GROUP BY i.inventory.id")
+    List<InventoryItemAggregateView> aggregateByInventoryIds(@Param("inventoryIds") List<Long> inventoryIds);
     
     @Query(value = "SELECT COALESCE(SUM(ii.price), 0) FROM inventory_item ii JOIN inventory i ON ii.inventory_id = i.id WHERE i.kitchen_id = :kitchenId", nativeQuery = true)
     Double calculateTotalValueByKitchen(@Param("kitchenId") Long kitchenId);
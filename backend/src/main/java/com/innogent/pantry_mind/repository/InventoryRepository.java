@@ -1,21 +1,97 @@
 package com.innogent.pantry_mind.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.innogent.pantry_mind.dto.InventoryAlertCountsView;
+import com.innogent.pantry_mind.dto.InventorySummaryView;
 import com.innogent.pantry_mind.entity.Inventory;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findByKitchenId(Long kitchenId);
+
+    @Query("SELECT i FROM Inventory i LEFT JOIN FETCH i.unit WHERE i.kitchenId = :kitchenId ORDER BY i.id")
+    List<Inventory> findWithUnitByKitchenId(@Param("kitchenId") Long kitchenId);
+
+    String SUMMARY_SELECT = "SELECT i.id AS id, i.name AS name, c.id AS categoryId, c.name AS categoryName, " +
+           "u.id AS unitId, u.name AS unitName, i.totalQuantity AS totalQuantity, COUNT(ii.id) AS itemCount, " +
+           "i.minExpiryDaysAlert AS minExpiryDaysAlert, i.minStock AS minStock, " +
+           "MIN(CASE WHEN ii.expiryDate >= CURRENT_DATE THEN ii.expiryDate END) AS earliestExpiry " +
+           "FROM Inventory i LEFT JOIN i.category c LEFT JOIN i.unit u LEFT JOIN i.items ii ";
+
+    String SUMMARY_GROUP_BY = "GROUP BY i.id, i.name, c.id, c.name, u.id, u.name, i.totalQuantity, i.minExpiryDaysAlert, i.minStock " +
+           "ORDER BY i.id";
+
+    // Grouped listing: one aggregate query per kitchen instead of one expiry lookup plus lazy loads per group
+    @Query(SUMMARY_SELECT + "WHERE i.kitchenId = :kitchenId " + SUMMARY_GROUP_BY)
+    List<InventorySummaryView> findSummariesByKitchenId(@Param("kitchenId") Long kitchenId);
+
+    // Keyset page of the same listing; SUMMARY_GROUP_BY already orders by id
+    @Query(SUMMARY_SELECT + "WHERE i.kitchenId = :kitchenId AND i.id > :afterId " + SUMMARY_GROUP_BY)
+    List<InventorySummaryView> findSummariesByKitchenIdAfter(@Param("kitchenId") Long kitchenId, @Param("afterId") Long afterId,
+                                                             Pageable pageable);
+
+    // Alert evaluation in one statement: expired items, items inside their group's warning window, low-stock groups
+    @Query("SELECT " +
+           "(SELECT COUNT(ii.id) FROM InventoryItem ii WHERE ii.inventory.kitchenId = k.id AND ii.expiryDate < :tomorrow) AS expiredCount, " +
+           "(SELECT COUNT(ii.id) FROM InventoryItem ii WHERE ii.inventory.kitchenId = k.id AND ii.expiryDate >= :tomorrow " +
+           "AND ii.expiryDate < CAST(:tomorrow AS LocalDateTime) + (COALESCE(ii.inventory.minExpiryDaysAlert, 3)) day) AS expiringSoonCount, " +
+           "(SELECT COUNT(i.id) FROM Inventory i WHERE i.kitchenId = k.id AND i.totalQuantity <= COALESCE(i.minStock, 5)) AS lowStockCount " +
+           "FROM Kitchen k WHERE k.id = :kitchenId")
+    InventoryAlertCountsView findAlertCounts(@Param("kitchenId") Long kitchenId, @Param("tomorrow") LocalDateTime tomorrow);
+
+    @Query(SUMMARY_SELECT + SUMMARY_GROUP_BY)
+    List<InventorySummaryView> findAllSummaries();
+
+    // Atomic delta maintenance of the denormalized totals; concurrent writers never overwrite each other
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.totalQuantity = COALESCE(i.totalQuantity, 0) + :quantityDelta, " +
+           "i.itemCount = COALESCE(i.itemCount, 0) + :countDelta, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id")
+    int applyTotalsDelta(@Param("id") Long id, @Param("quantityDelta") Long quantityDelta, @Param("countDelta") Integer countDelta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Inventory i WHERE i.id = :id AND i.itemCount <= 0 " +
+           "AND NOT EXISTS (SELECT 1 FROM InventoryItem ii WHERE ii.inventory.id = i.id)")
+    int deleteIfEmpty(@Param("id") Long id);
+
+    // Verification mode: recompute from inventory_item, touching the row only when it has drifted
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET " +
+           "i.totalQuantity = (SELECT COALESCE(SUM(ii.quantity), 0) FROM InventoryItem ii WHERE ii.inventory.id = i.id), " +
+           "i.itemCount = (SELECT CAST(COUNT(ii.id) AS Integer) FROM InventoryItem ii WHERE ii.inventory.id = i.id) " +
+           "WHERE i.id = :id AND (" +
+           "i.totalQuantity <> (SELECT COALESCE(SUM(ii.quantity), 0) FROM InventoryItem ii WHERE ii.inventory.id = i.id) OR " +
+           "i.itemCount <> (SELECT COUNT(ii.id) FROM InventoryItem ii WHERE ii.inventory.id = i.id))")
+    int correctTotalsDrift(@Param("id") Long id);
+
+    // Reconciliation write: applied only if the row still holds the values the job read, so a delta committed
+    // in between is never overwritten
+    @Modifying
+    @Query("UPDATE Inventory i SET i.itemCount = :actualCount, i.totalQuantity = :actualQuantity, i.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE i.id = :id AND COALESCE(i.itemCount, 0) = :observedCount AND COALESCE(i.totalQuantity, 0) = :observedQuantity")
+    int correctTotalsIfUnchanged(@Param("id") Long id, @Param("observedCount") Integer observedCount,
+                                 @Param("observedQuantity") Long observedQuantity, @Param("actualCount") Integer actualCount,
+                                 @Param("actualQuantity") Long actualQuantity);
+
+    // Keyset chunk for background jobs; stable under concurrent inserts and deletes unlike offset paging
+    @Query("SELECT i FROM Inventory i WHERE i.id > :afterId ORDER BY i.id")
+    List<Inventory> findChunkAfterId(@Param("afterId") Long afterId, Pageable pageable);
     
     Optional<Inventory> findByNormalizedNameAndCategoryIdAndUnitIdAndKitchenId(
         String normalizedName, Long categoryId, Long unitId, Long kitchenId);
+
+    // Bulk group resolution; category and unit are matched in memory from the ids on the lazy references
+    List<Inventory> findByKitchenIdAndNormalizedNameIn(Long kitchenId, Collection<String> normalizedNames);
     
     @Query("SELECT i.name FROM Inventory i WHERE i.kitchenId = :kitchenId AND i.category.id = :categoryId AND i.unit.id = :unitId")
     List<String> findExistingNamesByKitchenAndCategoryAndUnit(
@@ -1,13 +1,27 @@
 package com.innogent.pantry_mind.repository;
 
 import com.innogent.pantry_mind.entity.Kitchen;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface KitchenRepository extends JpaRepository<Kitchen, Long> {
     Optional<Kitchen> findByName(String name);
     Optional<Kitchen> findByInvitationCode(String invitationCode);
+
+    // Due alert slots, read through idx_kitchens_alert_due; the row lock keeps two instances from claiming the same slot
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT k FROM Kitchen k WHERE k.alertsEnabled = true AND k.nextAlertAt <= :now ORDER BY k.nextAlertAt, k.id")
+    List<Kitchen> findDueForAlerts(@Param("now") LocalDateTime now, Pageable pageable);
+
+    List<Kitchen> findByNextAlertAtIsNull();
 }
@@ -1,7 +1,9 @@
 package com.innogent.pantry_mind.repository;
 
+import com.innogent.pantry_mind.dto.response.NotificationResponseDTO;
 import com.innogent.pantry_mind.entity.Notification;
 import com.innogent.pantry_mind.entity.Notification.NotificationSeverity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,10 +20,35 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findTop10ByKitchenIdOrderByCreatedAtDesc(Long kitchenId);
     boolean existsByKitchenIdAndTypeAndCreatedAtAfter(Long kitchenId, String type, LocalDateTime after);
     long countByKitchenIdAndSeverityAndIsReadFalse(Long kitchenId, NotificationSeverity severity);
-    
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.kitchenId = :kitchenId AND (:userId NOT MEMBER OF n.readByUsers OR n.readByUsers IS EMPTY)")
-    long countUnreadByUser(@Param("kitchenId") Long kitchenId, @Param("userId") Long userId);
-    
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.kitchenId = :kitchenId AND (:userId NOT MEMBER OF n.readByUsers OR n.readByUsers IS EMPTY) AND n.type NOT IN :excludedTypes")
-    long countUnreadByUserExcludingTypes(@Param("kitchenId") Long kitchenId, @Param("userId") Long userId, @Param("excludedTypes") List<String> excludedTypes);
-}
\ No newline at end of file
+
+    // Per-user read model: the sparse state row is outer-joined, so notifications nobody touched cost no extra rows
+    String USER_VIEW_FROM = "FROM Notification n LEFT JOIN NotificationUserState s " +
+           "ON s.notificationId = n.id AND s.userId = :userId " +
+           "WHERE n.kitchenId = :kitchenId AND s.deletedAt IS NULL " +
+           "AND (:hideMemberEvents = false OR n.type NOT IN ('MEMBER_JOINED', 'MEMBER_REMOVED')) ";
+
+    String USER_VIEW_SELECT = "SELECT new com.innogent.pantry_mind.dto.response.NotificationResponseDTO(n.id, n.kitchenId, n.userId, " +
+           "n.type, n.title, n.message, n.severity, n.relatedItemId, n.createdAt, " +
+           "CASE WHEN s.readAt IS NOT NULL THEN true ELSE false END) ";
+
+    @Query(USER_VIEW_SELECT + USER_VIEW_FROM + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponseDTO> findAllForUser(@Param("kitchenId") Long kitchenId, @Param("userId") Long userId,
+                                                 @Param("hideMemberEvents") boolean hideMemberEvents);
+
+    // Keyset paging on (createdAt, id) DESC: the cursor is the last row seen, so inserts never shift a page
+    @Query(USER_VIEW_SELECT + USER_VIEW_FROM + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponseDTO> findFirstKeysetPageForUser(@Param("kitchenId") Long kitchenId, @Param("userId") Long userId,
+                                                             @Param("hideMemberEvents") boolean hideMemberEvents, Pageable pageable);
+
+    @Query(USER_VIEW_SELECT + USER_VIEW_FROM +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponseDTO> findKeysetPageForUserAfter(@Param("kitchenId") Long kitchenId, @Param("userId") Long userId,
+                                                             @Param("hideMemberEvents") boolean hideMemberEvents,
+                                                             @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                             Pageable pageable);
+
+    @Query("SELECT COUNT(n) " + USER_VIEW_FROM + "AND s.readAt IS NULL")
+    long countUnreadForUser(@Param("kitchenId") Long kitchenId, @Param("userId") Long userId,
+                            @Param("hideMemberEvents") boolean hideMemberEvents);
+}
@@ -0,0 +1,35 @@
+package com.innogent.pantry_mind.repository;
+
+import com.innogent.pantry_mind.entity.NotificationUserState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface NotificationUserStateRepository extends JpaRepository<NotificationUserState, Long> {
+
+    Optional<NotificationUserState> findByNotificationIdAndUserId(Long notificationId, Long userId);
+
+    String KITCHEN_NOTIFICATIONS = "SELECT n.id FROM notifications n WHERE n.kitchen_id = :kitchenId " +
+           "AND (:hideMemberEvents = false OR n.type NOT IN ('MEMBER_JOINED', 'MEMBER_REMOVED'))";
+
+    // Mark-all-read is two set-based statements: create read rows where the user has none, then stamp the rest
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO notification_user_state (notification_id, user_id, read_at) " +
+           "SELECT k.id, :userId, CURRENT_TIMESTAMP FROM (" + KITCHEN_NOTIFICATIONS + ") k " +
+           "WHERE NOT EXISTS (SELECT 1 FROM notification_user_state s WHERE s.notification_id = k.id AND s.user_id = :userId)",
+           nativeQuery = true)
+    int insertReadStates(@Param("kitchenId") Long kitchenId, @Param("userId") Long userId,
+                         @Param("hideMemberEvents") boolean hideMemberEvents);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE notification_user_state SET read_at = CURRENT_TIMESTAMP " +
+           "WHERE user_id = :userId AND read_at IS NULL AND notification_id IN (" + KITCHEN_NOTIFICATIONS + ")",
+           nativeQuery = true)
+    int markExistingRead(@Param("kitchenId") Long kitchenId, @Param("userId") Long userId,
+                         @Param("hideMemberEvents") boolean hideMemberEvents);
+}
@@ -2,8 +2,17 @@ package com.innogent.pantry_mind.repository;
 
 import com.innogent.pantry_mind.entity.OcrUpload;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface OcrUploadRepository extends JpaRepository<OcrUpload, Long> {
-}
\ No newline at end of file
+
+    // Atomic claim of the confirmation: a second confirm of the same upload updates nothing
+    @Modifying
+    @Query("UPDATE OcrUpload u SET u.status = com.innogent.pantry_mind.entity.OcrUpload.ProcessingStatus.CONFIRMED " +
+           "WHERE u.id = :id AND u.status <> com.innogent.pantry_mind.entity.OcrUpload.ProcessingStatus.CONFIRMED")
+    int markConfirmed(@Param("id") Long id);
+}
@@ -17,6 +17,10 @@ public interface ShoppingListItemRepository extends JpaRepository<ShoppingListIt
     List<ShoppingListItem> findByShoppingList(ShoppingList shoppingList);
     Optional<ShoppingListItem> findByShoppingListAndCanonicalName(ShoppingList shoppingList, String canonicalName);
     List<ShoppingListItem> findByShoppingListId(Long shoppingListId);
+
+    @Query("SELECT sli.canonicalName FROM ShoppingListItem sli WHERE sli.shoppingList.id = :shoppingListId AND sli.status = :status")
+    List<String> findCanonicalNamesByShoppingListIdAndStatus(@Param("shoppingListId") Long shoppingListId,
+                                                             @Param("status") ShoppingListItem.ItemStatus status);
     
     @Query("SELECT sli FROM ShoppingListItem sli " +
            "JOIN sli.shoppingList sl " +
@@ -1,5 +1,6 @@
 package com.innogent.pantry_mind.repository;
 
+import com.innogent.pantry_mind.dto.RuleSuggestionView;
 import com.innogent.pantry_mind.entity.SuggestionRule;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -15,4 +16,22 @@ public interface SuggestionRuleRepository extends JpaRepository<SuggestionRule,
     List<SuggestionRule> findActiveRulesByKitchen(@Param("kitchenId") Long kitchenId);
     
     Optional<SuggestionRule> findByCanonicalNameAndKitchenId(String canonicalName, Long kitchenId);
+
+    // Applied when a kitchen has no rule for an item
+    int DEFAULT_REORDER_THRESHOLD = 5;
+    int DEFAULT_SUGGESTED_QUANTITY = 10;
+
+    // Rules saved before is_active was set explicitly carry NULL and count as active
+    @Query("SELECT sr FROM SuggestionRule sr WHERE sr.kitchen.id = :kitchenId AND COALESCE(sr.isActive, true) = true ORDER BY sr.id")
+    List<SuggestionRule> findEffectiveRulesByKitchen(@Param("kitchenId") Long kitchenId);
+
+    // SQL-side evaluation: only groups at or below their threshold come back, defaults apply when no rule matches
+    @Query("SELECT i.name AS name, u.name AS unitName, i.totalQuantity AS totalQuantity, " +
+           "COALESCE(sr.suggestedQuantity, " + DEFAULT_SUGGESTED_QUANTITY + ") AS suggestedQuantity " +
+           "FROM Inventory i LEFT JOIN i.unit u " +
+           "LEFT JOIN SuggestionRule sr ON sr.kitchen.id = i.kitchenId AND sr.canonicalName = i.normalizedName " +
+           "AND COALESCE(sr.isActive, true) = true " +
+           "WHERE i.kitchenId = :kitchenId AND COALESCE(i.totalQuantity, 0) <= COALESCE(sr.reorderThreshold, " + DEFAULT_REORDER_THRESHOLD + ") " +
+           "ORDER BY i.id, sr.id")
+    List<RuleSuggestionView> findBelowThreshold(@Param("kitchenId") Long kitchenId);
 }
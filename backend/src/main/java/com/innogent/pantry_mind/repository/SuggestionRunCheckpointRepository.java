@@ -0,0 +1,45 @@
+package com.innogent.pantry_mind.repository;
+
+import com.innogent.pantry_mind.entity.SuggestionRunCheckpoint;
+import com.innogent.pantry_mind.entity.SuggestionRunCheckpoint.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SuggestionRunCheckpointRepository extends JpaRepository<SuggestionRunCheckpoint, Long> {
+
+    // Starting a run is idempotent: kitchens that already have a row for the date keep their progress
+    @Modifying
+    @Query(value = "INSERT INTO suggestion_run_checkpoints (run_date, kitchen_id, status, items_added, updated_at) " +
+           "SELECT :runDate, k.id, 'PENDING', 0, :now FROM kitchens k " +
+           "WHERE NOT EXISTS (SELECT 1 FROM suggestion_run_checkpoints c WHERE c.run_date = :runDate AND c.kitchen_id = k.id)",
+           nativeQuery = true)
+    int insertPending(@Param("runDate") LocalDate runDate, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c.kitchenId FROM SuggestionRunCheckpoint c WHERE c.runDate = :runDate AND c.status = :status " +
+           "AND c.kitchenId > :afterId ORDER BY c.kitchenId")
+    List<Long> findKitchenIdsByStatus(@Param("runDate") LocalDate runDate, @Param("status") Status status,
+                                      @Param("afterId") Long afterId, Pageable pageable);
+
+    boolean existsByRunDateAndStatus(LocalDate runDate, Status status);
+
+    long countByRunDateAndStatus(LocalDate runDate, Status status);
+
+    @Modifying
+    @Query("UPDATE SuggestionRunCheckpoint c SET c.status = :status, c.itemsAdded = :itemsAdded, c.error = :error, " +
+           "c.updatedAt = :now WHERE c.runDate = :runDate AND c.kitchenId = :kitchenId")
+    int markFinished(@Param("runDate") LocalDate runDate, @Param("kitchenId") Long kitchenId, @Param("status") Status status,
+                     @Param("itemsAdded") Integer itemsAdded, @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM SuggestionRunCheckpoint c WHERE c.runDate < :cutoff")
+    int deleteByRunDateBefore(@Param("cutoff") LocalDate cutoff);
+}
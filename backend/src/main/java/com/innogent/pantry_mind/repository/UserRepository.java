@@ -2,6 +2,8 @@ package com.innogent.pantry_mind.repository;
 
 import com.innogent.pantry_mind.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,6 +14,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     List<User> findByKitchen_Id(Long kitchenId);
     List<User> findByKitchen_IdAndCreatedAtAfterOrderByCreatedAtDesc(Long kitchenId, LocalDateTime after);
+
+    // Users whose tokens were never revoked get the fallback; empty when the user no longer exists
+    @Query("SELECT COALESCE(u.tokensValidAfter, :fallback) FROM User u WHERE u.email = :email")
+    Optional<LocalDateTime> findTokensValidAfterByEmail(@Param("email") String email, @Param("fallback") LocalDateTime fallback);
 }
 
 
@@ -0,0 +1,209 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.dto.request.ConsumeItemsRequestDTO;
+import com.innogent.pantry_mind.dto.response.ConsumeItemsResponseDTO;
+import com.innogent.pantry_mind.dto.response.ConsumeItemsResponseDTO.ConsumeItemResultDTO;
+import com.innogent.pantry_mind.dto.response.ConsumeItemsResponseDTO.ConsumeStatus;
+import com.innogent.pantry_mind.entity.ConsumptionEvent;
+import com.innogent.pantry_mind.entity.Inventory;
+import com.innogent.pantry_mind.entity.InventoryItem;
+import com.innogent.pantry_mind.exception.ConcurrentInventoryChangeException;
+import com.innogent.pantry_mind.repository.InventoryItemRepository;
+import com.innogent.pantry_mind.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Consumes a whole recipe in one plan: two IN queries to resolve ids, FEFO depletion in memory,
+// then JDBC batches for item updates/deletes, consumption events and group totals.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchConsumeService {
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryTotalsService inventoryTotalsService;
+    private final ConsumptionStatsService consumptionStatsService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public ConsumeItemsResponseDTO consume(ConsumeItemsRequestDTO dto) {
+        ConsumeItemsResponseDTO response = new ConsumeItemsResponseDTO();
+        List<ConsumeItemsRequestDTO.ConsumeItemDTO> lines = dto.getItems() != null ? dto.getItems() : List.of();
+        if (lines.isEmpty()) {
+            return response;
+        }
+
+        Set<Long> requestedIds = lines.stream()
+                .map(ConsumeItemsRequestDTO.ConsumeItemDTO::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        // Ids resolve as individual items first, then as inventory groups, matching the single-item endpoint
+        Map<Long, InventoryItem> itemsById = requestedIds.isEmpty() ? Map.of() :
+                inventoryItemRepository.findWithInventoryByIdIn(requestedIds).stream()
+                        .collect(Collectors.toMap(InventoryItem::getId, Function.identity()));
+
+        Set<Long> groupIds = new LinkedHashSet<>(requestedIds);
+        groupIds.removeAll(itemsById.keySet());
+
+        Map<Long, List<InventoryItem>> itemsByGroup = new LinkedHashMap<>();
+        Map<Long, Inventory> groupsById = new HashMap<>();
+        if (!groupIds.isEmpty()) {
+            for (InventoryItem item : inventoryItemRepository.findWithInventoryByInventoryIdInOrderByExpiry(groupIds)) {
+                Inventory inventory = item.getInventory();
+                groupsById.putIfAbsent(inventory.getId(), inventory);
+                itemsByGroup.computeIfAbsent(inventory.getId(), id -> new ArrayList<>()).add(item);
+            }
+            // Groups without any items are still known groups, only a third lookup tells them from unknown ids
+            Set<Long> emptyCandidates = new LinkedHashSet<>(groupIds);
+            emptyCandidates.removeAll(groupsById.keySet());
+            if (!emptyCandidates.isEmpty()) {
+                inventoryRepository.findAllById(emptyCandidates)
+                        .forEach(inventory -> groupsById.put(inventory.getId(), inventory));
+            }
+        }
+
+        // Plan: remaining quantities are tracked per item id so entities are never mutated
+        Map<Long, Long> remaining = new HashMap<>();
+        Map<Long, InventoryItem> touchedItems = new LinkedHashMap<>();
+        List<Object[]> eventArgs = new ArrayList<>();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        for (ConsumeItemsRequestDTO.ConsumeItemDTO line : lines) {
+            long requested = line.getConsumedQuantity() != null ? line.getConsumedQuantity().longValue() : 0L;
+            ConsumeItemResultDTO result = new ConsumeItemResultDTO();
+            result.setId(line.getId());
+            result.setRequestedQuantity(requested);
+            result.setConsumedQuantity(0L);
+
+            InventoryItem directItem = line.getId() != null ? itemsById.get(line.getId()) : null;
+            Inventory group = line.getId() != null ? groupsById.get(line.getId()) : null;
+
+            if (directItem != null) {
+                result.setName(directItem.getInventory().getName());
+                long available = remaining.computeIfAbsent(directItem.getId(), id -> quantityOf(directItem));
+                // A single item is consumed all-or-nothing, as before
+                if (available >= requested) {
+                    remaining.put(directItem.getId(), available - requested);
+                    touchedItems.put(directItem.getId(), directItem);
+                    result.setConsumedQuantity(requested);
+                    result.setStatus(ConsumeStatus.CONSUMED);
+                    addEvent(eventArgs, directItem.getInventory(), directItem.getCreatedBy(), requested, now);
+                } else {
+                    result.setStatus(ConsumeStatus.INSUFFICIENT_QUANTITY);
+                }
+            } else if (group != null) {
+                result.setName(group.getName());
+                long toConsume = requested;
+                Long triggeredBy = null;
+                for (InventoryItem item : itemsByGroup.getOrDefault(group.getId(), List.of())) {
+                    if (toConsume <= 0) break;
+                    long available = remaining.computeIfAbsent(item.getId(), id -> quantityOf(item));
+                    long taken = Math.min(toConsume, available);
+                    if (taken <= 0) continue;
+                    remaining.put(item.getId(), available - taken);
+                    touchedItems.put(item.getId(), item);
+                    toConsume -= taken;
+                    if (triggeredBy == null) triggeredBy = item.getCreatedBy();
+                }
+                long consumed = requested - toConsume;
+                result.setConsumedQuantity(consumed);
+                if (consumed > 0) {
+                    addEvent(eventArgs, group, triggeredBy, consumed, now);
+                }
+                result.setStatus(toConsume <= 0 ? ConsumeStatus.CONSUMED
+                        : consumed > 0 ? ConsumeStatus.PARTIAL : ConsumeStatus.INSUFFICIENT_QUANTITY);
+            } else {
+                result.setStatus(ConsumeStatus.NOT_FOUND);
+            }
+            response.getResults().add(result);
+        }
+
+        apply(touchedItems, remaining, eventArgs, response);
+        log.debug("Batch consume of {} lines: {} items updated, {} removed, {} groups removed",
+                lines.size(), response.getItemsUpdated(), response.getItemsRemoved(), response.getGroupsRemoved());
+        return response;
+    }
+
+    private void apply(Map<Long, InventoryItem> touchedItems, Map<Long, Long> remaining,
+                       List<Object[]> eventArgs, ConsumeItemsResponseDTO response) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Map<Long, Long> quantityDeltas = new LinkedHashMap<>();
+        Map<Long, Integer> countDeltas = new HashMap<>();
+
+        for (InventoryItem item : touchedItems.values()) {
+            long original = quantityOf(item);
+            long left = remaining.get(item.getId());
+            Long inventoryId = item.getInventory().getId();
+            quantityDeltas.merge(inventoryId, left - original, Long::sum);
+            // The read quantity guards every write, so a concurrent change aborts the whole plan
+            if (left == 0) {
+                deletes.add(new Object[]{item.getId(), original});
+                countDeltas.merge(inventoryId, -1, Integer::sum);
+            } else {
+                updates.add(new Object[]{left, item.getId(), original});
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            checkApplied(jdbcTemplate.batchUpdate(
+                    "UPDATE inventory_item SET quantity = ? WHERE id = ? AND quantity = ?", updates));
+        }
+        if (!deletes.isEmpty()) {
+            checkApplied(jdbcTemplate.batchUpdate(
+                    "DELETE FROM inventory_item WHERE id = ? AND quantity = ?", deletes));
+        }
+        if (!eventArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO consumption_events " +
+                    "(canonical_name, quantity_consumed, unit_id, kitchen_id, reason, triggered_by, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)", eventArgs);
+            consumptionStatsService.recordAll(eventArgs.stream()
+                    .map(args -> new ConsumptionStatsService.Observation((Long) args[3], (String) args[0], (BigDecimal) args[1],
+                            (Long) args[2], ((Timestamp) args[6]).toLocalDateTime()))
+                    .toList());
+        }
+
+        inventoryTotalsService.applyDeltas(quantityDeltas, countDeltas);
+        response.setItemsUpdated(updates.size());
+        response.setItemsRemoved(deletes.size());
+        response.setGroupsRemoved(inventoryTotalsService.removeEmpty(countDeltas.keySet()));
+    }
+
+    private void addEvent(List<Object[]> eventArgs, Inventory inventory, Long triggeredBy, long quantity, Timestamp now) {
+        if (inventory.getKitchenId() == null) {
+            return;
+        }
+        Long unitId = inventory.getUnit() != null ? inventory.getUnit().getId() : null;
+        eventArgs.add(new Object[]{inventory.getName(), BigDecimal.valueOf(quantity), unitId, inventory.getKitchenId(),
+                ConsumptionEvent.EventReason.CONSUMED.name(), triggeredBy, now});
+    }
+
+    private void checkApplied(int[] counts) {
+        for (int count : counts) {
+            if (count == 0) {
+                throw new ConcurrentInventoryChangeException("Inventory changed while consuming, please retry");
+            }
+        }
+    }
+
+    private long quantityOf(InventoryItem item) {
+        return item.getQuantity() != null ? item.getQuantity() : 0L;
+    }
+}
@@ -0,0 +1,76 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.dto.ConsumptionActivityView;
+import com.innogent.pantry_mind.entity.ConsumptionRollup.Granularity;
+import com.innogent.pantry_mind.entity.ConsumptionRollupWatermark;
+import com.innogent.pantry_mind.repository.ConsumptionEventRepository;
+import com.innogent.pantry_mind.repository.ConsumptionRollupRepository;
+import com.innogent.pantry_mind.repository.ConsumptionRollupWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Consumption history for analytics: raw events after the compaction watermark, DAILY rollups before it and
+// WEEKLY rollups where day resolution has expired. Three statements whatever the size of the window.
+// Rollup buckets are whole days or weeks, so the oldest bucket may reach slightly before the requested start.
+@Service
+@RequiredArgsConstructor
+public class ConsumptionHistoryService {
+
+    private final ConsumptionEventRepository consumptionEventRepository;
+    private final ConsumptionRollupRepository rollupRepository;
+    private final ConsumptionRollupWatermarkRepository watermarkRepository;
+
+    @Transactional(readOnly = true)
+    public List<ConsumptionActivityView> getActivitySince(Long kitchenId, LocalDateTime since) {
+        Map<Granularity, ConsumptionRollupWatermark> watermarks = new EnumMap<>(Granularity.class);
+        watermarkRepository.findAll().forEach(watermark -> watermarks.put(watermark.getGranularity(), watermark));
+        ConsumptionRollupWatermark daily = watermarks.get(Granularity.DAILY);
+        if (daily == null || !since.isBefore(daily.getRolledUntil().atStartOfDay())) {
+            return consumptionEventRepository.findActivitySince(kitchenId, since);
+        }
+
+        LocalDateTime rawFrom = daily.getRolledUntil().atStartOfDay();
+        LocalDate sinceDay = since.toLocalDate();
+        LocalDate retainedFrom = daily.getRetainedFrom();
+        LocalDate dailyFrom = retainedFrom != null && retainedFrom.isAfter(sinceDay) ? retainedFrom : sinceDay;
+        LocalDate weeklyFrom = ConsumptionRollupService.mondayOf(sinceDay);
+
+        // Late events before the watermark are read raw until the next compaction rolls them up
+        Long rolledEventId = daily.getRolledEventId() != null ? daily.getRolledEventId() : Long.MAX_VALUE;
+        List<ConsumptionActivityView> activity = new ArrayList<>(
+                consumptionEventRepository.findActivitySinceWithLate(kitchenId, since, rawFrom, rolledEventId));
+        activity.addAll(rollupRepository.findActivity(kitchenId, weeklyFrom, dailyFrom, daily.getRolledUntil()));
+        return activity;
+    }
+
+    // Payload shape expected by the Python analysis endpoints; rollup lines also carry their event count
+    public List<Map<String, Object>> getActivityMapsSince(Long kitchenId, LocalDateTime since) {
+        return getActivitySince(kitchenId, since).stream()
+                .map(ConsumptionHistoryService::toMap)
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> toMap(ConsumptionActivityView activity) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("itemName", activity.getItemName());
+        map.put("quantity", activity.getQuantity());
+        map.put("consumedAt", activity.getConsumedAt().toString());
+        map.put("reason", activity.getReason());
+        map.put("eventCount", activity.getEventCount());
+        map.put("granularity", activity.getGranularity());
+        if (activity.getUnitName() != null) {
+            map.put("unit", activity.getUnitName());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,200 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.entity.ConsumptionRollup.Granularity;
+import com.innogent.pantry_mind.entity.ConsumptionRollupWatermark;
+import com.innogent.pantry_mind.repository.ConsumptionEventRepository;
+import com.innogent.pantry_mind.repository.ConsumptionRollupRepository;
+import com.innogent.pantry_mind.repository.ConsumptionRollupWatermarkRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Compaction of consumption_events: whole days older than the horizon become DAILY rollups, complete weeks of
+// those become WEEKLY rollups. Each step runs in its own transaction together with its watermark update, so an
+// interrupted run continues where it stopped and no range is ever rolled twice.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConsumptionRollupService {
+
+    private final ConsumptionRollupRepository rollupRepository;
+    private final ConsumptionRollupWatermarkRepository watermarkRepository;
+    private final ConsumptionEventRepository consumptionEventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${consumption.rollup.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${consumption.rollup.days-per-step:7}")
+    private int daysPerStep;
+
+    @Value("${consumption.rollup.prune-raw-events:false}")
+    private boolean pruneRawEvents;
+
+    @Value("${consumption.rollup.daily-retention-days:400}")
+    private int dailyRetentionDays;
+
+    // Pruning is lossy for readers of raw events: the history endpoints and a stats rebuild stop at the horizon
+    @EventListener(ApplicationReadyEvent.class)
+    public void warnIfPruning() {
+        if (pruneRawEvents) {
+            log.warn("consumption.rollup.prune-raw-events is on: GET /api/consumption and consumption stats rebuilds only see " +
+                    "the last {} days of events", horizonDays);
+        }
+    }
+
+    @Scheduled(cron = "${consumption.rollup.cron:0 30 3 * * *}")
+    @Timed(value = "pantry.scheduler.run", extraTags = {"job", "consumption-rollup"}, histogram = true)
+    public void scheduledCompaction() {
+        compact(LocalDate.now());
+    }
+
+    public int compact(LocalDate today) {
+        LocalDate horizon = today.minusDays(horizonDays);
+        ensureWatermarks(horizon);
+
+        int dailyRows = 0;
+        Integer rows;
+        while ((rows = transactionTemplate.execute(status -> rollUpNextDays(horizon))) != null) {
+            dailyRows += rows;
+        }
+        dailyRows += transactionTemplate.execute(status ->
+                rollUpLateEvents(lockWatermark(Granularity.DAILY), consumptionEventRepository.findMaxId()));
+        int weeklyRows = 0;
+        while ((rows = transactionTemplate.execute(status -> rollUpNextWeek())) != null) {
+            weeklyRows += rows;
+        }
+        int expiredDaily = transactionTemplate.execute(status -> expireDailyBuckets(today.minusDays(dailyRetentionDays)));
+
+        if (dailyRows + weeklyRows + expiredDaily > 0) {
+            log.info("Consumption compaction up to {}: {} daily and {} weekly rollups written, {} daily rollups expired",
+                    horizon, dailyRows, weeklyRows, expiredDaily);
+        }
+        return dailyRows + weeklyRows;
+    }
+
+    // Returns null once the daily watermark has reached the horizon. Late events are handled in the same step, so
+    // everything before rolledUntil with an id up to rolledEventId is always in the rollups.
+    private Integer rollUpNextDays(LocalDate horizon) {
+        ConsumptionRollupWatermark daily = lockWatermark(Granularity.DAILY);
+        LocalDate from = daily.getRolledUntil();
+        if (!from.isBefore(horizon)) {
+            return null;
+        }
+        Long upToId = consumptionEventRepository.findMaxId();
+        int rows = rollUpLateEvents(daily, upToId);
+        LocalDate to = from.plusDays(daysPerStep).isBefore(horizon) ? from.plusDays(daysPerStep) : horizon;
+        rows += rollupRepository.rollUpDays(from.atStartOfDay(), to.atStartOfDay(), 0L, upToId);
+        if (pruneRawEvents) {
+            consumptionEventRepository.deleteRolledUp(from.atStartOfDay(), to.atStartOfDay(), 0L, upToId);
+        }
+        daily.setRolledUntil(to);
+        daily.setUpdatedAt(LocalDateTime.now());
+        return rows;
+    }
+
+    // Events written with a time before rolledUntil after their day was rolled up (back-dated imports). They become
+    // DAILY rows where days are still kept and extra WEEKLY rows for weeks that are already rolled up.
+    private int rollUpLateEvents(ConsumptionRollupWatermark daily, Long upToId) {
+        // Watermarks from before late events were tracked treat everything written so far as rolled up
+        Long afterId = daily.getRolledEventId() != null ? daily.getRolledEventId() : upToId;
+        int rows = 0;
+        if (afterId < upToId) {
+            LocalDateTime rolledUntil = daily.getRolledUntil().atStartOfDay();
+            LocalDate retainedFrom = daily.getRetainedFrom() != null ? daily.getRetainedFrom() : LocalDate.EPOCH;
+            rows += rollupRepository.rollUpDays(retainedFrom.atStartOfDay(), rolledUntil, afterId, upToId);
+
+            LocalDate weeklyRolledUntil = watermarkRepository.findById(Granularity.WEEKLY).orElseThrow().getRolledUntil();
+            Set<LocalDate> lateWeeks = new TreeSet<>();
+            consumptionEventRepository.findDaysBetweenIds(weeklyRolledUntil.atStartOfDay(), afterId, upToId)
+                    .forEach(day -> lateWeeks.add(mondayOf(day)));
+            for (LocalDate weekStart : lateWeeks) {
+                rows += rollupRepository.rollUpEventsIntoWeek(weekStart, weekStart.atStartOfDay(),
+                        weekStart.plusWeeks(1).atStartOfDay(), afterId, upToId);
+            }
+            if (pruneRawEvents) {
+                consumptionEventRepository.deleteRolledUp(LocalDate.EPOCH.atStartOfDay(), rolledUntil, afterId, upToId);
+            }
+        }
+        daily.setRolledEventId(upToId);
+        daily.setUpdatedAt(LocalDateTime.now());
+        return rows;
+    }
+
+    // Only weeks whose seven days are all rolled up; returns null when the next week is still open
+    private Integer rollUpNextWeek() {
+        LocalDate dailyRolledUntil = watermarkRepository.findById(Granularity.DAILY).orElseThrow().getRolledUntil();
+        ConsumptionRollupWatermark weekly = lockWatermark(Granularity.WEEKLY);
+        LocalDate weekStart = weekly.getRolledUntil();
+        LocalDate weekEnd = weekStart.plusWeeks(1);
+        if (weekEnd.isAfter(dailyRolledUntil)) {
+            return null;
+        }
+        int rows = rollupRepository.rollUpWeek(weekStart, weekEnd);
+        weekly.setRolledUntil(weekEnd);
+        weekly.setUpdatedAt(LocalDateTime.now());
+        return rows;
+    }
+
+    // Days past the retention are dropped only once their week exists, so readers switch to weeks at a Monday
+    private int expireDailyBuckets(LocalDate retentionCutoff) {
+        LocalDate weeklyRolledUntil = watermarkRepository.findById(Granularity.WEEKLY).orElseThrow().getRolledUntil();
+        ConsumptionRollupWatermark daily = lockWatermark(Granularity.DAILY);
+        LocalDate cutoff = mondayOf(retentionCutoff).isBefore(weeklyRolledUntil) ? mondayOf(retentionCutoff) : weeklyRolledUntil;
+        if (daily.getRetainedFrom() != null && !cutoff.isAfter(daily.getRetainedFrom())) {
+            return 0;
+        }
+        int deleted = rollupRepository.deleteBucketsBefore(Granularity.DAILY, cutoff);
+        daily.setRetainedFrom(cutoff);
+        daily.setUpdatedAt(LocalDateTime.now());
+        return deleted;
+    }
+
+    // The first run starts at the oldest event; a concurrent first run creating the same rows is harmless
+    private void ensureWatermarks(LocalDate horizon) {
+        if (watermarkRepository.count() == 2) {
+            return;
+        }
+        LocalDateTime earliest = consumptionEventRepository.findEarliestCreatedAt();
+        LocalDate start = earliest != null && earliest.toLocalDate().isBefore(horizon) ? earliest.toLocalDate() : horizon;
+        for (Granularity granularity : Granularity.values()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!watermarkRepository.existsById(granularity)) {
+                        watermarkRepository.saveAndFlush(ConsumptionRollupWatermark.builder()
+                                .granularity(granularity)
+                                .rolledUntil(granularity == Granularity.WEEKLY ? mondayOf(start) : start)
+                                .rolledEventId(granularity == Granularity.DAILY ? 0L : null)
+                                .updatedAt(LocalDateTime.now())
+                                .build());
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Consumption rollup watermark {} created concurrently", granularity);
+            }
+        }
+    }
+
+    private ConsumptionRollupWatermark lockWatermark(Granularity granularity) {
+        return watermarkRepository.findForUpdate(granularity)
+                .orElseThrow(() -> new IllegalStateException("Missing consumption rollup watermark " + granularity));
+    }
+
+    static LocalDate mondayOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
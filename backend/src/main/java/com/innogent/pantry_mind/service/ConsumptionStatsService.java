@@ -0,0 +1,150 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.entity.ConsumptionItemStats;
+import com.innogent.pantry_mind.repository.ConsumptionItemStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Folds every written consumption event into consumption_item_stats in the writer's transaction, so usage
+// patterns read one aggregate row per item instead of the last 90 days of events.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConsumptionStatsService {
+
+    private final ConsumptionItemStatsRepository statsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${consumption.stats.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${consumption.stats.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    public record Observation(Long kitchenId, String canonicalName, BigDecimal quantity, Long unitId, LocalDateTime at) {
+    }
+
+    @Transactional
+    public void record(Long kitchenId, String canonicalName, BigDecimal quantity, Long unitId, LocalDateTime at) {
+        recordAll(List.of(new Observation(kitchenId, canonicalName, quantity, unitId, at)));
+    }
+
+    @Transactional
+    public void recordAll(List<Observation> observations) {
+        Map<Long, TreeMap<String, List<Observation>>> byKitchen = new LinkedHashMap<>();
+        for (Observation observation : observations) {
+            if (observation.kitchenId() == null || observation.canonicalName() == null) continue;
+            byKitchen.computeIfAbsent(observation.kitchenId(), id -> new TreeMap<>())
+                    .computeIfAbsent(observation.canonicalName(), name -> new ArrayList<>()).add(observation);
+        }
+        byKitchen.forEach(this::recordKitchen);
+    }
+
+    private void recordKitchen(Long kitchenId, TreeMap<String, List<Observation>> byName) {
+        // Missing rows are created before anything is locked, so the locking read only ever hits existing rows
+        Set<String> existing = new HashSet<>(statsRepository.findExistingNames(kitchenId, byName.keySet()));
+        if (existing.size() < byName.size()) {
+            createMissingRows(kitchenId, byName, existing);
+        }
+        Map<String, ConsumptionItemStats> rows = lockRows(kitchenId, byName);
+        for (Map.Entry<String, List<Observation>> entry : byName.entrySet()) {
+            ConsumptionItemStats stats = rows.get(entry.getKey());
+            for (Observation observation : entry.getValue()) {
+                stats.observe(observation.quantity(), observation.unitId(),
+                        observation.at() != null ? observation.at() : LocalDateTime.now());
+            }
+        }
+    }
+
+    private Map<String, ConsumptionItemStats> lockRows(Long kitchenId, TreeMap<String, List<Observation>> byName) {
+        return statsRepository.findForUpdate(kitchenId, byName.keySet()).stream()
+                .collect(Collectors.toMap(ConsumptionItemStats::getCanonicalName, Function.identity()));
+    }
+
+    // Empty rows are created in their own transaction; a concurrent writer creating the same row first is fine
+    private void createMissingRows(Long kitchenId, TreeMap<String, List<Observation>> byName, Set<String> existing) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (String name : byName.keySet()) {
+            if (existing.contains(name)) continue;
+            try {
+                requiresNew.executeWithoutResult(status -> statsRepository.saveAndFlush(ConsumptionItemStats.builder()
+                        .kitchenId(kitchenId).canonicalName(name).updatedAt(LocalDateTime.now()).build()));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Stats row for {} in kitchen {} created concurrently", name, kitchenId);
+            }
+        }
+    }
+
+    // Kitchens with history from before the stats table existed get their rows rebuilt once, in event order
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup || statsRepository.count() > 0) {
+            return;
+        }
+        // Self-invocation skips the @Transactional proxy, so the rebuild gets its transaction explicitly
+        Integer rows = new TransactionTemplate(transactionManager).execute(status -> rebuild());
+        if (rows != null && rows > 0) {
+            log.info("Backfilled {} consumption stats rows from event history", rows);
+        }
+    }
+
+    @Transactional
+    public int rebuild() {
+        statsRepository.deleteAllInBatch();
+        Map<String, ConsumptionItemStats> pending = new HashMap<>();
+        int[] written = {0};
+        jdbcTemplate.query("SELECT kitchen_id, canonical_name, quantity_consumed, unit_id, created_at FROM consumption_events " +
+                "WHERE created_at IS NOT NULL ORDER BY kitchen_id, canonical_name, created_at, id", rs -> {
+            Long kitchenId = rs.getLong("kitchen_id");
+            String name = rs.getString("canonical_name");
+            String key = kitchenId + "\u0000" + name;
+            ConsumptionItemStats stats = pending.get(key);
+            if (stats == null) {
+                // Rows arrive grouped by item, so everything held so far is complete
+                if (pending.size() >= backfillBatchSize) {
+                    written[0] += flush(pending);
+                }
+                stats = ConsumptionItemStats.builder().kitchenId(kitchenId).canonicalName(name).build();
+                pending.put(key, stats);
+            }
+            long unitId = rs.getLong("unit_id");
+            Long eventUnitId = rs.wasNull() ? null : unitId;
+            stats.observe(rs.getBigDecimal("quantity_consumed"), eventUnitId, rs.getTimestamp("created_at").toLocalDateTime());
+        });
+        written[0] += flush(pending);
+        return written[0];
+    }
+
+    private int flush(Map<String, ConsumptionItemStats> pending) {
+        int size = pending.size();
+        statsRepository.saveAll(pending.values());
+        statsRepository.flush();
+        pending.clear();
+        return size;
+    }
+}
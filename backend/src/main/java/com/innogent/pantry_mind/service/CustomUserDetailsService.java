@@ -1,8 +1,8 @@
 package com.innogent.pantry_mind.service;
 
+import com.innogent.pantry_mind.config.AuthenticatedUser;
 import com.innogent.pantry_mind.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -23,10 +23,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         String roleName = user.getRole() != null ? user.getRole().getName() : "USER";
         
-        return User.builder()
-                .username(user.getEmail())
-                .password(user.getPasswordHash())
-                .authorities(roleName)
-                .build();
+        Long kitchenId = user.getKitchen() != null ? user.getKitchen().getId() : null;
+        return new AuthenticatedUser(user.getEmail(), user.getPasswordHash(), roleName, user.getId(), kitchenId);
     }
 }
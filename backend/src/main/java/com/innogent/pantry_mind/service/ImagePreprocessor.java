@@ -0,0 +1,201 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.entity.OcrUpload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+// Shrinks phone photos before they go to the Python OCR service: decode (subsampled, so a 12 MP photo is never
+// a full raster), apply EXIF orientation, fit within ocr.preprocess.max-edge and re-encode as JPEG, grayscale for bills.
+// The original is forwarded untouched when it cannot be decoded or the result would not be smaller.
+// Off by default: it cuts upload bytes but adds decode/encode time to every request.
+@Slf4j
+@Service
+public class ImagePreprocessor {
+
+    private static final int EXIF_MARKER = 0xE1;
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    @Value("${ocr.preprocess.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ocr.preprocess.max-edge:2000}")
+    private int maxEdge;
+
+    @Value("${ocr.preprocess.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    public Resource prepare(Resource image, OcrUpload.DocumentType docType) {
+        if (!enabled) {
+            return image;
+        }
+        try {
+            long originalSize = image.contentLength();
+            byte[] jpeg = downscale(image, docType == OcrUpload.DocumentType.BILL);
+            if (jpeg == null || jpeg.length >= originalSize) {
+                return image;
+            }
+            log.debug("Preprocessed OCR image {}: {} -> {} bytes", image.getFilename(), originalSize, jpeg.length);
+            String filename = jpegName(image.getFilename());
+            return new ByteArrayResource(jpeg) {
+                @Override
+                public String getFilename() {
+                    return filename;
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            log.warn("Image preprocessing failed, forwarding original: {}", e.getMessage());
+            return image;
+        }
+    }
+
+    private byte[] downscale(Resource image, boolean grayscale) throws IOException {
+        // Forward-only memory cache: the reader discards what it has decoded instead of spooling the stream to disk
+        try (InputStream in = image.getInputStream(); ImageInputStream input = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int orientation = orientationOf(reader);
+
+                // Subsampled decode never drops below the target edge and keeps the raster small; scaling finishes the fit
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / maxEdge);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                double scale = Math.min(1.0, (double) maxEdge / Math.max(decoded.getWidth(), decoded.getHeight()));
+                BufferedImage result = transform(decoded, scale, orientation, grayscale);
+                return encode(result);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scales and applies EXIF orientation (1-8) in one draw, into a gray or RGB raster JPEG can encode
+    private BufferedImage transform(BufferedImage source, double scale, int orientation, boolean grayscale) {
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        boolean swap = orientation >= 5 && orientation <= 8;
+
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.translate(width, 0); transform.scale(-1, 1); }
+            case 3 -> { transform.translate(width, height); transform.rotate(Math.PI); }
+            case 4 -> { transform.translate(0, height); transform.scale(1, -1); }
+            case 5 -> { transform.rotate(-Math.PI / 2); transform.scale(-1, 1); }
+            case 6 -> { transform.translate(height, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.translate(height, width); transform.rotate(Math.PI / 2); transform.scale(-1, 1); }
+            case 8 -> { transform.translate(0, width); transform.rotate(3 * Math.PI / 2); }
+            default -> { }
+        }
+        transform.scale(scale, scale);
+
+        BufferedImage target = new BufferedImage(swap ? height : width, swap ? width : height,
+                grayscale ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // EXIF orientation from the JPEG APP1 segment; 1 (as stored) when absent or not a JPEG
+    private int orientationOf(ImageReader reader) {
+        try {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null || !"javax_imageio_jpeg_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+                return 1;
+            }
+            Node markers = ((IIOMetadataNode) metadata.getAsTree("javax_imageio_jpeg_image_1.0"))
+                    .getElementsByTagName("markerSequence").item(0);
+            for (Node marker = markers != null ? markers.getFirstChild() : null; marker != null; marker = marker.getNextSibling()) {
+                if ("unknown".equals(marker.getNodeName())
+                        && Integer.toString(EXIF_MARKER).equals(((IIOMetadataNode) marker).getAttribute("MarkerTag"))
+                        && ((IIOMetadataNode) marker).getUserObject() instanceof byte[] exif) {
+                    return exifOrientation(exif);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read EXIF orientation: {}", e.getMessage());
+        }
+        return 1;
+    }
+
+    private int exifOrientation(byte[] exif) {
+        if (exif.length < 14 || !"Exif".equals(new String(exif, 0, 4, StandardCharsets.US_ASCII))) {
+            return 1;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(exif, 6, exif.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == ORIENTATION_TAG) {
+                int value = tiff.getShort(entry + 8) & 0xFFFF;
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private String jpegName(String filename) {
+        if (filename == null) {
+            return "image.jpg";
+        }
+        int dot = filename.lastIndexOf('.');
+        return (dot > 0 ? filename.substring(0, dot) : filename) + ".jpg";
+    }
+}
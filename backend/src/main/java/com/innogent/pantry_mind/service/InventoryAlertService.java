@@ -1,17 +1,29 @@
 package com.innogent.pantry_mind.service;
 
-import com.innogent.pantry_mind.entity.Inventory;
-import com.innogent.pantry_mind.entity.InventoryItem;
+import com.innogent.pantry_mind.dto.InventoryAlertCountsView;
+import com.innogent.pantry_mind.entity.Kitchen;
 import com.innogent.pantry_mind.repository.InventoryRepository;
 import com.innogent.pantry_mind.repository.KitchenRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.time.LocalDate;
-import java.time.ZoneId;
-import java.util.Date;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+// Time-bucketed alerting: every kitchen carries its next alert slot (kitchens.next_alert_at), so each minute
+// only the due kitchens are claimed and advanced, then evaluated in parallel with one aggregate query each.
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryAlertService {
@@ -19,77 +31,81 @@ public class InventoryAlertService {
     private final InventoryRepository inventoryRepository;
     private final KitchenRepository kitchenRepository;
     private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    @Qualifier("inventoryAlertExecutor")
+    private final Executor inventoryAlertExecutor;
+
+    @Value("${alerts.claim-batch-size:100}")
+    private int claimBatchSize;
     
-    @Scheduled(cron = "0 */15 * * * *") // Check every 15 minutes
-    @org.springframework.transaction.annotation.Transactional
+    @Scheduled(cron = "${alerts.cron:0 * * * * *}")
+    @Timed(value = "pantry.scheduler.run", extraTags = {"job", "inventory-alerts"}, histogram = true)
     public void checkInventoryAlerts() {
-        java.time.LocalTime now = java.time.LocalTime.now();
-        System.out.println("🕐 Scheduler running at: " + now);
-        
-        kitchenRepository.findAll().forEach(kitchen -> {
-            System.out.println("Kitchen " + kitchen.getId() + " - Alerts enabled: " + kitchen.getAlertsEnabled() + ", Alert time: " + kitchen.getAlertTimeHour() + ":" + kitchen.getAlertTimeMinute());
-            if (kitchen.getAlertsEnabled() && shouldSendAlertsNow(kitchen, now)) {
-                System.out.println("🔔 Sending alerts for kitchen " + kitchen.getId());
-                checkExpiryAlertsForKitchen(kitchen.getId());
-                checkLowStockAlertsForKitchen(kitchen.getId());
-            }
-        });
+        dispatchDueAlerts(LocalDateTime.now());
     }
-    
-    private boolean shouldSendAlertsNow(com.innogent.pantry_mind.entity.Kitchen kitchen, java.time.LocalTime now) {
-        int alertHour = kitchen.getAlertTimeHour();
-        int alertMinute = kitchen.getAlertTimeMinute();
-        
-        // Check if current time matches alert time exactly
-        return now.getHour() == alertHour && now.getMinute() == alertMinute;
+
+    // Slots missed while the application was down fire once, then move on to the next future slot
+    public int dispatchDueAlerts(LocalDateTime now) {
+        int dispatched = 0;
+        List<Long> due;
+        do {
+            due = transactionTemplate.execute(status -> claimDueKitchens(now));
+            List<CompletableFuture<Void>> evaluations = due.stream()
+                    .map(kitchenId -> CompletableFuture.runAsync(() -> evaluateKitchen(kitchenId, now), inventoryAlertExecutor)
+                            .exceptionally(e -> {
+                                log.warn("Inventory alerts failed for kitchen {}", kitchenId, e);
+                                return null;
+                            }))
+                    .toList();
+            CompletableFuture.allOf(evaluations.toArray(CompletableFuture[]::new)).join();
+            dispatched += due.size();
+        } while (due.size() == claimBatchSize);
+        if (dispatched > 0) {
+            log.info("Inventory alerts evaluated for {} kitchens", dispatched);
+        }
+        return dispatched;
     }
-    
-    private void checkExpiryAlertsForKitchen(Long kitchenId) {
-        List<Inventory> inventories = inventoryRepository.findByKitchenId(kitchenId);
-        
-        long criticalCount = 0;
-        long warningCount = 0;
-        
-        LocalDate today = LocalDate.now();
-        
-        for (Inventory inventory : inventories) {
-            if (inventory.getItems() != null) {
-                for (InventoryItem item : inventory.getItems()) {
-                    if (item.getExpiryDate() != null) {
-                        LocalDate expiryDate = item.getExpiryDate().toInstant()
-                            .atZone(ZoneId.systemDefault()).toLocalDate();
-                        
-                        long daysUntilExpiry = java.time.temporal.ChronoUnit.DAYS.between(today, expiryDate);
-                        
-                        if (daysUntilExpiry <= 0) {
-                            criticalCount++;
-                        } else if (daysUntilExpiry <= inventory.getMinExpiryDaysAlert()) {
-                            warningCount++;
-                        }
-                    }
-                }
-            }
+
+    private List<Long> claimDueKitchens(LocalDateTime now) {
+        List<Kitchen> due = kitchenRepository.findDueForAlerts(now, PageRequest.of(0, claimBatchSize));
+        // Entity updates rather than a bulk UPDATE so the second-level kitchen cache stays current
+        due.forEach(kitchen -> kitchen.scheduleNextAlert(now));
+        return due.stream().map(Kitchen::getId).toList();
+    }
+
+    private void evaluateKitchen(Long kitchenId, LocalDateTime now) {
+        InventoryAlertCountsView counts = inventoryRepository.findAlertCounts(kitchenId, now.toLocalDate().plusDays(1).atStartOfDay());
+        if (counts == null) {
+            return;
         }
-        
-        if (criticalCount > 0) {
+        log.debug("Kitchen {} alerts: {} expired, {} expiring soon, {} low stock", kitchenId,
+                counts.getExpiredCount(), counts.getExpiringSoonCount(), counts.getLowStockCount());
+
+        if (counts.getExpiredCount() > 0) {
             notificationService.sendInventoryAlert(kitchenId, "EXPIRY_CRITICAL", 
-                criticalCount + " items have expired or expiring today", null);
+                counts.getExpiredCount() + " items have expired or expiring today", null);
         }
-        
-        if (warningCount > 0) {
+        if (counts.getExpiringSoonCount() > 0) {
             notificationService.sendInventoryAlert(kitchenId, "EXPIRY_WARNING", 
-                warningCount + " items expiring soon", null);
+                counts.getExpiringSoonCount() + " items expiring soon", null);
         }
-    }
-    
-    private void checkLowStockAlertsForKitchen(Long kitchenId) {
-        List<Inventory> lowStockItems = inventoryRepository.findLowStockItems(kitchenId);
-        System.out.println("Low stock items found: " + lowStockItems.size());
-        
-        if (!lowStockItems.isEmpty()) {
-            System.out.println("📦 Sending low stock alert");
+        if (counts.getLowStockCount() > 0) {
             notificationService.sendInventoryAlert(kitchenId, "LOW_STOCK",
-                lowStockItems.size() + " items are running low on stock", null);
+                counts.getLowStockCount() + " items are running low on stock", null);
+        }
+    }
+
+    // Kitchens created before next_alert_at existed get their first slot at startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleUnscheduledKitchens() {
+        int scheduled = transactionTemplate.execute(status -> {
+            List<Kitchen> kitchens = kitchenRepository.findByNextAlertAtIsNull();
+            LocalDateTime now = LocalDateTime.now();
+            kitchens.forEach(kitchen -> kitchen.scheduleNextAlert(now));
+            return kitchens.size();
+        });
+        if (scheduled > 0) {
+            log.info("Scheduled first inventory alert slot for {} kitchens", scheduled);
         }
     }
-}
\ No newline at end of file
+}
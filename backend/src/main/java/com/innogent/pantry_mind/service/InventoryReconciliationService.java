@@ -0,0 +1,105 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.dto.InventoryItemAggregateView;
+import com.innogent.pantry_mind.dto.response.InventoryReconciliationReportDTO;
+import com.innogent.pantry_mind.entity.Inventory;
+import com.innogent.pantry_mind.repository.InventoryItemRepository;
+import com.innogent.pantry_mind.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Repairs drift between inventory.item_count / total_quantity and the rows in inventory_item, off the request path
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryReconciliationService {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.reconciliation.chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${inventory.reconciliation.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    public InventoryReconciliationReportDTO reconcile() {
+        long start = System.currentTimeMillis();
+        InventoryReconciliationReportDTO report = new InventoryReconciliationReportDTO();
+
+        Long afterId = 0L;
+        while (afterId != null) {
+            // One short transaction per chunk so row locks are held only for the rows being fixed
+            Long lastId = afterId;
+            afterId = transactionTemplate.execute(status -> reconcileChunk(lastId, report));
+        }
+
+        report.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Inventory reconciliation scanned {} groups in {} chunks: {} item count fixes, {} total quantity fixes in {} ms",
+                report.getScannedGroups(), report.getChunks(), report.getItemCountFixes(),
+                report.getTotalQuantityFixes(), report.getDurationMs());
+        if (!report.getFixedInventoryIds().isEmpty()) {
+            log.info("Inventory groups repaired: {}", report.getFixedInventoryIds());
+        }
+        return report;
+    }
+
+    // Returns the last id of the chunk, or null when there is nothing left to scan
+    private Long reconcileChunk(Long afterId, InventoryReconciliationReportDTO report) {
+        List<Inventory> chunk = inventoryRepository.findChunkAfterId(afterId, PageRequest.of(0, chunkSize));
+        if (chunk.isEmpty()) {
+            return null;
+        }
+
+        List<Long> ids = chunk.stream().map(Inventory::getId).toList();
+        Map<Long, InventoryItemAggregateView> aggregates = inventoryItemRepository.aggregateByInventoryIds(ids).stream()
+                .collect(Collectors.toMap(InventoryItemAggregateView::getInventoryId, Function.identity()));
+
+        for (Inventory inventory : chunk) {
+            InventoryItemAggregateView aggregate = aggregates.get(inventory.getId());
+            int actualCount = aggregate != null ? aggregate.getItemCount().intValue() : 0;
+            long actualQuantity = aggregate != null ? aggregate.getTotalQuantity() : 0L;
+
+            boolean countDrift = !Objects.equals(inventory.getItemCount(), actualCount);
+            boolean quantityDrift = !Objects.equals(inventory.getTotalQuantity(), actualQuantity);
+            if (!countDrift && !quantityDrift) {
+                continue;
+            }
+            int observedCount = inventory.getItemCount() != null ? inventory.getItemCount() : 0;
+            long observedQuantity = inventory.getTotalQuantity() != null ? inventory.getTotalQuantity() : 0L;
+            // A group changed since it was read is left alone; the next run sees it settled
+            if (inventoryRepository.correctTotalsIfUnchanged(inventory.getId(), observedCount, observedQuantity,
+                    actualCount, actualQuantity) == 0) {
+                log.debug("Inventory {} changed during reconciliation, skipped", inventory.getId());
+                continue;
+            }
+            log.debug("Inventory {} item_count {} -> {}, total_quantity {} -> {}", inventory.getId(),
+                    inventory.getItemCount(), actualCount, inventory.getTotalQuantity(), actualQuantity);
+            if (countDrift) {
+                report.setItemCountFixes(report.getItemCountFixes() + 1);
+            }
+            if (quantityDrift) {
+                report.setTotalQuantityFixes(report.getTotalQuantityFixes() + 1);
+            }
+            report.getFixedInventoryIds().add(inventory.getId());
+        }
+
+        report.setScannedGroups(report.getScannedGroups() + chunk.size());
+        report.setChunks(report.getChunks() + 1);
+        return chunk.size() < chunkSize ? null : ids.get(ids.size() - 1);
+    }
+}
@@ -0,0 +1,84 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Keeps inventory.total_quantity / item_count in step with inventory_item through atomic delta updates.
+// Callers must not save the Inventory entity afterwards, or its stale in-memory totals would be written back.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryTotalsService {
+
+    private final InventoryRepository inventoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.totals.verify:false}")
+    private boolean verifyTotals;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(Long inventoryId, long quantityDelta, int countDelta) {
+        if (quantityDelta != 0 || countDelta != 0) {
+            inventoryRepository.applyTotalsDelta(inventoryId, quantityDelta, countDelta);
+        }
+        if (verifyTotals && inventoryRepository.correctTotalsDrift(inventoryId) > 0) {
+            log.warn("Inventory {} totals drifted after delta (quantity {}, count {}); recomputed from items",
+                    inventoryId, quantityDelta, countDelta);
+        }
+    }
+
+    // Returns true when the group had no items left and was removed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean removeIfEmpty(Long inventoryId) {
+        return inventoryRepository.deleteIfEmpty(inventoryId) > 0;
+    }
+
+    // Multi-group form of applyDelta: one JDBC batch instead of one statement round trip per group
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDeltas(Map<Long, Long> quantityDeltas, Map<Long, Integer> countDeltas) {
+        List<Object[]> args = new ArrayList<>();
+        for (Long inventoryId : quantityDeltas.keySet()) {
+            args.add(new Object[]{quantityDeltas.get(inventoryId), countDeltas.getOrDefault(inventoryId, 0), inventoryId});
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE inventory SET total_quantity = COALESCE(total_quantity, 0) + ?, " +
+                "item_count = COALESCE(item_count, 0) + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?", args);
+
+        if (verifyTotals) {
+            for (Long inventoryId : quantityDeltas.keySet()) {
+                if (inventoryRepository.correctTotalsDrift(inventoryId) > 0) {
+                    log.warn("Inventory {} totals drifted after batch delta; recomputed from items", inventoryId);
+                }
+            }
+        }
+    }
+
+    // Returns how many of the given groups were empty and removed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int removeEmpty(Collection<Long> inventoryIds) {
+        if (inventoryIds.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> args = inventoryIds.stream().map(id -> new Object[]{id, id}).toList();
+        int[] counts = jdbcTemplate.batchUpdate("DELETE FROM inventory WHERE id = ? AND item_count <= 0 " +
+                "AND NOT EXISTS (SELECT 1 FROM inventory_item WHERE inventory_id = ?)", args);
+        int removed = 0;
+        for (int count : counts) {
+            removed += Math.max(count, 0);
+        }
+        return removed;
+    }
+}
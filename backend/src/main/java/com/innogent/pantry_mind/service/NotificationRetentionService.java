@@ -0,0 +1,106 @@
+package com.innogent.pantry_mind.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Keeps the notifications table small: old rows move to notifications_archive in short chunked transactions.
+// Also carries over per-user state from the legacy notification_read_by / notification_deleted_by tables.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationRetentionService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notifications.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${notifications.retention.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${notifications.legacy-state-migration.enabled:true}")
+    private boolean legacyMigrationEnabled;
+
+    @Scheduled(cron = "${notifications.retention.cron:0 15 4 * * *}")
+    public void scheduledArchive() {
+        archiveOlderThan(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            archived += moved;
+        } while (moved == chunkSize);
+        if (archived > 0) {
+            log.info("Archived {} notifications created before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE created_at < ? ORDER BY id LIMIT ?",
+                Long.class, Timestamp.valueOf(cutoff), chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        namedParameterJdbcTemplate.update("INSERT INTO notifications_archive " +
+                "(id, kitchen_id, user_id, type, title, message, severity, related_item_id, created_at, archived_at) " +
+                "SELECT id, kitchen_id, user_id, type, title, message, severity, related_item_id, created_at, :now " +
+                "FROM notifications WHERE id IN (:ids)", params);
+        namedParameterJdbcTemplate.update("DELETE FROM notification_user_state WHERE notification_id IN (:ids)", params);
+        namedParameterJdbcTemplate.update("DELETE FROM notifications WHERE id IN (:ids)", params);
+        return ids.size();
+    }
+
+    // One-time move of the old ElementCollection rows; the legacy tables are emptied so the job is idempotent
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyState() {
+        if (!legacyMigrationEnabled) {
+            return;
+        }
+        try {
+            Integer[] moved = transactionTemplate.execute(status -> new Integer[]{
+                    moveLegacyRows("notification_read_by", "read_at"),
+                    moveLegacyRows("notification_deleted_by", "deleted_at")});
+            if (moved[0] + moved[1] > 0) {
+                log.info("Migrated legacy notification state: {} read, {} deleted", moved[0], moved[1]);
+            }
+        } catch (DataAccessException e) {
+            // Fresh schemas never had the legacy tables
+            log.debug("No legacy notification state to migrate: {}", e.getMessage());
+        }
+    }
+
+    private int moveLegacyRows(String legacyTable, String column) {
+        int updated = jdbcTemplate.update("UPDATE notification_user_state s SET " + column + " = CURRENT_TIMESTAMP " +
+                "WHERE s." + column + " IS NULL AND EXISTS (SELECT 1 FROM " + legacyTable + " l " +
+                "WHERE l.notification_id = s.notification_id AND l.user_id = s.user_id)");
+        int inserted = jdbcTemplate.update("INSERT INTO notification_user_state (notification_id, user_id, " + column + ") " +
+                "SELECT DISTINCT l.notification_id, l.user_id, CURRENT_TIMESTAMP FROM " + legacyTable + " l " +
+                "WHERE NOT EXISTS (SELECT 1 FROM notification_user_state s " +
+                "WHERE s.notification_id = l.notification_id AND s.user_id = l.user_id)");
+        jdbcTemplate.update("DELETE FROM " + legacyTable);
+        return updated + inserted;
+    }
+}
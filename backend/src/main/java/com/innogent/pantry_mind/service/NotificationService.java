@@ -1,10 +1,21 @@
 package com.innogent.pantry_mind.service;
 
+import com.innogent.pantry_mind.dto.response.CursorPageResponseDTO;
+import com.innogent.pantry_mind.dto.response.NotificationResponseDTO;
 import com.innogent.pantry_mind.entity.Notification;
+import com.innogent.pantry_mind.entity.NotificationUserState;
+import com.innogent.pantry_mind.entity.OcrUpload;
 import com.innogent.pantry_mind.repository.NotificationRepository;
+import com.innogent.pantry_mind.repository.NotificationUserStateRepository;
+import com.innogent.pantry_mind.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class NotificationService {
@@ -15,6 +26,57 @@ public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationUserStateRepository notificationUserStateRepository;
+
+    // Members do not see membership events; admins see everything
+    private static boolean hidesMemberEvents(String userRole) {
+        return "MEMBER".equals(userRole);
+    }
+
+    public List<NotificationResponseDTO> getNotificationsForUser(Long kitchenId, Long userId, String userRole) {
+        return notificationRepository.findAllForUser(kitchenId, userId, hidesMemberEvents(userRole));
+    }
+
+    // Keyset variant for infinite scrolling: no count query and no OFFSET scan on deep pages
+    public CursorPageResponseDTO<NotificationResponseDTO> getNotificationPageForUser(Long kitchenId, Long userId, String userRole,
+                                                                                     String cursor, int limit) {
+        boolean hide = hidesMemberEvents(userRole);
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<NotificationResponseDTO> rows;
+        if (cursor == null) {
+            rows = notificationRepository.findFirstKeysetPageForUser(kitchenId, userId, hide, window);
+        } else {
+            CursorCodec.TimeCursor after = CursorCodec.decodeTime(cursor);
+            rows = notificationRepository.findKeysetPageForUserAfter(kitchenId, userId, hide, after.createdAt(), after.id(), window);
+        }
+        return CursorPageResponseDTO.of(rows, limit, dto -> CursorCodec.encode(dto.getCreatedAt(), dto.getId()));
+    }
+
+    public long getUnreadCount(Long kitchenId, Long userId, String userRole) {
+        return notificationRepository.countUnreadForUser(kitchenId, userId, hidesMemberEvents(userRole));
+    }
+
+    @Transactional
+    public int markAllAsRead(Long kitchenId, Long userId, String userRole) {
+        boolean hide = hidesMemberEvents(userRole);
+        return notificationUserStateRepository.insertReadStates(kitchenId, userId, hide)
+                + notificationUserStateRepository.markExistingRead(kitchenId, userId, hide);
+    }
+
+    @Transactional
+    public void deleteForUser(Long notificationId, Long userId) {
+        if (!notificationRepository.existsById(notificationId)) {
+            return;
+        }
+        NotificationUserState state = notificationUserStateRepository.findByNotificationIdAndUserId(notificationId, userId)
+                .orElseGet(() -> NotificationUserState.builder().notificationId(notificationId).userId(userId).build());
+        if (state.getDeletedAt() == null) {
+            state.setDeletedAt(LocalDateTime.now());
+            notificationUserStateRepository.save(state);
+        }
+    }
+
     public void notifyUserRemoved(Long userId) {
         messagingTemplate.convertAndSend("/topic/user/" + userId, "ACCESS_REVOKED");
     }
@@ -100,4 +162,16 @@ public class NotificationService {
             default -> "Notification";
         };
     }
-}
\ No newline at end of file
+
+    public void notifyOcrFinished(Long kitchenId, Long uploadId, OcrUpload.ProcessingStatus status, int itemCount) {
+        java.util.Map<String, Object> payload = java.util.Map.of(
+            "type", status == OcrUpload.ProcessingStatus.FAILED ? "OCR_FAILED" : "OCR_COMPLETED",
+            "uploadId", uploadId,
+            "status", status.name(),
+            "itemCount", itemCount,
+            "timestamp", System.currentTimeMillis()
+        );
+
+        messagingTemplate.convertAndSend("/topic/kitchen/" + kitchenId + "/ocr", payload);
+    }
+}
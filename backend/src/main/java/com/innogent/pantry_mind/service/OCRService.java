@@ -1,6 +1,8 @@
 package com.innogent.pantry_mind.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innogent.pantry_mind.config.PythonCallMetrics;
+import com.innogent.pantry_mind.config.PythonHttpClients;
 import com.innogent.pantry_mind.dto.response.OCRResponseDto;
 import com.innogent.pantry_mind.entity.AiExtractedItems;
 import com.innogent.pantry_mind.entity.OcrUpload;
@@ -8,90 +10,242 @@ import com.innogent.pantry_mind.repository.AiExtractedItemsRepository;
 import com.innogent.pantry_mind.repository.OcrUploadRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OCRService {
     
-    private final RestTemplate restTemplate;
+    private final PythonHttpClients pythonHttpClients;
     private final OcrUploadRepository ocrUploadRepository;
     private final AiExtractedItemsRepository aiExtractedItemsRepository;
     private final ObjectMapper objectMapper;
+    private final PythonCallMetrics pythonCallMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final OcrResultCache ocrResultCache;
+    private final ImagePreprocessor imagePreprocessor;
+    private final OcrPageMerger ocrPageMerger;
+    @Qualifier("ocrBatchExecutor")
+    private final Executor ocrBatchExecutor;
     
     @Value("${ocr.api.base-url:http://localhost:8001}")
     private String baseUrl;
     
-    @Transactional
+    @Value("${ocr.upload.streaming-enabled:true}")
+    private boolean streamingEnabled;
+    
+    @Value("${ocr.upload.spool-dir:${java.io.tmpdir}}")
+    private String spoolDir;
+    
+    @Value("${ocr.batch.max-pages:10}")
+    private int maxBatchPages;
+    
     public OCRProcessingResult processBill(MultipartFile file, Long kitchenId, Long userId) {
-        return processDocument(file, kitchenId, userId, OcrUpload.DocumentType.BILL, "/ocr/bill");
+        return processDocument(file, kitchenId, userId, OcrUpload.DocumentType.BILL, null);
     }
     
-    @Transactional
     public OCRProcessingResult processLabel(MultipartFile file, Long kitchenId, Long userId) {
-        return processDocument(file, kitchenId, userId, OcrUpload.DocumentType.LABEL, "/ocr/label");
+        return processDocument(file, kitchenId, userId, OcrUpload.DocumentType.LABEL, null);
     }
     
-    @Transactional
     public OCRProcessingResult processProduct(MultipartFile file, Long kitchenId, Long userId, String mode) {
-        String endpoint = "/ocr/product" + (mode != null ? "?mode=" + mode : "");
-        return processDocument(file, kitchenId, userId, OcrUpload.DocumentType.PRODUCT, endpoint);
+        return processDocument(file, kitchenId, userId, OcrUpload.DocumentType.PRODUCT, mode);
     }
     
-    private OCRProcessingResult processDocument(MultipartFile file, Long kitchenId, Long userId, 
-                                             OcrUpload.DocumentType docType, String endpoint) {
+    // No surrounding transaction: the Python call can take seconds and must not pin a pooled connection
+    private OCRProcessingResult processDocument(MultipartFile file, Long kitchenId, Long userId,
+                                             OcrUpload.DocumentType docType, String mode) {
+        Resource image;
         try {
-            // 1. Save OCR upload record
-            OcrUpload ocrUpload = OcrUpload.builder()
-                .kitchenId(kitchenId)
-                .uploadedBy(userId)
-                .originalFilename(file.getOriginalFilename())
-                .documentType(docType)
-                .status(OcrUpload.ProcessingStatus.PROCESSING)
-                .build();
+            image = streamingEnabled ? file.getResource() : inMemory(file);
+        } catch (IOException e) {
+            throw new RuntimeException("OCR processing failed", e);
+        }
+        String cacheKey = ocrResultCache.keyOf(image, docType, mode, kitchenId);
+        Optional<OCRProcessingResult> cached = ocrResultCache.lookup(cacheKey);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        OCRProcessingResult result = process(createUpload(kitchenId, userId, file.getOriginalFilename(), docType), image, mode);
+        ocrResultCache.put(cacheKey, result.getOcrUpload().getId());
+        return result;
+    }
+    
+    // Jobs outlive the request, so the upload is moved into a spool file that the worker streams from
+    public Resource spool(MultipartFile file) throws IOException {
+        if (!streamingEnabled) {
+            return inMemory(file);
+        }
+        Path path = Files.createTempFile(Path.of(spoolDir), "ocr-", ".upload");
+        file.transferTo(path);
+        String filename = file.getOriginalFilename();
+        return new FileSystemResource(path) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+    
+    public void release(Resource image) {
+        if (image instanceof FileSystemResource spooled) {
+            try {
+                Files.deleteIfExists(spooled.getFile().toPath());
+            } catch (IOException e) {
+                log.warn("Could not delete OCR spool file {}: {}", spooled.getPath(), e.getMessage());
+            }
+        }
+    }
+    
+    // Legacy forwarding: the whole image on the heap
+    private Resource inMemory(MultipartFile file) throws IOException {
+        String filename = file.getOriginalFilename();
+        return new ByteArrayResource(file.getBytes()) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+    
+    public OcrUpload createUpload(Long kitchenId, Long userId, String filename, OcrUpload.DocumentType docType) {
+        return ocrUploadRepository.save(OcrUpload.builder()
+            .kitchenId(kitchenId)
+            .uploadedBy(userId)
+            .originalFilename(filename)
+            .documentType(docType)
+            .status(OcrUpload.ProcessingStatus.PENDING)
+            .createdAt(LocalDateTime.now())
+            .build());
+    }
+    
+    // Runs the Python call outside any transaction, then persists the upload and its items in one short transaction
+    public OCRProcessingResult process(OcrUpload ocrUpload, Resource image, String mode) {
+        try {
+            ocrUpload.setStatus(OcrUpload.ProcessingStatus.PROCESSING);
+            OcrUpload processing = ocrUploadRepository.save(ocrUpload);
             
-            ocrUpload = ocrUploadRepository.save(ocrUpload);
+            Resource forwarded = imagePreprocessor.prepare(image, processing.getDocumentType());
+            OCRResponseDto ocrResponse = callPythonOCR(endpointFor(processing.getDocumentType(), mode), forwarded);
             
-            // 2. Call Python OCR API
-            OCRResponseDto ocrResponse = callPythonOCR(endpoint, file);
+            return complete(processing, ocrResponse);
+        } catch (Exception e) {
+            log.error("OCR processing failed for upload {}: {}", ocrUpload.getId(), e.getMessage());
+            markFailed(ocrUpload, e);
+            throw new RuntimeException("OCR processing failed", e);
+        }
+    }
+    
+    // Multi-page receipt: pages go to Python concurrently (bounded by ocrBatchExecutor), their items are merged
+    // into a single upload so the receipt is confirmed as one document
+    public OCRProcessingResult processBillPages(List<MultipartFile> files, Long kitchenId, Long userId) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("At least one image is required");
+        }
+        if (files.size() > maxBatchPages) {
+            throw new IllegalArgumentException("A receipt can have at most " + maxBatchPages + " images");
+        }
+        
+        List<Resource> pages = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                pages.add(streamingEnabled ? file.getResource() : inMemory(file));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("OCR processing failed", e);
+        }
+        
+        OcrUpload ocrUpload = createUpload(kitchenId, userId, files.get(0).getOriginalFilename(), OcrUpload.DocumentType.BILL);
+        try {
+            ocrUpload.setStatus(OcrUpload.ProcessingStatus.PROCESSING);
+            OcrUpload processing = ocrUploadRepository.save(ocrUpload);
             
-            // 3. Update OCR upload with results
-            ocrUpload.setRawOcrText(ocrResponse.getRawOcrText());
-            ocrUpload.setPythonRequestId(ocrResponse.getRequestId());
-            ocrUpload.setConfidenceSummary(ocrResponse.getConfidenceSummary());
-            ocrUpload.setProcessingTimeMs(ocrResponse.getProcessingTimeMs());
-            ocrUpload.setStatus(OcrUpload.ProcessingStatus.COMPLETED);
-            ocrUploadRepository.save(ocrUpload);
+            long start = System.currentTimeMillis();
+            List<CompletableFuture<OCRResponseDto>> calls = pages.stream()
+                .map(page -> CompletableFuture.supplyAsync(() ->
+                    callPythonOCR(endpointFor(OcrUpload.DocumentType.BILL, null),
+                        imagePreprocessor.prepare(page, OcrUpload.DocumentType.BILL)), ocrBatchExecutor))
+                .toList();
+            List<OCRResponseDto> responses = new ArrayList<>();
+            for (CompletableFuture<OCRResponseDto> call : calls) {
+                responses.add(call.join());
+            }
+            
+            OCRResponseDto merged = ocrPageMerger.merge(responses);
+            merged.setProcessingTimeMs((int) (System.currentTimeMillis() - start));
+            log.debug("Merged {} receipt pages for upload {} into {} items", pages.size(), processing.getId(), merged.getItems().size());
+            return complete(processing, merged);
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Batch OCR processing failed for upload {}: {}", ocrUpload.getId(), cause.getMessage());
+            markFailed(ocrUpload, cause instanceof Exception ex ? ex : e);
+            throw new RuntimeException("OCR processing failed", cause);
+        }
+    }
+    
+    private OCRProcessingResult complete(OcrUpload processing, OCRResponseDto ocrResponse) {
+        return transactionTemplate.execute(status -> {
+            processing.setRawOcrText(ocrResponse.getRawOcrText());
+            processing.setPythonRequestId(ocrResponse.getRequestId());
+            processing.setConfidenceSummary(ocrResponse.getConfidenceSummary());
+            processing.setProcessingTimeMs(ocrResponse.getProcessingTimeMs());
+            processing.setStatus(OcrUpload.ProcessingStatus.COMPLETED);
+            OcrUpload completed = ocrUploadRepository.save(processing);
             
-            // 4. Save extracted items
-            List<AiExtractedItems> extractedItems = saveExtractedItems(ocrResponse, ocrUpload.getId());
+            List<AiExtractedItems> extractedItems = saveExtractedItems(ocrResponse, completed.getId());
             
             return OCRProcessingResult.builder()
-                .ocrUpload(ocrUpload)
+                .ocrUpload(completed)
                 .extractedItems(extractedItems)
                 .ocrResponse(ocrResponse)
                 .build();
-                
+        });
+    }
+    
+    public void markFailed(OcrUpload ocrUpload, Exception cause) {
+        try {
+            ocrUpload.setStatus(OcrUpload.ProcessingStatus.FAILED);
+            String message = cause.getCause() != null ? cause.getCause().getMessage() : cause.getMessage();
+            ocrUpload.setErrorMessage(message != null && message.length() > 1000 ? message.substring(0, 1000) : message);
+            ocrUploadRepository.save(ocrUpload);
         } catch (Exception e) {
-            log.error("OCR processing failed: {}", e.getMessage());
-            throw new RuntimeException("OCR processing failed", e);
+            log.warn("Could not mark OCR upload {} as failed: {}", ocrUpload.getId(), e.getMessage());
         }
     }
     
-    private OCRResponseDto callPythonOCR(String endpoint, MultipartFile file) {
+    private String endpointFor(OcrUpload.DocumentType docType, String mode) {
+        return switch (docType) {
+            case BILL -> "/ocr/bill";
+            case LABEL -> "/ocr/label";
+            case PRODUCT -> "/ocr/product" + (mode != null ? "?mode=" + mode : "");
+        };
+    }
+    
+    private OCRResponseDto callPythonOCR(String endpoint, Resource image) {
         try {
             String url = baseUrl + endpoint;
             log.info("Calling Python OCR API: {}", url);
@@ -100,18 +254,15 @@ public class OCRService {
             headers.setContentType(MediaType.MULTIPART_FORM_DATA);
             
             MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("image", new ByteArrayResource(file.getBytes()) {  // Changed from "file" to "image"
-                @Override
-                public String getFilename() {
-                    return file.getOriginalFilename();
-                }
-            });
+            // Resources are written to the request in chunks, a streamed upload never sits on the heap whole
+            body.add("image", image);  // Changed from "file" to "image"
             
             HttpEntity<MultiValueMap<String, Object>> requestEntity = 
                 new HttpEntity<>(body, headers);
             
-            ResponseEntity<OCRResponseDto> response = restTemplate.exchange(
-                url, HttpMethod.POST, requestEntity, OCRResponseDto.class);
+            String operation = endpoint.replaceFirst("\\?.*$", "").replace("/ocr/", "");
+            ResponseEntity<OCRResponseDto> response = pythonCallMetrics.record("ocr", operation, () ->
+                pythonHttpClients.getOcr().exchange(url, HttpMethod.POST, requestEntity, OCRResponseDto.class));
             
             return response.getBody();
             
@@ -174,5 +325,7 @@ public class OCRService {
         private OcrUpload ocrUpload;
         private List<AiExtractedItems> extractedItems;
         private OCRResponseDto ocrResponse;
+        // True when answered from an earlier identical upload; ocrResponse is then not available
+        private boolean cached;
     }
 }
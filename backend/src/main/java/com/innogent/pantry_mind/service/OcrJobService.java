@@ -0,0 +1,123 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.dto.response.OcrUploadStatusDTO;
+import com.innogent.pantry_mind.entity.OcrUpload;
+import com.innogent.pantry_mind.exception.ResourceNotFoundException;
+import com.innogent.pantry_mind.repository.AiExtractedItemsRepository;
+import com.innogent.pantry_mind.repository.OcrUploadRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+
+// Asynchronous OCR: the upload row is saved as PENDING and returned at once,
+// a bounded worker pool runs the Python call and pushes the outcome to /topic/kitchen/{id}/ocr.
+@Slf4j
+@Service
+public class OcrJobService {
+
+    private final OCRService ocrService;
+    private final OcrUploadRepository ocrUploadRepository;
+    private final AiExtractedItemsRepository aiExtractedItemsRepository;
+    private final NotificationService notificationService;
+    private final OcrResultCache ocrResultCache;
+    private final ThreadPoolTaskExecutor ocrJobExecutor;
+
+    public OcrJobService(OCRService ocrService, OcrUploadRepository ocrUploadRepository,
+                         AiExtractedItemsRepository aiExtractedItemsRepository, NotificationService notificationService,
+                         OcrResultCache ocrResultCache, @Qualifier("ocrJobExecutor") ThreadPoolTaskExecutor ocrJobExecutor) {
+        this.ocrService = ocrService;
+        this.ocrUploadRepository = ocrUploadRepository;
+        this.aiExtractedItemsRepository = aiExtractedItemsRepository;
+        this.notificationService = notificationService;
+        this.ocrResultCache = ocrResultCache;
+        this.ocrJobExecutor = ocrJobExecutor;
+    }
+
+    public OcrUploadStatusDTO submit(MultipartFile file, Long kitchenId, Long userId,
+                                     OcrUpload.DocumentType docType, String mode) {
+        // The multipart part is gone once the request returns, so it is spooled now
+        Resource image;
+        try {
+            image = ocrService.spool(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read uploaded image", e);
+        }
+
+        // Until the worker owns the spool file, every exit path here deletes it
+        boolean handedOff = false;
+        try {
+            String cacheKey = ocrResultCache.keyOf(image, docType, mode, kitchenId);
+            Optional<OCRService.OCRProcessingResult> cached = ocrResultCache.lookup(cacheKey);
+            if (cached.isPresent()) {
+                OcrUploadStatusDTO status = toStatus(cached.get().getOcrUpload(), false);
+                status.setExtractedItems(cached.get().getExtractedItems());
+                return status;
+            }
+
+            OcrUpload upload = ocrService.createUpload(kitchenId, userId, file.getOriginalFilename(), docType);
+            // Snapshot before handing off, the worker updates the same entity
+            OcrUploadStatusDTO accepted = toStatus(upload, false);
+            try {
+                ocrJobExecutor.execute(() -> run(upload, image, mode, cacheKey));
+                handedOff = true;
+            } catch (TaskRejectedException e) {
+                ocrService.markFailed(upload, new RuntimeException("OCR queue is full"));
+                throw e;
+            }
+            return accepted;
+        } finally {
+            if (!handedOff) {
+                ocrService.release(image);
+            }
+        }
+    }
+
+    public OcrUploadStatusDTO getStatus(Long uploadId) {
+        OcrUpload upload = ocrUploadRepository.findById(uploadId)
+            .orElseThrow(() -> new ResourceNotFoundException("OCR upload not found with id: " + uploadId));
+        boolean done = upload.getStatus() == OcrUpload.ProcessingStatus.COMPLETED
+            || upload.getStatus() == OcrUpload.ProcessingStatus.CONFIRMED;
+        return toStatus(upload, done);
+    }
+
+    private void run(OcrUpload upload, Resource image, String mode, String cacheKey) {
+        OcrUpload.ProcessingStatus status = OcrUpload.ProcessingStatus.FAILED;
+        int itemCount = 0;
+        try {
+            OCRService.OCRProcessingResult result = ocrService.process(upload, image, mode);
+            status = result.getOcrUpload().getStatus();
+            ocrResultCache.put(cacheKey, result.getOcrUpload().getId());
+            itemCount = result.getExtractedItems().size();
+        } catch (Exception e) {
+            log.warn("OCR job {} failed: {}", upload.getId(), e.getMessage());
+        } finally {
+            ocrService.release(image);
+        }
+        notificationService.notifyOcrFinished(upload.getKitchenId(), upload.getId(), status, itemCount);
+    }
+
+    private OcrUploadStatusDTO toStatus(OcrUpload upload, boolean withItems) {
+        OcrUploadStatusDTO dto = new OcrUploadStatusDTO();
+        dto.setId(upload.getId());
+        dto.setKitchenId(upload.getKitchenId());
+        dto.setDocumentType(upload.getDocumentType());
+        dto.setStatus(upload.getStatus());
+        dto.setOriginalFilename(upload.getOriginalFilename());
+        dto.setConfidenceSummary(upload.getConfidenceSummary());
+        dto.setProcessingTimeMs(upload.getProcessingTimeMs());
+        dto.setErrorMessage(upload.getErrorMessage());
+        dto.setCreatedAt(upload.getCreatedAt());
+        dto.setUpdatedAt(upload.getUpdatedAt());
+        if (withItems) {
+            dto.setExtractedItems(aiExtractedItemsRepository.findByOcrUploadId(upload.getId()));
+        }
+        return dto;
+    }
+}
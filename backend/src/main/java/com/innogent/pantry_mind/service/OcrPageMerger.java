@@ -0,0 +1,100 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.dto.response.OCRResponseDto;
+import com.innogent.pantry_mind.util.NameNormalizationUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.stream.Collectors;
+
+// Merges the OCR responses of one receipt photographed in several overlapping pages. Consecutive photos overlap
+// where the previous page's last lines are repeated as the next page's first lines (same normalized name, quantity
+// and price); the longest such run is kept once. Any other repeat is a separate purchase and stays.
+@Component
+public class OcrPageMerger {
+
+    public OCRResponseDto merge(List<OCRResponseDto> pages) {
+        OCRResponseDto merged = new OCRResponseDto();
+        merged.setDocumentType("bill");
+        List<OCRResponseDto.OCRItemDto> items = new ArrayList<>();
+        List<OCRResponseDto.OCRItemDto> previousPage = List.of();
+        // Slot in the merged list of each line of the previous page
+        List<Integer> previousSlots = List.of();
+
+        for (OCRResponseDto page : pages) {
+            List<OCRResponseDto.OCRItemDto> pageItems = page.getItems() != null ? page.getItems() : List.of();
+            int overlap = overlap(previousPage, pageItems);
+            List<Integer> pageSlots = new ArrayList<>(pageItems.size());
+            for (int i = 0; i < pageItems.size(); i++) {
+                OCRResponseDto.OCRItemDto item = pageItems.get(i);
+                if (i < overlap) {
+                    int slot = previousSlots.get(previousPage.size() - overlap + i);
+                    pageSlots.add(slot);
+                    if (confidenceOf(item) > confidenceOf(items.get(slot))) {
+                        items.set(slot, item);
+                    }
+                } else {
+                    pageSlots.add(items.size());
+                    items.add(item);
+                }
+            }
+            previousPage = pageItems;
+            previousSlots = pageSlots;
+        }
+
+        merged.setItems(items);
+        merged.setRawOcrText(pages.stream()
+                .map(OCRResponseDto::getRawOcrText)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("\n")));
+        merged.setRequestId(pages.stream()
+                .map(OCRResponseDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(",")));
+        OptionalDouble confidence = pages.stream()
+                .map(OCRResponseDto::getConfidenceSummary)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .average();
+        merged.setConfidenceSummary(confidence.isPresent() ? confidence.getAsDouble() : null);
+        return merged;
+    }
+
+    // Length of the longest run of lines that ends the previous page and starts the current one
+    private int overlap(List<OCRResponseDto.OCRItemDto> previous, List<OCRResponseDto.OCRItemDto> current) {
+        for (int length = Math.min(previous.size(), current.size()); length > 0; length--) {
+            int offset = previous.size() - length;
+            boolean matches = true;
+            for (int i = 0; i < length && matches; i++) {
+                matches = sameLine(previous.get(offset + i), current.get(i));
+            }
+            if (matches) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private boolean sameLine(OCRResponseDto.OCRItemDto a, OCRResponseDto.OCRItemDto b) {
+        String nameA = NameNormalizationUtil.normalizeName(nameOf(a));
+        String nameB = NameNormalizationUtil.normalizeName(nameOf(b));
+        if (nameA.isEmpty() || nameB.isEmpty()) {
+            return false;
+        }
+        // One misread character at a photo edge is tolerated on longer names
+        boolean sameName = nameA.equals(nameB)
+                || (Math.min(nameA.length(), nameB.length()) > 4 && NameNormalizationUtil.levenshteinDistance(nameA, nameB) <= 1);
+        return sameName && Objects.equals(a.getQuantity(), b.getQuantity()) && Objects.equals(a.getPrice(), b.getPrice());
+    }
+
+    private String nameOf(OCRResponseDto.OCRItemDto item) {
+        return item.getCanonicalName() != null ? item.getCanonicalName() : item.getRawName();
+    }
+
+    private double confidenceOf(OCRResponseDto.OCRItemDto item) {
+        return item.getConfidence() != null ? item.getConfidence() : 0.0;
+    }
+}
@@ -0,0 +1,106 @@
+package com.innogent.pantry_mind.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.innogent.pantry_mind.entity.AiExtractedItems;
+import com.innogent.pantry_mind.entity.OcrUpload;
+import com.innogent.pantry_mind.repository.AiExtractedItemsRepository;
+import com.innogent.pantry_mind.repository.OcrUploadRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+// Content-addressed OCR dedup: SHA-256 of the image plus document type, mode and kitchen maps to the upload
+// that already holds the extraction, so a re-uploaded receipt or label skips the Python OCR call entirely.
+@Slf4j
+@Service
+public class OcrResultCache {
+
+    private final OcrUploadRepository ocrUploadRepository;
+    private final AiExtractedItemsRepository aiExtractedItemsRepository;
+    private final Cache<String, Long> uploadIdsByContent;
+    private final boolean enabled;
+
+    public OcrResultCache(OcrUploadRepository ocrUploadRepository,
+                          AiExtractedItemsRepository aiExtractedItemsRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${ocr.cache.enabled:true}") boolean enabled,
+                          @Value("${ocr.cache.ttl:24h}") Duration ttl,
+                          @Value("${ocr.cache.max-entries:10000}") long maxEntries) {
+        this.ocrUploadRepository = ocrUploadRepository;
+        this.aiExtractedItemsRepository = aiExtractedItemsRepository;
+        this.enabled = enabled;
+        this.uploadIdsByContent = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, uploadIdsByContent, "ocr-results");
+        Gauge.builder("pantry.ocr.cache.hit.ratio", uploadIdsByContent, cache -> cache.stats().hitRate())
+                .description("Share of OCR uploads answered from an earlier identical upload")
+                .register(meterRegistry);
+    }
+
+    // Null when the cache is off or the image cannot be read; callers then just run OCR
+    public String keyOf(Resource image, OcrUpload.DocumentType docType, String mode, Long kitchenId) {
+        if (!enabled) {
+            return null;
+        }
+        try (InputStream in = image.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest()) + ":" + docType + ":" + (mode != null ? mode : "-") + ":" + kitchenId;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.warn("Could not hash OCR upload, skipping dedup: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public Optional<OCRService.OCRProcessingResult> lookup(String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        Long uploadId = uploadIdsByContent.getIfPresent(key);
+        if (uploadId == null) {
+            return Optional.empty();
+        }
+        // Only finished, not yet confirmed extractions are reusable; a confirmed receipt uploaded again is a new
+        // import and gets its own upload, anything else is dropped and OCR runs again
+        Optional<OcrUpload> upload = ocrUploadRepository.findById(uploadId)
+                .filter(u -> u.getStatus() == OcrUpload.ProcessingStatus.COMPLETED);
+        if (upload.isEmpty()) {
+            uploadIdsByContent.invalidate(key);
+            return Optional.empty();
+        }
+        List<AiExtractedItems> items = aiExtractedItemsRepository.findByOcrUploadId(uploadId);
+        log.debug("OCR dedup hit, reusing upload {}", uploadId);
+        return Optional.of(OCRService.OCRProcessingResult.builder()
+                .ocrUpload(upload.get())
+                .extractedItems(items)
+                .cached(true)
+                .build());
+    }
+
+    public void put(String key, Long uploadId) {
+        if (key != null && uploadId != null) {
+            uploadIdsByContent.put(key, uploadId);
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package com.innogent.pantry_mind.service;
 
 import com.innogent.pantry_mind.dto.request.ConfirmItemsRequestDto;
+import com.innogent.pantry_mind.dto.response.ConfirmItemsResponseDTO;
 import com.innogent.pantry_mind.entity.*;
+import com.innogent.pantry_mind.exception.DuplicateResourceException;
 import com.innogent.pantry_mind.repository.*;
+import com.innogent.pantry_mind.util.NameNormalizationUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+// Confirms the reviewed lines of an OCR upload into inventory with a fixed number of statements:
+// reference data is loaded once, groups are resolved with one IN query, new groups and items are
+// JDBC batch inserts and the group totals are one batch of deltas.
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PantryService {
@@ -18,112 +31,172 @@ public class PantryService {
     private final OcrUploadRepository ocrUploadRepository;
     private final AiExtractedItemsRepository aiExtractedItemsRepository;
     private final InventoryRepository inventoryRepository;
-    private final InventoryItemRepository inventoryItemRepository;
     private final CategoryRepository categoryRepository;
     private final UnitRepository unitRepository;
     private final LocationRepository locationRepository;
+    private final InventoryTotalsService inventoryTotalsService;
+    private final ReferenceDataService referenceDataService;
+    private final JdbcTemplate jdbcTemplate;
     
     @Transactional
-    public List<InventoryItem> confirmAndSaveItems(ConfirmItemsRequestDto request) {
-        // Update OCR upload status
+    public ConfirmItemsResponseDTO confirmAndSaveItems(ConfirmItemsRequestDto request) {
         OcrUpload ocrUpload = ocrUploadRepository.findById(request.getOcrUploadId())
             .orElseThrow(() -> new RuntimeException("OCR upload not found"));
-        
+        if (ocrUploadRepository.markConfirmed(ocrUpload.getId()) == 0) {
+            throw new DuplicateResourceException("OCR upload " + ocrUpload.getId() + " is already confirmed");
+        }
         ocrUpload.setStatus(OcrUpload.ProcessingStatus.CONFIRMED);
-        ocrUploadRepository.save(ocrUpload);
-        
-        // Mark AI extracted items as confirmed
-        List<AiExtractedItems> aiItems = aiExtractedItemsRepository.findByOcrUploadId(request.getOcrUploadId());
-        aiItems.forEach(item -> item.setIsConfirmed(true));
-        aiExtractedItemsRepository.saveAll(aiItems);
+        aiExtractedItemsRepository.markConfirmed(ocrUpload.getId());
         
-        // Create inventory items using new structure
-        List<InventoryItem> inventoryItems = request.getItems().stream()
-            .map(itemDto -> {
-                // Find or create inventory group
-                Category category = findOrCreateCategory(itemDto.getCategoryName());
-                Unit unit = findOrCreateUnit(itemDto.getUnitName());
-                
-                Inventory inventory = findOrCreateInventory(
-                    itemDto.getRawName(), 
-                    category.getId(), 
-                    unit.getId(), 
-                    ocrUpload.getKitchenId()
-                );
-                
-                // Create inventory item
-                InventoryItem item = new InventoryItem();
-                item.setInventory(inventory);
-                item.setDescription(itemDto.getCanonicalName());
-                item.setCreatedBy(ocrUpload.getUploadedBy());
-                item.setQuantity(itemDto.getQuantity() != null ? itemDto.getQuantity().longValue() : 1L);
-                Location location = findOrCreateLocation(itemDto.getStorageType());
-                item.setLocation(location);
-                
-                if (itemDto.getExpiryDate() != null) {
-                    try {
-                        LocalDate expiryDate = LocalDate.parse(itemDto.getExpiryDate(), DateTimeFormatter.ISO_LOCAL_DATE);
-                        item.setExpiryDate(java.sql.Date.valueOf(expiryDate));
-                    } catch (Exception e) {
-                        // Handle date parsing error
-                    }
-                }
-                
-                return item;
-            })
-            .toList();
+        ConfirmItemsResponseDTO response = new ConfirmItemsResponseDTO();
+        response.setOcrUploadId(ocrUpload.getId());
+        List<ConfirmItemsRequestDto.ConfirmedItemDto> lines = request.getItems() != null ? request.getItems() : List.of();
+        if (lines.isEmpty()) {
+            return response;
+        }
         
-        return inventoryItemRepository.saveAll(inventoryItems);
-    }
-    
-    private Category findOrCreateCategory(String categoryName) {
-        final String finalCategoryName = (categoryName == null || categoryName.isEmpty()) ? "Other" : categoryName;
+        // 1. Reference data from the shared cache, resolved once per distinct name
+        ReferenceData<Category> categories = new ReferenceData<>(referenceDataService::findCategoryByName);
+        ReferenceData<Unit> units = new ReferenceData<>(referenceDataService::findUnitByName);
+        ReferenceData<Location> locations = new ReferenceData<>(referenceDataService::findLocationByName);
         
-        return categoryRepository.findByName(finalCategoryName)
-            .orElseGet(() -> {
+        List<Line> resolved = new ArrayList<>();
+        for (ConfirmItemsRequestDto.ConfirmedItemDto dto : lines) {
+            Line line = new Line();
+            line.dto = dto;
+            line.category = categories.resolve(orDefault(dto.getCategoryName(), "Other"), name -> {
                 Category category = new Category();
-                category.setName(finalCategoryName);
+                category.setName(name);
                 category.setDescription("Auto-created from OCR");
                 return categoryRepository.save(category);
             });
-    }
-    
-    private Unit findOrCreateUnit(String unitName) {
-        final String finalUnitName = (unitName == null || unitName.isEmpty()) ? "piece" : unitName;
-        
-        return unitRepository.findByName(finalUnitName)
-            .orElseGet(() -> {
+            line.unit = units.resolve(orDefault(dto.getUnitName(), "piece"), name -> {
                 Unit unit = new Unit();
-                unit.setName(finalUnitName);
+                unit.setName(name);
                 unit.setType("weight"); // Default type
                 return unitRepository.save(unit);
             });
-    }
-    
-    private Inventory findOrCreateInventory(String name, Long categoryId, Long unitId, Long kitchenId) {
-        String normalizedName = com.innogent.pantry_mind.util.NameNormalizationUtil.normalizeName(name);
+            line.location = locations.resolve(orDefault(dto.getStorageType(), "Pantry"), name -> {
+                Location location = new Location();
+                location.setName(name);
+                return locationRepository.save(location);
+            });
+            line.normalizedName = NameNormalizationUtil.normalizeName(dto.getRawName());
+            resolved.add(line);
+        }
+        response.setReferenceDataCreated(categories.created + units.created + locations.created);
+        if (categories.created > 0) referenceDataService.evictCategories();
+        if (units.created > 0) referenceDataService.evictUnits();
+        if (locations.created > 0) referenceDataService.evictLocations();
         
-        return inventoryRepository.findByNormalizedNameAndCategoryIdAndUnitIdAndKitchenId(normalizedName, categoryId, unitId, kitchenId)
-            .orElseGet(() -> {
+        // 2. Inventory groups: one IN query, missing ones batch inserted and read back with the same query
+        Long kitchenId = ocrUpload.getKitchenId();
+        Set<String> names = resolved.stream().map(line -> line.normalizedName).collect(Collectors.toSet());
+        Supplier<Map<String, Inventory>> loadGroups = () -> inventoryRepository.findByKitchenIdAndNormalizedNameIn(kitchenId, names)
+            .stream()
+            .collect(Collectors.toMap(this::groupKey, Function.identity(), (a, b) -> a));
+        Map<String, Inventory> groups = loadGroups.get();
+        
+        Map<String, Inventory> missing = new LinkedHashMap<>();
+        for (Line line : resolved) {
+            String key = groupKey(line.normalizedName, line.category.getId(), line.unit.getId());
+            if (!groups.containsKey(key) && !missing.containsKey(key)) {
                 Inventory inventory = new Inventory();
-                inventory.setName(name);
-                inventory.setNormalizedName(normalizedName);
+                inventory.setName(line.dto.getRawName());
                 inventory.setKitchenId(kitchenId);
-                inventory.setCategory(categoryRepository.findById(categoryId).orElse(null));
-                inventory.setUnit(unitRepository.findById(unitId).orElse(null));
-                inventory.setTotalQuantity(0L);
-                return inventoryRepository.save(inventory);
-            });
+                inventory.setCategory(line.category);
+                inventory.setUnit(line.unit);
+                // Same normalization and default min stock the entity applies on persist
+                inventory.updateNormalizedName();
+                missing.put(key, inventory);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            jdbcTemplate.batchUpdate("INSERT INTO inventory (name, normalized_name, category_id, unit_id, kitchen_id, " +
+                    "total_quantity, item_count, min_expiry_days_alert, min_stock, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?)",
+                missing.values().stream().map(inventory -> new Object[]{
+                    inventory.getName(), inventory.getNormalizedName(), inventory.getCategory().getId(),
+                    inventory.getUnit().getId(), kitchenId, inventory.getMinExpiryDaysAlert(), inventory.getMinStock(), now, now
+                }).toList());
+            groups = loadGroups.get();
+        }
+        response.setGroupsCreated(missing.size());
+        
+        // 3. Items as one JDBC batch, totals as one batch of deltas
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> itemArgs = new ArrayList<>();
+        Map<Long, Long> quantityDeltas = new LinkedHashMap<>();
+        Map<Long, Integer> countDeltas = new HashMap<>();
+        for (Line line : resolved) {
+            Inventory inventory = groups.get(groupKey(line.normalizedName, line.category.getId(), line.unit.getId()));
+            long quantity = line.dto.getQuantity() != null ? line.dto.getQuantity().longValue() : 1L;
+            itemArgs.add(new Object[]{inventory.getId(), line.dto.getCanonicalName(), quantity, line.location.getId(),
+                parseExpiry(line.dto.getExpiryDate()), ocrUpload.getUploadedBy(), now});
+            quantityDeltas.merge(inventory.getId(), quantity, Long::sum);
+            countDeltas.merge(inventory.getId(), 1, Integer::sum);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventory_item (inventory_id, description, quantity, location_id, " +
+            "expiry_date, created_by, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", itemArgs);
+        inventoryTotalsService.applyDeltas(quantityDeltas, countDeltas);
+        
+        response.setItemsCreated(itemArgs.size());
+        response.setGroupsUpdated(quantityDeltas.size() - missing.size());
+        log.debug("Confirmed OCR upload {}: {} items into {} groups ({} new)",
+            ocrUpload.getId(), itemArgs.size(), quantityDeltas.size(), missing.size());
+        return response;
+    }
+    
+    private String groupKey(Inventory inventory) {
+        return groupKey(inventory.getNormalizedName(),
+            inventory.getCategory() != null ? inventory.getCategory().getId() : null,
+            inventory.getUnit() != null ? inventory.getUnit().getId() : null);
+    }
+    
+    private String groupKey(String normalizedName, Long categoryId, Long unitId) {
+        return normalizedName + "|" + categoryId + "|" + unitId;
+    }
+    
+    private String orDefault(String value, String fallback) {
+        return value == null || value.isEmpty() ? fallback : value;
     }
     
-    private Location findOrCreateLocation(String locationName) {
-        final String finalLocationName = (locationName == null || locationName.isEmpty()) ? "Pantry" : locationName;
+    private java.sql.Date parseExpiry(String expiryDate) {
+        if (expiryDate == null) {
+            return null;
+        }
+        try {
+            return java.sql.Date.valueOf(LocalDate.parse(expiryDate, DateTimeFormatter.ISO_LOCAL_DATE));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private static class Line {
+        ConfirmItemsRequestDto.ConfirmedItemDto dto;
+        String normalizedName;
+        Category category;
+        Unit unit;
+        Location location;
+    }
+    
+    // Per-request name -> entity memo: each distinct name is looked up once through ReferenceDataService
+    // (second-level cached) and unknown names are created once
+    private static class ReferenceData<T> {
+        private final Map<String, T> byName = new HashMap<>();
+        private final Function<String, Optional<T>> lookup;
+        private int created;
         
-        return locationRepository.findByName(finalLocationName)
-            .orElseGet(() -> {
-                Location location = new Location();
-                location.setName(finalLocationName);
-                return locationRepository.save(location);
-            });
+        ReferenceData(Function<String, Optional<T>> lookup) {
+            this.lookup = lookup;
+        }
+        
+        T resolve(String name, Function<String, T> create) {
+            return byName.computeIfAbsent(name, key -> lookup.apply(key).orElseGet(() -> {
+                created++;
+                return create.apply(key);
+            }));
+        }
     }
 }
@@ -0,0 +1,87 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.entity.Category;
+import com.innogent.pantry_mind.entity.Location;
+import com.innogent.pantry_mind.entity.Role;
+import com.innogent.pantry_mind.entity.Unit;
+import com.innogent.pantry_mind.repository.CategoryRepository;
+import com.innogent.pantry_mind.repository.LocationRepository;
+import com.innogent.pantry_mind.repository.RoleRepository;
+import com.innogent.pantry_mind.repository.UnitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+// Process-wide cache of the seeded reference tables, by id and by name. Cached entities are detached and
+// shared, so they are only ever used as association targets and read, never modified.
+// Misses and null keys are not cached, so a row created elsewhere is picked up on the next lookup.
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataService {
+
+    public static final String UNITS_BY_ID = "unitsById";
+    public static final String UNITS_BY_NAME = "unitsByName";
+    public static final String CATEGORIES_BY_ID = "categoriesById";
+    public static final String CATEGORIES_BY_NAME = "categoriesByName";
+    public static final String LOCATIONS_BY_ID = "locationsById";
+    public static final String LOCATIONS_BY_NAME = "locationsByName";
+    public static final String ROLES_BY_NAME = "rolesByName";
+    public static final List<String> CACHE_NAMES = List.of(UNITS_BY_ID, UNITS_BY_NAME, CATEGORIES_BY_ID,
+            CATEGORIES_BY_NAME, LOCATIONS_BY_ID, LOCATIONS_BY_NAME, ROLES_BY_NAME);
+
+    private final UnitRepository unitRepository;
+    private final CategoryRepository categoryRepository;
+    private final LocationRepository locationRepository;
+    private final RoleRepository roleRepository;
+
+    @Cacheable(cacheNames = UNITS_BY_ID, condition = "#p0 != null", unless = "#result == null")
+    public Optional<Unit> findUnitById(Long id) {
+        return unitRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = UNITS_BY_NAME, condition = "#p0 != null", unless = "#result == null")
+    public Optional<Unit> findUnitByName(String name) {
+        return unitRepository.findByName(name);
+    }
+
+    @Cacheable(cacheNames = CATEGORIES_BY_ID, condition = "#p0 != null", unless = "#result == null")
+    public Optional<Category> findCategoryById(Long id) {
+        return categoryRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = CATEGORIES_BY_NAME, condition = "#p0 != null", unless = "#result == null")
+    public Optional<Category> findCategoryByName(String name) {
+        return categoryRepository.findByName(name);
+    }
+
+    @Cacheable(cacheNames = LOCATIONS_BY_ID, condition = "#p0 != null", unless = "#result == null")
+    public Optional<Location> findLocationById(Long id) {
+        return locationRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = LOCATIONS_BY_NAME, condition = "#p0 != null", unless = "#result == null")
+    public Optional<Location> findLocationByName(String name) {
+        return locationRepository.findByName(name);
+    }
+
+    @Cacheable(cacheNames = ROLES_BY_NAME, condition = "#p0 != null", unless = "#result == null")
+    public Optional<Role> findRoleByName(String name) {
+        return roleRepository.findByName(name);
+    }
+
+    @CacheEvict(cacheNames = {UNITS_BY_ID, UNITS_BY_NAME}, allEntries = true)
+    public void evictUnits() {
+    }
+
+    @CacheEvict(cacheNames = {CATEGORIES_BY_ID, CATEGORIES_BY_NAME}, allEntries = true)
+    public void evictCategories() {
+    }
+
+    @CacheEvict(cacheNames = {LOCATIONS_BY_ID, LOCATIONS_BY_NAME}, allEntries = true)
+    public void evictLocations() {
+    }
+}
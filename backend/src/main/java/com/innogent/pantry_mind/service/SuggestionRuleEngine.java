@@ -0,0 +1,86 @@
+package com.innogent.pantry_mind.service;
+
+import com.innogent.pantry_mind.dto.RuleSuggestionView;
+import com.innogent.pantry_mind.dto.response.ShoppingListItemResponseDTO;
+import com.innogent.pantry_mind.entity.Inventory;
+import com.innogent.pantry_mind.entity.SuggestionRule;
+import com.innogent.pantry_mind.repository.InventoryRepository;
+import com.innogent.pantry_mind.repository.SuggestionRuleRepository;
+import com.innogent.pantry_mind.util.NameNormalizationUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reorder rules for a whole kitchen in a fixed number of queries. "memory" loads the kitchen's rules once into a
+// map keyed by normalized name and walks the inventory in one pass; "sql" lets the database join rules and
+// inventory and return only the groups at or below their threshold.
+@Service
+@RequiredArgsConstructor
+public class SuggestionRuleEngine {
+
+    private static final BigDecimal DEFAULT_THRESHOLD = BigDecimal.valueOf(SuggestionRuleRepository.DEFAULT_REORDER_THRESHOLD);
+    private static final BigDecimal DEFAULT_QUANTITY = BigDecimal.valueOf(SuggestionRuleRepository.DEFAULT_SUGGESTED_QUANTITY);
+
+    private final InventoryRepository inventoryRepository;
+    private final SuggestionRuleRepository suggestionRuleRepository;
+
+    @Value("${suggestions.rules.evaluation-mode:memory}")
+    private String evaluationMode;
+
+    @Transactional(readOnly = true)
+    public List<ShoppingListItemResponseDTO> evaluate(Long kitchenId) {
+        return "sql".equalsIgnoreCase(evaluationMode) ? evaluateInDatabase(kitchenId) : evaluateInMemory(kitchenId);
+    }
+
+    private List<ShoppingListItemResponseDTO> evaluateInMemory(Long kitchenId) {
+        // Rule names are stored normalized; the first rule wins when a kitchen has duplicates, as in the SQL mode
+        Map<String, SuggestionRule> rules = new HashMap<>();
+        for (SuggestionRule rule : suggestionRuleRepository.findEffectiveRulesByKitchen(kitchenId)) {
+            rules.putIfAbsent(rule.getCanonicalName(), rule);
+        }
+
+        List<ShoppingListItemResponseDTO> suggestions = new ArrayList<>();
+        for (Inventory inventory : inventoryRepository.findWithUnitByKitchenId(kitchenId)) {
+            String key = inventory.getNormalizedName() != null ? inventory.getNormalizedName()
+                    : NameNormalizationUtil.normalizeName(inventory.getName());
+            SuggestionRule rule = rules.get(key);
+            BigDecimal threshold = rule != null && rule.getReorderThreshold() != null ? rule.getReorderThreshold() : DEFAULT_THRESHOLD;
+            long stock = inventory.getTotalQuantity() != null ? inventory.getTotalQuantity() : 0L;
+            if (BigDecimal.valueOf(stock).compareTo(threshold) <= 0) {
+                BigDecimal quantity = rule != null && rule.getSuggestedQuantity() != null ? rule.getSuggestedQuantity() : DEFAULT_QUANTITY;
+                suggestions.add(toSuggestion(inventory.getName(), inventory.getUnit() != null ? inventory.getUnit().getName() : null,
+                        inventory.getTotalQuantity(), quantity));
+            }
+        }
+        return suggestions;
+    }
+
+    private List<ShoppingListItemResponseDTO> evaluateInDatabase(Long kitchenId) {
+        Map<String, ShoppingListItemResponseDTO> suggestions = new LinkedHashMap<>();
+        for (RuleSuggestionView row : suggestionRuleRepository.findBelowThreshold(kitchenId)) {
+            suggestions.putIfAbsent(row.getName(),
+                    toSuggestion(row.getName(), row.getUnitName(), row.getTotalQuantity(), row.getSuggestedQuantity()));
+        }
+        return new ArrayList<>(suggestions.values());
+    }
+
+    private ShoppingListItemResponseDTO toSuggestion(String name, String unitName, Long totalQuantity, BigDecimal quantity) {
+        ShoppingListItemResponseDTO suggestion = new ShoppingListItemResponseDTO();
+        suggestion.setCanonicalName(name);
+        suggestion.setSuggestedQuantity(quantity);
+        suggestion.setUnitName(unitName != null ? unitName : "units");
+        suggestion.setSuggestedBy("RULE");
+        suggestion.setSuggestionReason("Low stock: " + totalQuantity + " remaining");
+        suggestion.setConfidenceScore(BigDecimal.valueOf(0.8));
+        suggestion.setStatus("PENDING");
+        return suggestion;
+    }
+}
@@ -1,17 +1,18 @@
 package com.innogent.pantry_mind.service.impl;
 
+import com.innogent.pantry_mind.config.PythonBackendCircuitBreaker;
+import com.innogent.pantry_mind.config.PythonCallMetrics;
+import com.innogent.pantry_mind.config.PythonHttpClients;
 import com.innogent.pantry_mind.dto.response.ShoppingListItemResponseDTO;
 import com.innogent.pantry_mind.dto.response.RecipeResponseDTO;
-import com.innogent.pantry_mind.entity.ConsumptionEvent;
 import com.innogent.pantry_mind.entity.Inventory;
-import com.innogent.pantry_mind.repository.ConsumptionEventRepository;
 import com.innogent.pantry_mind.repository.InventoryRepository;
 import com.innogent.pantry_mind.service.AIService;
+import com.innogent.pantry_mind.service.ConsumptionHistoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,21 +25,18 @@ import java.util.stream.Collectors;
 public class AIServiceImpl implements AIService {
 
     private final InventoryRepository inventoryRepository;
-    private final ConsumptionEventRepository consumptionEventRepository;
-    private final RestTemplate restTemplate;
+    private final ConsumptionHistoryService consumptionHistoryService;
+    private final PythonHttpClients pythonHttpClients;
+    private final PythonCallMetrics pythonCallMetrics;
+    private final PythonBackendCircuitBreaker circuitBreaker;
     
     @Value("${python.backend.url:http://localhost:8000}")
     private String pythonBackendUrl;
 
     @Override
     public boolean isAIAvailable() {
-        try {
-            String response = restTemplate.getForObject(pythonBackendUrl + "/health", String.class);
-            return response != null && response.contains("healthy");
-        } catch (Exception e) {
-            log.warn("AI Service unavailable: {}", e.getMessage());
-            return false;
-        }
+        // Health is refreshed in the background by the circuit breaker, no round trip per request
+        return circuitBreaker.isAvailable();
     }
 
     @Override
@@ -47,11 +45,15 @@ public class AIServiceImpl implements AIService {
     }
 
     public List<ShoppingListItemResponseDTO> generateAISuggestionsForListType(Long kitchenId, String listType, List<String> existingItems) {
+        if (!circuitBreaker.isAvailable()) {
+            log.debug("Python backend circuit open, using rule-based suggestions");
+            return generateRuleBasedSuggestions(kitchenId);
+        }
         try {
-            // Fetch real consumption data from database
+            // Fetch real consumption data from database: recent raw events plus rollups for the older part
             LocalDateTime analysisStartDate = LocalDateTime.now().minusDays(90); // Last 90 days
-            List<ConsumptionEvent> consumptionEvents = consumptionEventRepository
-                .findByKitchenIdAndCreatedAtAfter(kitchenId, analysisStartDate);
+            List<Map<String, Object>> consumptionEvents = consumptionHistoryService
+                .getActivityMapsSince(kitchenId, analysisStartDate);
             
             // Fetch current inventory
             List<Inventory> currentInventory = inventoryRepository.findByKitchenId(kitchenId);
@@ -65,11 +67,8 @@ public class AIServiceImpl implements AIService {
             
             // Call Python AI service
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.postForObject(
-                pythonBackendUrl + "/api/ai-shopping/suggestions", 
-                aiRequest, 
-                Map.class
-            );
+            Map<String, Object> response = circuitBreaker.call(() -> pythonCallMetrics.record("suggestions", "shopping-suggestions", () ->
+                pythonHttpClients.getSuggestions().postForObject(pythonBackendUrl + "/api/ai-shopping/suggestions", aiRequest, Map.class)));
             
             if (response != null && response.get("suggestions") != null) {
                 @SuppressWarnings("unchecked")
@@ -88,7 +87,7 @@ public class AIServiceImpl implements AIService {
     }
 
     private Map<String, Object> buildAIRequest(Long kitchenId, String listType, List<String> existingItems,
-            List<ConsumptionEvent> consumptionEvents, List<Inventory> currentInventory, LocalDateTime analysisStartDate) {
+            List<Map<String, Object>> consumptionEvents, List<Inventory> currentInventory, LocalDateTime analysisStartDate) {
         
         Map<String, Object> aiRequest = new HashMap<>();
         aiRequest.put("kitchenId", kitchenId);
@@ -100,11 +99,7 @@ public class AIServiceImpl implements AIService {
         consumptionData.put("kitchenId", kitchenId);
         consumptionData.put("analysisStartDate", analysisStartDate.toString());
         
-        // Convert consumption events to format expected by Python AI
-        List<Map<String, Object>> consumptionEventMaps = consumptionEvents.stream()
-            .map(this::convertConsumptionEventToMap)
-            .collect(Collectors.toList());
-        consumptionData.put("consumptionEvents", consumptionEventMaps);
+        consumptionData.put("consumptionEvents", consumptionEvents);
         
         // Convert inventory to format expected by Python AI
         List<Map<String, Object>> inventoryMaps = currentInventory.stream()
@@ -117,18 +112,6 @@ public class AIServiceImpl implements AIService {
         return aiRequest;
     }
 
-    private Map<String, Object> convertConsumptionEventToMap(ConsumptionEvent event) {
-        Map<String, Object> eventMap = new HashMap<>();
-        eventMap.put("itemName", event.getCanonicalName());
-        eventMap.put("quantity", event.getQuantityConsumed());
-        eventMap.put("consumedAt", event.getCreatedAt().toString());
-        eventMap.put("reason", event.getReason().toString());
-        if (event.getUnit() != null) {
-            eventMap.put("unit", event.getUnit().getName());
-        }
-        return eventMap;
-    }
-
     private Map<String, Object> convertInventoryToMap(Inventory inventory) {
         Map<String, Object> inventoryMap = new HashMap<>();
         inventoryMap.put("itemName", inventory.getName());
@@ -142,12 +125,15 @@ public class AIServiceImpl implements AIService {
 
     @Override
     public Map<String, Object> analyzeConsumptionPatterns(Long kitchenId) {
+        if (!circuitBreaker.isAvailable()) {
+            return generateBasicAnalysis(kitchenId);
+        }
         try {
             LocalDateTime analysisStartDate = LocalDateTime.now().minusDays(30);
-            List<ConsumptionEvent> consumptionEvents = consumptionEventRepository
-                .findByKitchenIdAndCreatedAtAfter(kitchenId, analysisStartDate);
+            List<Map<String, Object>> eventMaps = consumptionHistoryService
+                .getActivityMapsSince(kitchenId, analysisStartDate);
             
-            if (consumptionEvents.isEmpty()) {
+            if (eventMaps.isEmpty()) {
                 return generateBasicAnalysis(kitchenId);
             }
             
@@ -155,18 +141,11 @@ public class AIServiceImpl implements AIService {
             Map<String, Object> analysisRequest = new HashMap<>();
             analysisRequest.put("kitchenId", kitchenId);
             analysisRequest.put("analysisStartDate", analysisStartDate.toString());
-            
-            List<Map<String, Object>> eventMaps = consumptionEvents.stream()
-                .map(this::convertConsumptionEventToMap)
-                .collect(Collectors.toList());
             analysisRequest.put("consumptionEvents", eventMaps);
             
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.postForObject(
-                pythonBackendUrl + "/api/ai-shopping/analyze-consumption", 
-                analysisRequest, 
-                Map.class
-            );
+            Map<String, Object> response = circuitBreaker.call(() -> pythonCallMetrics.record("suggestions", "analyze-consumption", () ->
+                pythonHttpClients.getSuggestions().postForObject(pythonBackendUrl + "/api/ai-shopping/analyze-consumption", analysisRequest, Map.class)));
             
             if (response != null) {
                 return response;
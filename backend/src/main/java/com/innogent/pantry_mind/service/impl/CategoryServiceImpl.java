@@ -11,15 +11,19 @@ import com.innogent.pantry_mind.exception.ResourceNotFoundException;
 import com.innogent.pantry_mind.mapper.CategoryMapper;
 import com.innogent.pantry_mind.repository.CategoryRepository;
 import com.innogent.pantry_mind.service.CategoryService;
+import com.innogent.pantry_mind.service.ReferenceDataService;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final ReferenceDataService referenceDataService;
     
-    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryMapper categoryMapper,
+                             ReferenceDataService referenceDataService) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.referenceDataService = referenceDataService;
     }
 
     @Override
@@ -29,12 +33,13 @@ public class CategoryServiceImpl implements CategoryService {
         }
         Category category = categoryMapper.toEntity(categoryRequestDTO);
         Category savedCategory = categoryRepository.save(category);
+        referenceDataService.evictCategories();
         return categoryMapper.toResponse(savedCategory);
     }
 
     @Override
     public CategoryResponseDTO findById(Long id) {
-        Category category = categoryRepository.findById(id)
+        Category category = referenceDataService.findCategoryById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
         return categoryMapper.toResponse(category);
     }
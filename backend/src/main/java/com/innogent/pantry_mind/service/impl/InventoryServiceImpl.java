@@ -1,21 +1,32 @@
 package com.innogent.pantry_mind.service.impl;
 
+import com.innogent.pantry_mind.dto.InventorySummaryView;
 import com.innogent.pantry_mind.dto.request.ConsumeItemsRequestDTO;
 import com.innogent.pantry_mind.dto.request.CreateInventoryItemRequestDTO;
 import com.innogent.pantry_mind.dto.request.UpdateInventoryItemRequestDTO;
 import com.innogent.pantry_mind.dto.request.UpdateInventoryAlertsRequestDTO;
+import com.innogent.pantry_mind.dto.response.ConsumeItemsResponseDTO;
 import com.innogent.pantry_mind.dto.response.InventoryItemResponseDTO;
+import com.innogent.pantry_mind.dto.response.CursorPageResponseDTO;
 import com.innogent.pantry_mind.dto.response.InventoryResponseDTO;
 import com.innogent.pantry_mind.mapper.InventoryItemMapper;
 import com.innogent.pantry_mind.mapper.InventoryMapper;
 import com.innogent.pantry_mind.entity.*;
 import com.innogent.pantry_mind.repository.*;
+import com.innogent.pantry_mind.util.CursorCodec;
 import com.innogent.pantry_mind.util.NameNormalizationUtil;
 import com.innogent.pantry_mind.util.UnitConversionUtil;
+import com.innogent.pantry_mind.service.BatchConsumeService;
+import com.innogent.pantry_mind.service.ConsumptionStatsService;
 import com.innogent.pantry_mind.service.InventoryService;
+import com.innogent.pantry_mind.service.InventoryTotalsService;
+import com.innogent.pantry_mind.service.ReferenceDataService;
 import com.innogent.pantry_mind.exception.ItemNotFoundException;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,32 +34,38 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final InventoryItemRepository inventoryItemRepository;
-    private final CategoryRepository categoryRepository;
-    private final UnitRepository unitRepository;
-    private final LocationRepository locationRepository;
+    private final ReferenceDataService referenceDataService;
     private final UserRepository userRepository;
     private final KitchenRepository kitchenRepository;
     private final ConsumptionEventRepository consumptionEventRepository;
     private final InventoryItemMapper inventoryItemMapper;
     private final InventoryMapper inventoryMapper;
+    private final InventoryTotalsService inventoryTotalsService;
+    private final BatchConsumeService batchConsumeService;
+    private final ConsumptionStatsService consumptionStatsService;
+
+    // Serve the grouped listing from one aggregate query instead of entity + mapper per group
+    @Value("${inventory.listing.projection-enabled:true}")
+    private boolean projectionListingEnabled;
 
     @Override
     @Transactional
     public InventoryItemResponseDTO addInventoryItem(CreateInventoryItemRequestDTO dto) {
         // Convert unit and quantity to base units
-        Unit inputUnit = unitRepository.findById(dto.getUnitId())
+        Unit inputUnit = referenceDataService.findUnitById(dto.getUnitId())
                 .orElseThrow(() -> new ItemNotFoundException("Unit not found: " + dto.getUnitId()));
         
         String baseUnitName = UnitConversionUtil.getBaseUnit(inputUnit.getName());
         Long convertedQuantity = UnitConversionUtil.convertToBaseUnit(dto.getQuantity(), inputUnit.getName());
         
-        Unit baseUnit = unitRepository.findByName(baseUnitName)
+        Unit baseUnit = referenceDataService.findUnitByName(baseUnitName)
                 .orElseThrow(() -> new ItemNotFoundException("Base unit not found: " + baseUnitName));
         
         // Find or create inventory group with base unit
@@ -61,7 +78,7 @@ public class InventoryServiceImpl implements InventoryService {
         item.setDescription(dto.getDescription());
         item.setQuantity(convertedQuantity);
         if (dto.getLocationId() != null) {
-            Location location = locationRepository.findById(dto.getLocationId()).orElse(null);
+            Location location = referenceDataService.findLocationById(dto.getLocationId()).orElse(null);
             item.setLocation(location);
         }
         item.setExpiryDate(dto.getExpiryDate());
@@ -71,26 +88,22 @@ public class InventoryServiceImpl implements InventoryService {
         InventoryItem saved = inventoryItemRepository.save(item);
         
         // Update total quantity and item count
-        updateInventoryTotalQuantity(inventory.getId());
-        inventory.setItemCount(inventory.getItemCount() + 1);
-        inventoryRepository.save(inventory);
+        inventoryTotalsService.applyDelta(inventory.getId(), quantityOf(saved), 1);
         
         return inventoryItemMapper.toResponseDTO(saved);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<InventoryResponseDTO> getAllInventoryItems() {
-        // Update existing records with correct itemCount
-        List<Inventory> inventories = inventoryRepository.findAll();
-        for (Inventory inventory : inventories) {
-            if (inventory.getItemCount() == 0) {
-                Long count = inventoryItemRepository.countByInventoryId(inventory.getId());
-                inventory.setItemCount(count != null ? count.intValue() : 1);
-                inventoryRepository.save(inventory);
-            }
+        if (projectionListingEnabled) {
+            return inventoryRepository.findAllSummaries().stream()
+                    .map(this::toSummaryResponseDTO)
+                    .toList();
         }
-        
-        return inventories.stream()
+
+        // item_count drift is repaired by InventoryReconciliationService, never on read
+        return inventoryRepository.findAll().stream()
                 .map(inventory -> {
                     InventoryResponseDTO dto = inventoryMapper.toResponseDTO(inventory);
                     dto.setEarliestExpiry(inventoryItemRepository.findEarliestExpiryByInventoryId(inventory.getId()));
@@ -333,22 +346,23 @@ public class InventoryServiceImpl implements InventoryService {
         // Record consumption event
         recordConsumptionEvent(item, ConsumptionEvent.EventReason.CONSUMED);
         
-        Inventory inventory = item.getInventory();
-        inventoryItemRepository.deleteById(id);
-        
-        // Update item count
-        inventory.setItemCount(inventory.getItemCount() - 1);
+        Long inventoryId = item.getInventory().getId();
+        long quantity = quantityOf(item);
+        inventoryItemRepository.delete(item);
         
-        // Update total quantity or delete inventory if no items left
-        if (inventory.getItemCount() <= 0) {
-            inventoryRepository.deleteById(inventory.getId());
-        } else {
-            updateInventoryTotalQuantity(inventory.getId());
-            inventoryRepository.save(inventory);
-        }
+        // Update totals, then delete inventory if no items left
+        inventoryTotalsService.applyDelta(inventoryId, -quantity, -1);
+        inventoryTotalsService.removeIfEmpty(inventoryId);
     }
 
+    @Transactional(readOnly = true)
     public List<InventoryResponseDTO> getInventoryItemsByKitchen(Long kitchenId) {
+        if (projectionListingEnabled) {
+            return inventoryRepository.findSummariesByKitchenId(kitchenId).stream()
+                    .map(this::toSummaryResponseDTO)
+                    .toList();
+        }
+
         return inventoryRepository.findByKitchenId(kitchenId).stream()
                 .map(inventory -> {
                     InventoryResponseDTO dto = inventoryMapper.toResponseDTO(inventory);
@@ -357,11 +371,40 @@ public class InventoryServiceImpl implements InventoryService {
                 })
                 .toList();
     }
+
+    // Keyset page in id order; ids are positive so the first page simply starts after 0
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<InventoryResponseDTO> getInventoryPage(Long kitchenId, String cursor, int limit) {
+        Long afterId = cursor != null ? CursorCodec.decodeId(cursor) : 0L;
+        List<InventoryResponseDTO> rows = inventoryRepository
+                .findSummariesByKitchenIdAfter(kitchenId, afterId, PageRequest.of(0, limit + 1)).stream()
+                .map(this::toSummaryResponseDTO)
+                .toList();
+        return CursorPageResponseDTO.of(rows, limit, dto -> CursorCodec.encode(dto.getId()));
+    }
+
+    // Listing rows carry no individual items; those come from GET /api/inventory/{id}
+    private InventoryResponseDTO toSummaryResponseDTO(InventorySummaryView view) {
+        InventoryResponseDTO dto = new InventoryResponseDTO();
+        dto.setId(view.getId());
+        dto.setName(view.getName());
+        dto.setCategoryId(view.getCategoryId());
+        dto.setCategoryName(view.getCategoryName());
+        dto.setUnitId(view.getUnitId());
+        dto.setUnitName(view.getUnitName());
+        dto.setTotalQuantity(view.getTotalQuantity());
+        dto.setItemCount(view.getItemCount() != null ? view.getItemCount().intValue() : 0);
+        dto.setMinExpiryDaysAlert(view.getMinExpiryDaysAlert());
+        dto.setMinStock(view.getMinStock());
+        dto.setEarliestExpiry(view.getEarliestExpiry());
+        return dto;
+    }
     
     @Transactional
     public InventoryItemResponseDTO updateInventoryItem(Long itemId, UpdateInventoryItemRequestDTO dto) {
         InventoryItem item = inventoryItemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException(itemId));
+        long previousQuantity = quantityOf(item);
         
         if (dto.getDescription() != null) item.setDescription(dto.getDescription());
         if (dto.getQuantity() != null) {
@@ -371,7 +414,7 @@ public class InventoryServiceImpl implements InventoryService {
             item.setQuantity(convertedQuantity);
         }
         if (dto.getLocationId() != null) {
-            Location location = locationRepository.findById(dto.getLocationId()).orElse(null);
+            Location location = referenceDataService.findLocationById(dto.getLocationId()).orElse(null);
             item.setLocation(location);
         }
         if (dto.getExpiryDate() != null) item.setExpiryDate(dto.getExpiryDate());
@@ -380,7 +423,7 @@ public class InventoryServiceImpl implements InventoryService {
         InventoryItem saved = inventoryItemRepository.save(item);
         
         // Update total quantity
-        updateInventoryTotalQuantity(item.getInventory().getId());
+        inventoryTotalsService.applyDelta(item.getInventory().getId(), quantityOf(saved) - previousQuantity, 0);
         
         return inventoryItemMapper.toResponseDTO(saved);
     }
@@ -400,15 +443,18 @@ public class InventoryServiceImpl implements InventoryService {
                 ConsumptionEvent event = ConsumptionEvent.builder()
                     .canonicalName(item.getInventory().getName())
                     .quantityConsumed(BigDecimal.valueOf(item.getQuantity()))
+                    .unit(item.getInventory().getUnit())
                     .kitchen(kitchen)
                     .reason(reason)
                     .triggeredBy(user)
                     .build();
                     
                 consumptionEventRepository.save(event);
+                consumptionStatsService.record(kitchen.getId(), event.getCanonicalName(), event.getQuantityConsumed(),
+                        event.getUnit() != null ? event.getUnit().getId() : null, event.getCreatedAt());
             }
         } catch (Exception e) {
-            System.err.println("Failed to record consumption event: " + e.getMessage());
+            log.warn("Failed to record consumption event for item {}: {}", item.getId(), e.getMessage());
         }
     }
     
@@ -456,9 +502,9 @@ public class InventoryServiceImpl implements InventoryService {
             inventory.setName(NameNormalizationUtil.capitalizeDisplayName(name));
             inventory.setKitchenId(kitchenId);
             
-            Category category = categoryRepository.findById(categoryId)
+            Category category = referenceDataService.findCategoryById(categoryId)
                     .orElseThrow(() -> new ItemNotFoundException("Category not found: " + categoryId));
-            Unit unit = unitRepository.findById(unitId)
+            Unit unit = referenceDataService.findUnitById(unitId)
                     .orElseThrow(() -> new ItemNotFoundException("Unit not found: " + unitId));
             
             inventory.setCategory(category);
@@ -474,100 +520,12 @@ public class InventoryServiceImpl implements InventoryService {
         }
     }
     
-    private void updateInventoryTotalQuantity(Long inventoryId) {
-        Long totalQuantity = inventoryItemRepository.sumQuantityByInventoryId(inventoryId);
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new ItemNotFoundException(inventoryId));
-        inventory.setTotalQuantity(totalQuantity != null ? totalQuantity : 0L);
-        inventoryRepository.save(inventory);
+    private long quantityOf(InventoryItem item) {
+        return item.getQuantity() != null ? item.getQuantity() : 0L;
     }
 
-    // Add this method to your InventoryServiceImpl class
-    @Transactional
-    public void consumeItems(ConsumeItemsRequestDTO dto) {
-        System.out.println("🔥 [BACKEND] Starting to consume " + dto.getItems().size() + " items");
-        
-        for (ConsumeItemsRequestDTO.ConsumeItemDTO consumeItem : dto.getItems()) {
-            System.out.println("🔥 [BACKEND] Processing item ID: " + consumeItem.getId() + ", quantity: " + consumeItem.getConsumedQuantity());
-            
-            // First try to find as inventory item (individual item)
-            Optional<InventoryItem> inventoryItem = inventoryItemRepository.findById(consumeItem.getId());
-            
-            if (inventoryItem.isPresent()) {
-                System.out.println("✅ [BACKEND] Found individual inventory item: " + inventoryItem.get().getInventory().getName());
-                // Handle individual inventory item
-                InventoryItem item = inventoryItem.get();
-                Long consumedQuantityLong = consumeItem.getConsumedQuantity().longValue();
-                
-                if (item.getQuantity() >= consumedQuantityLong) {
-                    item.setQuantity(item.getQuantity() - consumedQuantityLong);
-                    
-                    if (item.getQuantity() == 0) {
-                        recordConsumptionEvent(item, ConsumptionEvent.EventReason.CONSUMED);
-                        Inventory inventory = item.getInventory();
-                        inventoryItemRepository.delete(item);
-                        
-                        inventory.setItemCount(inventory.getItemCount() - 1);
-                        if (inventory.getItemCount() <= 0) {
-                            inventoryRepository.delete(inventory);
-                        } else {
-                            updateInventoryTotalQuantity(inventory.getId());
-                            inventoryRepository.save(inventory);
-                        }
-                    } else {
-                        inventoryItemRepository.save(item);
-                        updateInventoryTotalQuantity(item.getInventory().getId());
-                    }
-                }
-            } else {
-                System.out.println("🔍 [BACKEND] Not found as individual item, trying as inventory group...");
-                // Try to find as inventory group and consume from its items
-                Optional<Inventory> inventory = inventoryRepository.findById(consumeItem.getId());
-                
-                if (inventory.isPresent()) {
-                    System.out.println("✅ [BACKEND] Found inventory group: " + inventory.get().getName());
-                    Inventory inv = inventory.get();
-                    Long consumedQuantityLong = consumeItem.getConsumedQuantity().longValue();
-                    
-                    // Get all items for this inventory group
-                    List<InventoryItem> items = inventoryItemRepository.findByInventoryIdOrderByExpiryDateAsc(inv.getId());
-                    System.out.println("📦 [BACKEND] Found " + items.size() + " items in group");
-                    
-                    Long remainingToConsume = consumedQuantityLong;
-                    
-                    for (InventoryItem item : items) {
-                        if (remainingToConsume <= 0) break;
-                        
-                        Long toConsumeFromThisItem = Math.min(remainingToConsume, item.getQuantity());
-                        System.out.println("🍽️ [BACKEND] Consuming " + toConsumeFromThisItem + " from item " + item.getId());
-                        
-                        item.setQuantity(item.getQuantity() - toConsumeFromThisItem);
-                        remainingToConsume -= toConsumeFromThisItem;
-                        
-                        if (item.getQuantity() == 0) {
-                            recordConsumptionEvent(item, ConsumptionEvent.EventReason.CONSUMED);
-                            inventoryItemRepository.delete(item);
-                            inv.setItemCount(inv.getItemCount() - 1);
-                        } else {
-                            inventoryItemRepository.save(item);
-                        }
-                    }
-                    
-                    // Update inventory totals
-                    if (inv.getItemCount() <= 0) {
-                        inventoryRepository.delete(inv);
-                    } else {
-                        updateInventoryTotalQuantity(inv.getId());
-                        inventoryRepository.save(inv);
-                    }
-                } else {
-                    System.err.println("❌ [BACKEND] Inventory item not found with ID: " + consumeItem.getId());
-                    throw new RuntimeException("Inventory item not found with ID: " + consumeItem.getId());
-                }
-            }
-        }
-        
-        System.out.println("✅ [BACKEND] Successfully consumed all items");
+    public ConsumeItemsResponseDTO consumeItems(ConsumeItemsRequestDTO dto) {
+        return batchConsumeService.consume(dto);
     }
 
 }
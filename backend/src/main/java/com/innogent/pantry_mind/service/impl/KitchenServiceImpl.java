@@ -1,5 +1,6 @@
 package com.innogent.pantry_mind.service.impl;
 
+import com.innogent.pantry_mind.config.JwtPrincipalCache;
 import com.innogent.pantry_mind.dto.request.KitchenRequestDTO;
 import com.innogent.pantry_mind.dto.response.KitchenResponseDTO;
 import com.innogent.pantry_mind.entity.Kitchen;
@@ -12,6 +13,7 @@ import com.innogent.pantry_mind.repository.UserRepository;
 import com.innogent.pantry_mind.repository.RoleRepository;
 import com.innogent.pantry_mind.repository.InventoryRepository;
 import com.innogent.pantry_mind.service.KitchenService;
+import com.innogent.pantry_mind.service.ReferenceDataService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -31,6 +33,8 @@ public class KitchenServiceImpl implements KitchenService {
     private final KitchenMapper kitchenMapper;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final ReferenceDataService referenceDataService;
+    private final JwtPrincipalCache principalCache;
     private final UserMapper userMapper;
     private final NotificationService notificationService;
     private final InventoryRepository inventoryRepository;
@@ -76,13 +80,15 @@ public class KitchenServiceImpl implements KitchenService {
         
         // Remove all users from kitchen
         List<User> users = userRepository.findByKitchen_Id(id);
-        Role userRole = roleRepository.findByName("USER")
+        Role userRole = referenceDataService.findRoleByName("USER")
                 .orElseGet(() -> roleRepository.save(Role.builder().name("USER").build()));
         
         for (User user : users) {
             user.setKitchen(null);
             user.setRole(userRole);
+            user.setTokensValidAfter(LocalDateTime.now());
             userRepository.save(user);
+            principalCache.revoke(user.getEmail());
         }
         
         kitchenRepository.deleteById(id);
@@ -100,12 +106,14 @@ public class KitchenServiceImpl implements KitchenService {
         Kitchen savedKitchen = kitchenRepository.save(kitchen);
         
         // Update user role to ADMIN and assign kitchen
-        Role adminRole = roleRepository.findByName("ADMIN")
+        Role adminRole = referenceDataService.findRoleByName("ADMIN")
                 .orElseGet(() -> roleRepository.save(Role.builder().name("ADMIN").build()));
         
         user.setRole(adminRole);
         user.setKitchen(savedKitchen);
+        user.setTokensValidAfter(LocalDateTime.now());
         User savedUser = userRepository.save(user);
+        principalCache.revoke(savedUser.getEmail());
         System.out.println("👑 ADMIN user saved: " + savedUser.getUsername() + ", Kitchen: " + (savedUser.getKitchen() != null ? savedUser.getKitchen().getId() : "null"));
         
         return kitchenMapper.toResponse(savedKitchen);
@@ -122,12 +130,14 @@ public class KitchenServiceImpl implements KitchenService {
                 .orElseThrow(() -> new ResourceNotFoundException("Kitchen not found with invitation code: " + invitationCode));
         
         // Update user role to MEMBER and assign kitchen
-        Role memberRole = roleRepository.findByName("MEMBER")
+        Role memberRole = referenceDataService.findRoleByName("MEMBER")
                 .orElseGet(() -> roleRepository.save(Role.builder().name("MEMBER").build()));
         
         user.setRole(memberRole);
         user.setKitchen(kitchen);
+        user.setTokensValidAfter(LocalDateTime.now());
         User savedUser = userRepository.save(user);
+        principalCache.revoke(savedUser.getEmail());
         System.out.println("👥 MEMBER user saved: " + savedUser.getUsername() + ", Kitchen: " + (savedUser.getKitchen() != null ? savedUser.getKitchen().getId() : "null"));
         
         // Send real-time notification to kitchen members
@@ -162,11 +172,14 @@ public class KitchenServiceImpl implements KitchenService {
         user.setKitchen(null);
         
         // Reset role to default USER role
-        Role userRole = roleRepository.findByName("USER")
+        Role userRole = referenceDataService.findRoleByName("USER")
                 .orElseGet(() -> roleRepository.save(Role.builder().name("USER").build()));
         user.setRole(userRole);
+        user.setTokensValidAfter(LocalDateTime.now());
         
         userRepository.save(user);
+        // Tokens issued while the user was a member carry the old kitchen and role claims
+        principalCache.revoke(user.getEmail());
         
         // Send real-time notification
         if (kitchenId != null) {
@@ -1,6 +1,8 @@
 package com.innogent.pantry_mind.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innogent.pantry_mind.config.PythonCallMetrics;
+import com.innogent.pantry_mind.config.PythonHttpClients;
 import com.innogent.pantry_mind.dto.request.AdvancedRecipeRequestDTO;
 import com.innogent.pantry_mind.dto.request.RecipeRequestDTO;
 import com.innogent.pantry_mind.dto.response.RecipeResponseDTO;
@@ -10,8 +12,8 @@ import com.innogent.pantry_mind.repository.InventoryRepository;
 import com.innogent.pantry_mind.service.RecipeService;
 import com.innogent.pantry_mind.service.UserPreferencesService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,13 +25,15 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RecipeServiceImpl implements RecipeService {
     
     private final InventoryRepository inventoryRepository;
-    private final RestTemplate restTemplate;
+    private final PythonHttpClients pythonHttpClients;
     private final UserPreferencesService userPreferencesService;
+    private final PythonCallMetrics pythonCallMetrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Override
@@ -39,84 +43,55 @@ public class RecipeServiceImpl implements RecipeService {
     
     @Override
     public RecipeResponseDTO generateRecipes(Long kitchenId, Integer servings, String category) {
-        System.out.println("🚀 [BACKEND] Recipe generation started for kitchenId: " + kitchenId + ", servings: " + servings + ", category: " + category);
+        log.debug("Recipe generation started for kitchen {}, servings {}, category {}", kitchenId, servings, category);
         
         List<Inventory> inventory = inventoryRepository.findByKitchenIdAndTotalQuantityGreaterThan(kitchenId, 0L);
-        System.out.println("📦 [BACKEND] Found " + inventory.size() + " inventory items");
         
         if (inventory.isEmpty()) {
-            System.out.println("⚠️ [BACKEND] No inventory found, returning empty recipes");
+            log.debug("No inventory found for kitchen {}, returning empty recipes", kitchenId);
             return createEmptyRecipes();
         }
         
-        System.out.println("📋 [BACKEND] DETAILED INVENTORY ITEMS BEING SENT TO AI:");
-        System.out.println("=" .repeat(60));
-        
         RecipeRequestDTO request = new RecipeRequestDTO();
         request.setItems(inventory.stream().map(this::mapToInventoryItemDTO).collect(Collectors.toList()));
         request.setServings(servings);
         
-        // Add category if provided
-        if (category != null && !category.trim().isEmpty()) {
-            System.out.println("🏷️ [BACKEND] Adding category filter: " + category);
-        }
-        
-        // Log each inventory item in detail
-        for (int i = 0; i < inventory.size(); i++) {
-            Inventory item = inventory.get(i);
-            System.out.println("📦 Item " + (i+1) + ":");
-            System.out.println("   Name: " + item.getName());
-            System.out.println("   Quantity: " + item.getTotalQuantity());
-            System.out.println("   Unit: " + (item.getUnit() != null ? item.getUnit().getName() : "pieces"));
-            System.out.println("   Category: " + (item.getCategory() != null ? item.getCategory().getName() : "No category"));
-            System.out.println("   Item Count: " + item.getItemCount());
-            System.out.println("   ---");
+        // Per-item detail is only rendered when explicitly asked for
+        if (log.isTraceEnabled()) {
+            for (RecipeRequestDTO.InventoryItemDTO item : request.getItems()) {
+                log.trace("Recipe input item {}: {} {}", item.getName(), item.getQuantity(), item.getUnit());
+            }
         }
         
-        System.out.println("=" .repeat(60));
-        System.out.println("📝 [BACKEND] SUMMARY - Inventory data being sent to AI:");
-        request.getItems().forEach(item -> 
-            System.out.println("  ✅ " + item.getName() + ": " + item.getQuantity() + " " + item.getUnit())
-        );
-        System.out.println("👥 [BACKEND] Target servings: " + servings + " people");
-        System.out.println("=" .repeat(60));
-        
         try {
             String url = "http://localhost:8001/ai/recipes";
             if (category != null && !category.trim().isEmpty()) {
                 url += "?category=" + category.trim();
-                System.out.println("🎯 [BACKEND] Calling AI service with category at: " + url);
-            } else {
-                System.out.println("🤖 [BACKEND] Calling AI service at: " + url);
             }
-            System.out.println("📤 [BACKEND] Request payload:");
-            System.out.println("   Items count: " + request.getItems().size());
-            System.out.println("   Servings: " + request.getServings());
-            System.out.println("   Category: " + (category != null ? category : "None"));
+            log.debug("Calling AI recipe service at {} with {} items for {} servings", url, request.getItems().size(), servings);
             
-            RecipeResponseDTO response = restTemplate.postForObject(url, request, RecipeResponseDTO.class);
+            String recipeUrl = url;
+            RecipeResponseDTO response = pythonCallMetrics.record("recipes", "recipes", () ->
+                pythonHttpClients.getRecipe().postForObject(recipeUrl, request, RecipeResponseDTO.class));
             
             if (response != null && response.getRecipes() != null) {
-                System.out.println("✅ [BACKEND] AI service responded successfully!" + (category != null ? " for category: " + category : ""));
-                System.out.println("📊 [BACKEND] Generated " + response.getRecipes().size() + " recipes:");
-                
-                for (int i = 0; i < response.getRecipes().size(); i++) {
-                    RecipeResponseDTO.Recipe recipe = response.getRecipes().get(i);
-                    System.out.println("🍳 Recipe " + (i+1) + ": " + recipe.getName());
-                    System.out.println("   Servings: " + recipe.getServings());
-                    System.out.println("   Cooking time: " + recipe.getCookingTime());
-                    System.out.println("   Ingredients count: " + (recipe.getIngredients() != null ? recipe.getIngredients().size() : 0));
-                    System.out.println("   Missing items count: " + (recipe.getMissingItems() != null ? recipe.getMissingItems().size() : 0));
+                log.debug("AI service generated {} recipes for kitchen {}", response.getRecipes().size(), kitchenId);
+                if (log.isTraceEnabled()) {
+                    for (RecipeResponseDTO.Recipe recipe : response.getRecipes()) {
+                        log.trace("Recipe {}: servings {}, cooking time {}, {} ingredients, {} missing items",
+                                recipe.getName(), recipe.getServings(), recipe.getCookingTime(),
+                                recipe.getIngredients() != null ? recipe.getIngredients().size() : 0,
+                                recipe.getMissingItems() != null ? recipe.getMissingItems().size() : 0);
+                    }
                 }
             } else {
-                System.out.println("⚠️ [BACKEND] AI service returned null or empty response");
+                log.warn("AI recipe service returned an empty response for kitchen {}", kitchenId);
             }
             
             return response;
         } catch (Exception e) {
-            System.err.println("❌ [BACKEND] AI service call failed: " + e.getMessage());
-            System.err.println("🔄 [BACKEND] Falling back to default recipes" + (category != null ? " for category: " + category : ""));
-            e.printStackTrace();
+            log.warn("AI recipe service call failed, falling back to default recipes (category {}): {}", category, e.getMessage());
+            log.debug("AI recipe service failure", e);
             return createFallbackRecipes(servings);
         }
     }
@@ -127,16 +102,10 @@ public class RecipeServiceImpl implements RecipeService {
         dto.setQuantity(inventory.getTotalQuantity());
         dto.setUnit(inventory.getUnit() != null ? inventory.getUnit().getName() : "pieces");
         
-        // Log the mapping
-        System.out.println("🔄 [BACKEND] Mapping: " + inventory.getName() + 
-                          " (" + inventory.getTotalQuantity() + " " + 
-                          (inventory.getUnit() != null ? inventory.getUnit().getName() : "pieces") + ")");
-        
         return dto;
     }
     
     private RecipeResponseDTO createEmptyRecipes() {
-        System.out.println("📝 [BACKEND] Creating empty recipe response");
         RecipeResponseDTO response = new RecipeResponseDTO();
         RecipeResponseDTO.Recipe recipe = new RecipeResponseDTO.Recipe();
         recipe.setName("No Recipe Available");
@@ -151,7 +120,6 @@ public class RecipeServiceImpl implements RecipeService {
     }
     
     private RecipeResponseDTO createFallbackRecipes(Integer servings) {
-        System.out.println("🔄 [BACKEND] Creating fallback recipes for " + servings + " servings");
         RecipeResponseDTO response = new RecipeResponseDTO();
         
         // Create 1 fallback recipe
@@ -165,45 +133,43 @@ public class RecipeServiceImpl implements RecipeService {
         
         response.setRecipes(List.of(recipe1));
         
-        System.out.println("✅ [BACKEND] Created 1 fallback recipe");
         return response;
     }
     
     @Override
     public RecipeResponseDTO generateAdvancedRecipes(Long kitchenId, AdvancedRecipeRequestDTO request) {
-        System.out.println("🚀 [BACKEND] Advanced recipe generation started for kitchenId: " + kitchenId);
-        System.out.println("📋 [BACKEND] Recipe type: " + request.getRecipeType());
+        log.debug("Advanced recipe generation started for kitchen {}, type {}", kitchenId, request.getRecipeType());
         
         try {
             // Call specific endpoint based on recipe type
-            String url;
+            String operation;
             if ("QUICK".equals(request.getRecipeType())) {
-                url = "http://localhost:8001/ai/quick-recipes";
+                operation = "quick-recipes";
             } else if ("EXPIRY_BASED".equals(request.getRecipeType())) {
-                url = "http://localhost:8001/ai/expiry-recipes";
+                operation = "expiry-recipes";
             } else {
-                url = "http://localhost:8001/ai/advanced-recipes";
+                operation = "advanced-recipes";
             }
+            String url = "http://localhost:8001/ai/" + operation;
             
-            System.out.println("🎯 [BACKEND] Calling Python service at: " + url);
-            System.out.println("📎 [BACKEND] Request data: recipeType=" + request.getRecipeType() + ", maxTime=" + request.getMaxCookingTime());
-            RecipeResponseDTO response = restTemplate.postForObject(url, request, RecipeResponseDTO.class);
+            log.debug("Calling Python service at {} (recipeType={}, maxTime={})", url, request.getRecipeType(), request.getMaxCookingTime());
+            RecipeResponseDTO response = pythonCallMetrics.record("recipes", operation, () ->
+                pythonHttpClients.getRecipe().postForObject(url, request, RecipeResponseDTO.class));
             
             if (response != null && response.getRecipes() != null) {
-                System.out.println("✅ [BACKEND] Advanced recipes generated successfully!");
-                System.out.println("📊 [BACKEND] Generated " + response.getRecipes().size() + " recipes");
+                log.debug("Generated {} advanced recipes", response.getRecipes().size());
             }
             
             return response;
         } catch (Exception e) {
-            System.err.println("❌ [BACKEND] Advanced recipe generation failed: " + e.getMessage());
+            log.warn("Advanced recipe generation failed: {}", e.getMessage());
             return createFallbackRecipes(request.getServings());
         }
     }
     
     @Override
     public RecipeResponseDTO generateExpiryBasedRecipes(Long kitchenId, Integer servings, Long userId) {
-        System.out.println("⏰ [BACKEND] Expiry-based recipe generation for kitchenId: " + kitchenId);
+        log.debug("Expiry-based recipe generation for kitchen {}", kitchenId);
         
         // Get expiring items (within 3 days)
         Calendar cal = Calendar.getInstance();
@@ -213,7 +179,7 @@ public class RecipeServiceImpl implements RecipeService {
         List<Inventory> expiringInventory = inventoryRepository.findExpiringInventoryByKitchenId(kitchenId, threeDaysFromNow);
         List<Inventory> allInventory = inventoryRepository.findByKitchenIdAndTotalQuantityGreaterThan(kitchenId, 0L);
         
-        System.out.println("⚠️ [BACKEND] Found " + expiringInventory.size() + " expiring items");
+        log.debug("Found {} expiring items", expiringInventory.size());
         
         AdvancedRecipeRequestDTO request = new AdvancedRecipeRequestDTO();
         request.setItems(allInventory.stream().map(this::mapToAdvancedInventoryItemDTO).collect(Collectors.toList()));
@@ -231,7 +197,7 @@ public class RecipeServiceImpl implements RecipeService {
                 request.setDietaryRestrictions(preferences.getDietaryRestrictions());
                 request.setCuisinePreferences(preferences.getCuisinePreferences());
             } catch (Exception e) {
-                System.out.println("⚠️ [BACKEND] Could not load user preferences: " + e.getMessage());
+                log.warn("Could not load user preferences for user {}: {}", userId, e.getMessage());
             }
         }
         
@@ -240,8 +206,7 @@ public class RecipeServiceImpl implements RecipeService {
     
     @Override
     public RecipeResponseDTO generateQuickRecipes(Long kitchenId, Integer maxTime, Integer servings, Long userId) {
-        System.out.println("⚡ [BACKEND] Quick recipe generation for kitchenId: " + kitchenId + ", maxTime: " + maxTime);
-        System.out.println("🔍 [BACKEND] generateQuickRecipes method called - this should be QUICK type");
+        log.debug("Quick recipe generation for kitchen {}, maxTime {}", kitchenId, maxTime);
         
         List<Inventory> inventory = inventoryRepository.findByKitchenIdAndTotalQuantityGreaterThan(kitchenId, 0L);
         
@@ -252,10 +217,6 @@ public class RecipeServiceImpl implements RecipeService {
         request.setMaxCookingTime(maxTime);
         request.setUserId(userId);
         
-        System.out.println("📋 [BACKEND] Setting recipe type to: QUICK");
-        System.out.println("⏱️ [BACKEND] Setting max cooking time to: " + maxTime);
-        System.out.println("🍽️ [BACKEND] Setting servings to: " + servings);
-        
         // Add user preferences if available
         if (userId != null) {
             try {
@@ -263,7 +224,7 @@ public class RecipeServiceImpl implements RecipeService {
                 request.setSkillLevel(preferences.getSkillLevel());
                 request.setDietaryRestrictions(preferences.getDietaryRestrictions());
             } catch (Exception e) {
-                System.out.println("⚠️ [BACKEND] Could not load user preferences: " + e.getMessage());
+                log.warn("Could not load user preferences for user {}: {}", userId, e.getMessage());
             }
         }
         
@@ -274,9 +235,7 @@ public class RecipeServiceImpl implements RecipeService {
     
     @Override
     public RecipeResponseDTO generateRecipeByName(Long kitchenId, String recipeName, Integer servings) {
-        System.out.println("🍳 [BACKEND] Recipe by name generation for: " + recipeName);
-        System.out.println("👥 [BACKEND] Servings requested: " + servings);
-        System.out.println("🏠 [BACKEND] Kitchen ID: " + kitchenId);
+        log.debug("Recipe by name generation for {} in kitchen {}, servings {}", recipeName, kitchenId, servings);
         
         List<Inventory> inventory = inventoryRepository.findByKitchenIdAndTotalQuantityGreaterThan(kitchenId, 0L);
         
@@ -289,24 +248,19 @@ public class RecipeServiceImpl implements RecipeService {
         request.put("recipeName", recipeName);
         request.put("servings", servings);
         request.put("availableItems", inventory.stream().map(this::mapToInventoryItemDTO).collect(Collectors.toList()));
-        
-        System.out.println("🎯 [BACKEND] Requesting specific recipe: " + recipeName);
-        System.out.println("📦 [BACKEND] Available items: " + inventory.size());
-        System.out.println("📝 [BACKEND] Request payload being sent to Python:");
-        System.out.println("   Recipe Name: " + request.get("recipeName"));
-        System.out.println("   Servings: " + request.get("servings"));
-        System.out.println("   Available Items Count: " + ((List<?>) request.get("availableItems")).size());
+        log.debug("Requesting recipe {} with {} available items", recipeName, inventory.size());
         
         try {
-            RecipeResponseDTO response = restTemplate.postForObject("http://localhost:8001/ai/recipe-by-name", request, RecipeResponseDTO.class);
+            RecipeResponseDTO response = pythonCallMetrics.record("recipes", "recipe-by-name", () ->
+                pythonHttpClients.getRecipe().postForObject("http://localhost:8001/ai/recipe-by-name", request, RecipeResponseDTO.class));
             
             if (response != null && response.getRecipes() != null) {
-                System.out.println("✅ [BACKEND] Recipe generated for: " + recipeName);
+                log.debug("Recipe generated for {}", recipeName);
             }
             
             return response;
         } catch (Exception e) {
-            System.err.println("❌ [BACKEND] Recipe by name failed: " + e.getMessage());
+            log.warn("Recipe by name failed for {}: {}", recipeName, e.getMessage());
             return createFallbackRecipeByName(recipeName, servings);
         }
     }
@@ -1,19 +1,40 @@
 package com.innogent.pantry_mind.service.impl;
 
-import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.dto.response.ShoppingListItemResponseDTO;
 import com.innogent.pantry_mind.entity.ShoppingList;
 import com.innogent.pantry_mind.entity.ShoppingListItem;
+import com.innogent.pantry_mind.entity.SuggestionRunCheckpoint.Status;
 import com.innogent.pantry_mind.repository.KitchenRepository;
 import com.innogent.pantry_mind.repository.ShoppingListRepository;
 import com.innogent.pantry_mind.repository.ShoppingListItemRepository;
+import com.innogent.pantry_mind.repository.SuggestionRunCheckpointRepository;
 import com.innogent.pantry_mind.service.SuggestionService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+// Daily suggestions as a partitioned job: kitchens run in parallel on suggestionExecutor, each in its own short
+// transaction, and suggestion_run_checkpoints records which kitchens are done so a restart picks up the rest.
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ScheduledSuggestionService {
@@ -22,57 +43,108 @@ public class ScheduledSuggestionService {
     private final KitchenRepository kitchenRepository;
     private final ShoppingListRepository shoppingListRepository;
     private final ShoppingListItemRepository shoppingListItemRepository;
+    private final SuggestionRunCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    @Qualifier("suggestionExecutor")
+    private final Executor suggestionExecutor;
+
+    @Value("${suggestions.daily.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${suggestions.daily.checkpoint-retention-days:14}")
+    private int checkpointRetentionDays;
+
+    @Value("${suggestions.daily.resume-on-startup:true}")
+    private boolean resumeOnStartup;
 
     @Scheduled(cron = "0 0 8 * * *") // Daily at 8 AM
-    @Transactional
+    @Timed(value = "pantry.scheduler.run", extraTags = {"job", "daily-suggestions"}, histogram = true)
     public void generateDailySuggestions() {
-        List<Kitchen> kitchens = kitchenRepository.findAll();
-        
-        for (Kitchen kitchen : kitchens) {
-            try {
-                generateSuggestionsForKitchen(kitchen);
-            } catch (Exception e) {
-                System.err.println("Failed to generate suggestions for kitchen " + kitchen.getId() + ": " + e.getMessage());
+        runFor(LocalDate.now());
+    }
+
+    // A run left unfinished by a shutdown or crash continues with its remaining kitchens
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        LocalDate today = LocalDate.now();
+        if (resumeOnStartup && checkpointRepository.existsByRunDateAndStatus(today, Status.PENDING)) {
+            log.info("Resuming daily suggestion run for {}", today);
+            processPending(today);
+        }
+    }
+
+    public int runFor(LocalDate runDate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkpointRepository.deleteByRunDateBefore(runDate.minusDays(checkpointRetentionDays));
+            checkpointRepository.insertPending(runDate, LocalDateTime.now());
+        });
+        return processPending(runDate);
+    }
+
+    private int processPending(LocalDate runDate) {
+        int processed = 0;
+        long afterId = 0L;
+        List<Long> chunk;
+        do {
+            chunk = checkpointRepository.findKitchenIdsByStatus(runDate, Status.PENDING, afterId, PageRequest.of(0, chunkSize));
+            List<CompletableFuture<Void>> runs = chunk.stream()
+                    .map(kitchenId -> CompletableFuture.runAsync(() -> processKitchen(runDate, kitchenId), suggestionExecutor))
+                    .toList();
+            CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+            processed += chunk.size();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1);
             }
+        } while (chunk.size() == chunkSize);
+        log.info("Daily suggestions for {}: {} kitchens processed, {} failed", runDate, processed,
+                checkpointRepository.countByRunDateAndStatus(runDate, Status.FAILED));
+        return processed;
+    }
+
+    private void processKitchen(LocalDate runDate, Long kitchenId) {
+        try {
+            // Suggestions may call the AI service, so they are generated before any transaction is opened
+            List<ShoppingListItemResponseDTO> suggestions = suggestionService.generateRuleSuggestions(kitchenId);
+            transactionTemplate.executeWithoutResult(status -> {
+                int added = addToDailyList(kitchenId, suggestions);
+                checkpointRepository.markFinished(runDate, kitchenId, Status.DONE, added, null, LocalDateTime.now());
+            });
+        } catch (Exception e) {
+            log.warn("Failed to generate suggestions for kitchen {}", kitchenId, e);
+            String error = e.getMessage() != null && e.getMessage().length() > 500 ? e.getMessage().substring(0, 500) : e.getMessage();
+            transactionTemplate.executeWithoutResult(status ->
+                    checkpointRepository.markFinished(runDate, kitchenId, Status.FAILED, 0, error, LocalDateTime.now()));
         }
     }
 
-    private void generateSuggestionsForKitchen(Kitchen kitchen) {
+    private int addToDailyList(Long kitchenId, List<ShoppingListItemResponseDTO> suggestions) {
         // Get or create DAILY shopping list
         ShoppingList dailyList = shoppingListRepository
-            .findByKitchenIdAndListType(kitchen.getId(), ShoppingList.ListType.DAILY)
-            .orElseGet(() -> {
-                ShoppingList list = ShoppingList.builder()
+            .findByKitchenIdAndListType(kitchenId, ShoppingList.ListType.DAILY)
+            .orElseGet(() -> shoppingListRepository.save(ShoppingList.builder()
                     .listType(ShoppingList.ListType.DAILY)
-                    .kitchen(kitchen)
+                    .kitchen(kitchenRepository.getReferenceById(kitchenId))
                     .status(ShoppingList.ListStatus.ACTIVE)
-                    .build();
-                return shoppingListRepository.save(list);
-            });
-        
-        // Generate and add suggestions
-        var suggestions = suggestionService.generateRuleSuggestions(kitchen.getId());
-        
-        for (var suggestion : suggestions) {
-            // Check if item already exists in list
-            boolean exists = shoppingListItemRepository.findByShoppingListId(dailyList.getId())
-                .stream()
-                .anyMatch(item -> item.getCanonicalName().equals(suggestion.getCanonicalName()) 
-                    && item.getStatus() == ShoppingListItem.ItemStatus.PENDING);
-            
-            if (!exists) {
-                ShoppingListItem item = ShoppingListItem.builder()
-                    .shoppingList(dailyList)
-                    .canonicalName(suggestion.getCanonicalName())
-                    .suggestedQuantity(suggestion.getSuggestedQuantity())
-                    .suggestedBy(ShoppingListItem.SuggestionSource.RULE)
-                    .suggestionReason(suggestion.getSuggestionReason())
-                    .confidenceScore(suggestion.getConfidenceScore())
-                    .status(ShoppingListItem.ItemStatus.PENDING)
-                    .build();
-                    
-                shoppingListItemRepository.save(item);
+                    .build()));
+
+        // Pending names are loaded once; the set also drops duplicate suggestions within this run
+        Set<String> pending = new HashSet<>(shoppingListItemRepository.findCanonicalNamesByShoppingListIdAndStatus(
+                dailyList.getId(), ShoppingListItem.ItemStatus.PENDING));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (ShoppingListItemResponseDTO suggestion : suggestions) {
+            if (suggestion.getCanonicalName() != null && pending.add(suggestion.getCanonicalName())) {
+                rows.add(new Object[]{dailyList.getId(), suggestion.getCanonicalName(), suggestion.getSuggestedQuantity(),
+                        ShoppingListItem.SuggestionSource.RULE.name(), suggestion.getSuggestionReason(),
+                        suggestion.getConfidenceScore(), ShoppingListItem.ItemStatus.PENDING.name(), now, now});
             }
         }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO shopping_list_items (shopping_list_id, canonical_name, suggested_quantity, " +
+                    "suggested_by, suggestion_reason, confidence_score, status, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+        return rows.size();
     }
 }
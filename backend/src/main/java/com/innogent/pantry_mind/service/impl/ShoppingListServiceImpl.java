@@ -1,5 +1,8 @@
 package com.innogent.pantry_mind.service.impl;
 
+import com.innogent.pantry_mind.config.PythonBackendCircuitBreaker;
+import com.innogent.pantry_mind.config.PythonCallMetrics;
+import com.innogent.pantry_mind.config.PythonHttpClients;
 import com.innogent.pantry_mind.dto.request.CreateShoppingListRequestDTO;
 import com.innogent.pantry_mind.dto.request.AddShoppingListItemRequestDTO;
 import com.innogent.pantry_mind.dto.request.AddToInventoryRequest;
@@ -10,9 +13,13 @@ import com.innogent.pantry_mind.dto.response.ShoppingSuggestionDTO;
 import com.innogent.pantry_mind.entity.*;
 import com.innogent.pantry_mind.mapper.ShoppingListMapper;
 import com.innogent.pantry_mind.repository.*;
+import com.innogent.pantry_mind.service.ConsumptionHistoryService;
+import com.innogent.pantry_mind.service.ReferenceDataService;
 import com.innogent.pantry_mind.service.ShoppingListService;
 import com.innogent.pantry_mind.util.NameNormalizationUtil;
+import com.innogent.pantry_mind.util.SuggestionMerger;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -21,7 +28,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -29,22 +35,25 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ShoppingListServiceImpl implements ShoppingListService {
 
+    private static final BigDecimal LOW_STOCK_CONFIDENCE = BigDecimal.valueOf(0.7);
+
     private final ShoppingListRepository shoppingListRepository;
     private final ShoppingListItemRepository shoppingListItemRepository;
     private final KitchenRepository kitchenRepository;
     private final UserRepository userRepository;
-    private final UnitRepository unitRepository;
+    private final ReferenceDataService referenceDataService;
     private final InventoryRepository inventoryRepository;
     private final InventoryItemRepository inventoryItemRepository;
-    private final CategoryRepository categoryRepository;
-    private final LocationRepository locationRepository;
-    private final ConsumptionEventRepository consumptionEventRepository;
+    private final ConsumptionHistoryService consumptionHistoryService;
     private final ShoppingListMapper shoppingListMapper;
-    private final RestTemplate restTemplate;
+    private final PythonHttpClients pythonHttpClients;
+    private final PythonCallMetrics pythonCallMetrics;
+    private final PythonBackendCircuitBreaker circuitBreaker;
 
     @Value("${python.backend.url:http://localhost:8000}")
     private String pythonBackendUrl;
@@ -123,7 +132,7 @@ public class ShoppingListServiceImpl implements ShoppingListService {
         ShoppingList shoppingList = shoppingListRepository.findById(dto.getShoppingListId())
             .orElseThrow(() -> new RuntimeException("Shopping list not found"));
         
-        Unit unit = unitRepository.findById(dto.getUnitId())
+        Unit unit = referenceDataService.findUnitById(dto.getUnitId())
             .orElseThrow(() -> new RuntimeException("Unit not found"));
         
         User user = userRepository.findById(userId)
@@ -161,7 +170,7 @@ public class ShoppingListServiceImpl implements ShoppingListService {
 
         item.setSuggestedQuantity(dto.getQuantity());
         if (dto.getUnitId() != null) {
-            Unit unit = unitRepository.findById(dto.getUnitId())
+            Unit unit = referenceDataService.findUnitById(dto.getUnitId())
                 .orElseThrow(() -> new RuntimeException("Unit not found"));
             item.setUnit(unit);
         }
@@ -207,6 +216,11 @@ public class ShoppingListServiceImpl implements ShoppingListService {
             Set<String> itemsToExclude = new HashSet<>(existingItems);
             itemsToExclude.addAll(recentlyPurchased);
 
+            // While the circuit is open skip the consumption query and go straight to the fallback
+            if (!circuitBreaker.isAvailable()) {
+                return getLowStockSuggestions(kitchenId, itemsToExclude);
+            }
+
             try {
                 // Get consumption data for AI analysis
                 Map<String, Object> consumptionData = getConsumptionDataForAI(kitchenId);
@@ -217,37 +231,36 @@ public class ShoppingListServiceImpl implements ShoppingListService {
                 request.put("existingItems", new ArrayList<>(itemsToExclude));
                 request.put("consumptionData", consumptionData);
 
-                System.out.println("Sending AI request for " + shoppingList.getListType().name() + " list with " + 
-                    ((List<?>) consumptionData.get("consumptionEvents")).size() + " consumption events");
+                if (log.isDebugEnabled()) {
+                    log.debug("Sending AI request for {} list with {} consumption events", shoppingList.getListType(),
+                            ((List<?>) consumptionData.get("consumptionEvents")).size());
+                }
 
                 HttpHeaders headers = new HttpHeaders();
                 headers.setContentType(MediaType.APPLICATION_JSON);
                 HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
 
-                System.out.println("DEBUG: About to call Python API at: " + pythonBackendUrl + "/api/ai-shopping/suggestions");
-                System.out.println("DEBUG: RestTemplate instance: " + restTemplate);
-
                 @SuppressWarnings("unchecked")
-                Map<String, Object> response = restTemplate.postForObject(
-                    pythonBackendUrl + "/api/ai-shopping/suggestions", entity, Map.class);
+                Map<String, Object> response = circuitBreaker.call(() -> pythonCallMetrics.record("suggestions", "shopping-suggestions", () ->
+                    pythonHttpClients.getSuggestions().postForObject(pythonBackendUrl + "/api/ai-shopping/suggestions", entity, Map.class)));
 
-                System.out.println("DEBUG: Response received: " + response);
+                log.trace("AI suggestions response: {}", response);
 
                 if (response != null && response.containsKey("suggestions")) {
                     @SuppressWarnings("unchecked")
                     List<Map<String, Object>> suggestions = (List<Map<String, Object>>) response.get("suggestions");
-                    System.out.println("Received " + suggestions.size() + " AI suggestions");
+                    log.debug("Received {} AI suggestions", suggestions.size());
                     return convertToSuggestionDTOs(suggestions);
                 }
             } catch (Exception e) {
-                System.err.println("Python backend error: " + e.getMessage());
+                log.warn("Python backend error, falling back to low stock suggestions: {}", e.getMessage());
                 // Fallback to low stock suggestions on error
             }
 
-            return getLowStockSuggestions(kitchenId, new ArrayList<>(itemsToExclude));
+            return getLowStockSuggestions(kitchenId, itemsToExclude);
             
         } catch (Exception e) {
-            System.err.println("AI suggestions error: " + e.getMessage());
+            log.error("AI suggestions error: {}", e.getMessage());
             return Collections.emptyList();
         }
     }
@@ -255,7 +268,7 @@ public class ShoppingListServiceImpl implements ShoppingListService {
     private List<ShoppingSuggestionDTO> convertToSuggestionDTOs(List<Map<String, Object>> suggestions) {
         return suggestions.stream().map(suggestion -> {
             String unitName = (String) suggestion.get("unit");
-            Unit unit = unitRepository.findByName(unitName).orElse(null);
+            Unit unit = referenceDataService.findUnitByName(unitName).orElse(null);
 
             Object quantityObj = suggestion.get("quantity");
             BigDecimal quantity = quantityObj != null ? 
@@ -272,12 +285,12 @@ public class ShoppingListServiceImpl implements ShoppingListService {
         }).collect(Collectors.toList());
     }
 
-    private List<ShoppingSuggestionDTO> getLowStockSuggestions(Long kitchenId, List<String> existingItems) {
-        List<Inventory> lowStockItems = inventoryRepository.findLowStockItems(kitchenId);
+    private List<ShoppingSuggestionDTO> getLowStockSuggestions(Long kitchenId, Set<String> excludedItems) {
+        List<Inventory> lowStockItems = SuggestionMerger.merge(List.of(inventoryRepository.findLowStockItems(kitchenId)),
+            inventory -> NameNormalizationUtil.normalizeName(inventory.getName()), inventory -> LOW_STOCK_CONFIDENCE,
+            excludedItems, 5);
 
         return lowStockItems.stream()
-            .filter(inventory -> !existingItems.contains(NameNormalizationUtil.normalizeName(inventory.getName())))
-            .limit(5)
             .map(inventory -> {
                 BigDecimal suggestedQuantity = calculateSuggestedQuantityWithOriginalUnit(inventory);
                 
@@ -287,7 +300,7 @@ public class ShoppingListServiceImpl implements ShoppingListService {
                     .unitName(inventory.getUnit() != null ? inventory.getUnit().getName() : "pieces")
                     .unitId(inventory.getUnit() != null ? inventory.getUnit().getId() : null)
                     .reason("Low stock - needs restocking")
-                    .confidenceScore(BigDecimal.valueOf(0.7))
+                    .confidenceScore(LOW_STOCK_CONFIDENCE)
                     .build();
             })
             .collect(Collectors.toList());
@@ -303,25 +316,9 @@ public class ShoppingListServiceImpl implements ShoppingListService {
 
     @Override
     public Map<String, Object> getConsumptionDataForAI(Long kitchenId) {
-        // Fetch actual consumption events from the last 90 days
+        // Consumption from the last 90 days in the format expected by Python AI; older days come from rollups
         LocalDateTime analysisStartDate = LocalDateTime.now().minusDays(90);
-        List<ConsumptionEvent> consumptionEvents = consumptionEventRepository
-            .findByKitchenIdAndCreatedAtAfter(kitchenId, analysisStartDate);
-        
-        // Convert consumption events to the format expected by Python AI
-        List<Map<String, Object>> consumptionData = consumptionEvents.stream()
-            .map(event -> {
-                Map<String, Object> eventMap = new HashMap<>();
-                eventMap.put("itemName", event.getCanonicalName());
-                eventMap.put("quantity", event.getQuantityConsumed());
-                eventMap.put("consumedAt", event.getCreatedAt().toString());
-                eventMap.put("reason", event.getReason().toString());
-                if (event.getUnit() != null) {
-                    eventMap.put("unit", event.getUnit().getName());
-                }
-                return eventMap;
-            })
-            .collect(Collectors.toList());
+        List<Map<String, Object>> consumptionData = consumptionHistoryService.getActivityMapsSince(kitchenId, analysisStartDate);
         
         // Fetch current inventory
         List<Inventory> inventory = inventoryRepository.findByKitchenId(kitchenId);
@@ -342,8 +339,8 @@ public class ShoppingListServiceImpl implements ShoppingListService {
         result.put("kitchenId", kitchenId);
         result.put("analysisStartDate", analysisStartDate.toString());
         
-        System.out.println("Fetched " + consumptionData.size() + " consumption events and " + 
-            inventoryData.size() + " inventory items for AI analysis");
+        log.debug("Fetched {} consumption events and {} inventory items for AI analysis",
+            consumptionData.size(), inventoryData.size());
         return result;
     }
 
@@ -367,7 +364,7 @@ public class ShoppingListServiceImpl implements ShoppingListService {
             String canonicalName = NameNormalizationUtil.normalizeName(suggestion.getItemName());
 
             Unit unit = suggestion.getUnitId() != null ? 
-                unitRepository.findById(suggestion.getUnitId()).orElse(null) : null;
+                referenceDataService.findUnitById(suggestion.getUnitId()).orElse(null) : null;
 
             return ShoppingListItem.builder()
                 .shoppingList(shoppingList)
@@ -391,7 +388,7 @@ public class ShoppingListServiceImpl implements ShoppingListService {
 
     @Override
     public Map<String, Object> addAllLowStockItems(Long listId, Long kitchenId, Long userId) {
-        List<ShoppingSuggestionDTO> suggestions = getLowStockSuggestions(kitchenId, Collections.emptyList());
+        List<ShoppingSuggestionDTO> suggestions = getLowStockSuggestions(kitchenId, Collections.emptySet());
         List<ShoppingListItemResponseDTO> added = addSuggestionsToList(listId, suggestions, userId);
         
         Map<String, Object> result = new HashMap<>();
@@ -501,8 +498,8 @@ public class ShoppingListServiceImpl implements ShoppingListService {
                 .name(displayName)
                 .normalizedName(NameNormalizationUtil.normalizeName(item.getCanonicalName()))
                 .kitchenId(list.getKitchen().getId())
-                .unit(unitRepository.findById(request.getUnitId()).orElse(null))
-                .category(categoryRepository.findById(request.getCategoryId()).orElse(null))
+                .unit(referenceDataService.findUnitById(request.getUnitId()).orElse(null))
+                .category(referenceDataService.findCategoryById(request.getCategoryId()).orElse(null))
                 .totalQuantity(request.getQuantity().longValue())
                 .itemCount(1)
                 .minStock(5L)
@@ -522,7 +519,7 @@ public class ShoppingListServiceImpl implements ShoppingListService {
             .price(request.getPrice())
             .description(request.getDescription())
             .location(request.getLocationId() != null ? 
-                locationRepository.findById(request.getLocationId()).orElse(null) : null)
+                referenceDataService.findLocationById(request.getLocationId()).orElse(null) : null)
             .createdBy(currentUser.getId())
             .build();
         
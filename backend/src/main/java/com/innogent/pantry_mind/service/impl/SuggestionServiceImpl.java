@@ -4,8 +4,11 @@ import com.innogent.pantry_mind.dto.response.ShoppingListItemResponseDTO;
 import com.innogent.pantry_mind.entity.*;
 import com.innogent.pantry_mind.repository.*;
 import com.innogent.pantry_mind.service.AIService;
+import com.innogent.pantry_mind.service.ConsumptionStatsService;
+import com.innogent.pantry_mind.service.SuggestionRuleEngine;
 import com.innogent.pantry_mind.service.SuggestionService;
 import com.innogent.pantry_mind.util.NameNormalizationUtil;
+import com.innogent.pantry_mind.util.SuggestionMerger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +17,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 @Service
@@ -27,13 +31,15 @@ public class SuggestionServiceImpl implements SuggestionService {
     private final UserRepository userRepository;
     private final UnitRepository unitRepository;
     private final AIService aiService;
+    private final SuggestionRuleEngine suggestionRuleEngine;
+    private final ConsumptionStatsService consumptionStatsService;
 
     @Override
     public List<ShoppingListItemResponseDTO> generateRuleSuggestions(Long kitchenId) {
         List<ShoppingListItemResponseDTO> suggestions = new ArrayList<>();
         
         // Get rule-based suggestions
-        List<ShoppingListItemResponseDTO> ruleSuggestions = generateBasicRuleSuggestions(kitchenId);
+        List<ShoppingListItemResponseDTO> ruleSuggestions = suggestionRuleEngine.evaluate(kitchenId);
         
         // Get AI suggestions if available
         List<ShoppingListItemResponseDTO> aiSuggestions = new ArrayList<>();
@@ -47,44 +53,13 @@ public class SuggestionServiceImpl implements SuggestionService {
         return suggestions;
     }
 
-    private List<ShoppingListItemResponseDTO> generateBasicRuleSuggestions(Long kitchenId) {
-        List<ShoppingListItemResponseDTO> suggestions = new ArrayList<>();
-        List<Inventory> inventoryItems = inventoryRepository.findByKitchenId(kitchenId);
-        
-        for (Inventory inventory : inventoryItems) {
-            SuggestionRule rule = suggestionRuleRepository
-                .findByCanonicalNameAndKitchenId(inventory.getName(), kitchenId)
-                .orElse(createDefaultRule(inventory));
-            
-            if (isItemLowStock(inventory, rule)) {
-                ShoppingListItemResponseDTO suggestion = createRuleSuggestion(inventory, rule);
-                suggestions.add(suggestion);
-            }
-        }
-        
-        return suggestions;
-    }
-
+    // AI suggestions take priority over rule suggestions for the same item
     private List<ShoppingListItemResponseDTO> mergeSuggestions(
             List<ShoppingListItemResponseDTO> ruleSuggestions,
             List<ShoppingListItemResponseDTO> aiSuggestions) {
-        
-        List<ShoppingListItemResponseDTO> merged = new ArrayList<>();
-        
-        // Add AI suggestions first (higher priority)
-        merged.addAll(aiSuggestions);
-        
-        // Add rule suggestions that don't conflict with AI
-        for (ShoppingListItemResponseDTO ruleSuggestion : ruleSuggestions) {
-            boolean hasAIVersion = aiSuggestions.stream()
-                .anyMatch(ai -> ai.getCanonicalName().equals(ruleSuggestion.getCanonicalName()));
-            
-            if (!hasAIVersion) {
-                merged.add(ruleSuggestion);
-            }
-        }
-        
-        return merged;
+        return SuggestionMerger.merge(List.of(aiSuggestions, ruleSuggestions),
+                suggestion -> NameNormalizationUtil.normalizeName(suggestion.getCanonicalName()),
+                ShoppingListItemResponseDTO::getConfidenceScore, Set.of(), Integer.MAX_VALUE);
     }
 
     @Override
@@ -104,6 +79,7 @@ public class SuggestionServiceImpl implements SuggestionService {
             .build();
             
         consumptionEventRepository.save(event);
+        consumptionStatsService.record(kitchenId, event.getCanonicalName(), event.getQuantityConsumed(), null, event.getCreatedAt());
     }
 
     @Override
@@ -116,9 +92,10 @@ public class SuggestionServiceImpl implements SuggestionService {
         
         SuggestionRule rule = suggestionRuleRepository
             .findByCanonicalNameAndKitchenId(normalizedName, kitchenId)
-            .orElse(SuggestionRule.builder()
+            .orElseGet(() -> SuggestionRule.builder()
                 .canonicalName(normalizedName)
                 .kitchen(kitchen)
+                .isActive(true)
                 .build());
                 
         rule.setReorderThreshold(new BigDecimal(threshold));
@@ -126,32 +103,4 @@ public class SuggestionServiceImpl implements SuggestionService {
         
         suggestionRuleRepository.save(rule);
     }
-
-    private boolean isItemLowStock(Inventory inventory, SuggestionRule rule) {
-        BigDecimal currentStock = BigDecimal.valueOf(inventory.getTotalQuantity() != null ? inventory.getTotalQuantity() : 0);
-        BigDecimal threshold = rule.getReorderThreshold() != null ? rule.getReorderThreshold() : BigDecimal.valueOf(5);
-        
-        return currentStock.compareTo(threshold) <= 0;
-    }
-
-    private SuggestionRule createDefaultRule(Inventory inventory) {
-        return SuggestionRule.builder()
-            .canonicalName(inventory.getName())
-            .reorderThreshold(BigDecimal.valueOf(5))
-            .suggestedQuantity(BigDecimal.valueOf(10))
-            .isActive(true)
-            .build();
-    }
-
-    private ShoppingListItemResponseDTO createRuleSuggestion(Inventory inventory, SuggestionRule rule) {
-        ShoppingListItemResponseDTO suggestion = new ShoppingListItemResponseDTO();
-        suggestion.setCanonicalName(inventory.getName());
-        suggestion.setSuggestedQuantity(rule.getSuggestedQuantity());
-        suggestion.setUnitName(inventory.getUnit() != null ? inventory.getUnit().getName() : "units");
-        suggestion.setSuggestedBy("RULE");
-        suggestion.setSuggestionReason("Low stock: " + inventory.getTotalQuantity() + " remaining");
-        suggestion.setConfidenceScore(BigDecimal.valueOf(0.8));
-        suggestion.setStatus("PENDING");
-        return suggestion;
-    }
 }
@@ -8,6 +8,7 @@ import com.innogent.pantry_mind.exception.ResourceNotFoundException;
 import com.innogent.pantry_mind.mapper.UnitMapper;
 import com.innogent.pantry_mind.repository.UnitRepository;
 import com.innogent.pantry_mind.service.UnitService;
+import com.innogent.pantry_mind.service.ReferenceDataService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,10 +17,13 @@ import java.util.List;
 public class UnitServiceImpl implements UnitService {
     private final UnitRepository unitRepository;
     private final UnitMapper unitMapper;
+    private final ReferenceDataService referenceDataService;
     
-    public UnitServiceImpl(UnitRepository unitRepository, UnitMapper unitMapper) {
+    public UnitServiceImpl(UnitRepository unitRepository, UnitMapper unitMapper,
+                             ReferenceDataService referenceDataService) {
         this.unitRepository = unitRepository;
         this.unitMapper = unitMapper;
+        this.referenceDataService = referenceDataService;
     }
 
     @Override
@@ -29,12 +33,13 @@ public class UnitServiceImpl implements UnitService {
         }
         Unit unit = unitMapper.toEntity(unitRequestDTO);
         Unit savedUnit = unitRepository.save(unit);
+        referenceDataService.evictUnits();
         return unitMapper.toResponse(savedUnit);
     }
 
     @Override
     public UnitResponseDTO findById(Long id) {
-        Unit unit = unitRepository.findById(id)
+        Unit unit = referenceDataService.findUnitById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Unit not found with id: " + id));
         return unitMapper.toResponse(unit);
     }
@@ -4,11 +4,15 @@ import com.innogent.pantry_mind.dto.ItemShoppingPattern;
 import com.innogent.pantry_mind.dto.response.ShoppingSuggestionDTO;
 import com.innogent.pantry_mind.entity.*;
 import com.innogent.pantry_mind.repository.*;
+import com.innogent.pantry_mind.service.ConsumptionStatsService;
+import com.innogent.pantry_mind.service.ReferenceDataService;
 import com.innogent.pantry_mind.service.UsagePatternService;
 import com.innogent.pantry_mind.util.NameNormalizationUtil;
+import com.innogent.pantry_mind.util.SuggestionMerger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -23,7 +27,9 @@ public class UsagePatternServiceImpl implements UsagePatternService {
     private final ConsumptionEventRepository consumptionEventRepository;
     private final KitchenRepository kitchenRepository;
     private final UserRepository userRepository;
-    private final UnitRepository unitRepository;
+    private final ReferenceDataService referenceDataService;
+    private final ConsumptionItemStatsRepository consumptionItemStatsRepository;
+    private final ConsumptionStatsService consumptionStatsService;
 
     @Override
     public List<ShoppingSuggestionDTO> getDailyPatternSuggestions(Long kitchenId, List<String> existingItems) {
@@ -41,42 +47,43 @@ public class UsagePatternServiceImpl implements UsagePatternService {
     }
 
     private List<ShoppingSuggestionDTO> getSmartPatternSuggestions(Long kitchenId, List<String> existingItems, String listType) {
+        // One aggregate row per item consumed in the window, kept current by ConsumptionStatsService
         LocalDateTime since = LocalDateTime.now().minusDays(90);
-        List<ConsumptionEvent> events = consumptionEventRepository.findByKitchenIdAndCreatedAtAfter(kitchenId, since);
+        List<ConsumptionItemStats> itemStats = consumptionItemStatsRepository.findActiveSince(kitchenId, since);
         
-        if (events.isEmpty()) {
+        if (itemStats.isEmpty()) {
             createTestConsumptionData(kitchenId, 1L);
-            events = consumptionEventRepository.findByKitchenIdAndCreatedAtAfter(kitchenId, since);
+            itemStats = consumptionItemStatsRepository.findActiveSince(kitchenId, since);
         }
-        
-        Map<String, List<ConsumptionEvent>> itemConsumption = events.stream()
-            .collect(Collectors.groupingBy(ConsumptionEvent::getCanonicalName));
 
-        List<ShoppingSuggestionDTO> suggestions = new ArrayList<>();
+        // Excluded names are checked in a hash set before any pattern analysis
+        Set<String> excluded = SuggestionMerger.exclusionKeys(existingItems);
+        List<Map.Entry<String, ShoppingSuggestionDTO>> suggestions = new ArrayList<>();
         
-        for (Map.Entry<String, List<ConsumptionEvent>> entry : itemConsumption.entrySet()) {
-            String canonicalName = entry.getKey();
-            if (existingItems.contains(canonicalName)) continue;
+        for (ConsumptionItemStats stats : itemStats) {
+            String canonicalName = stats.getCanonicalName();
+            if (excluded.contains(canonicalName)) continue;
             
-            List<ConsumptionEvent> itemEvents = entry.getValue();
-            ItemShoppingPattern pattern = analyzeShoppingPattern(canonicalName, itemEvents);
+            ItemShoppingPattern pattern = analyzeShoppingPattern(canonicalName, stats);
             
             if (pattern.getRecommendedListType().equals(listType)) {
                 // Convert canonical name to display name
                 String displayName = convertToDisplayName(canonicalName);
                 
-                suggestions.add(ShoppingSuggestionDTO.builder()
+                suggestions.add(Map.entry(canonicalName, ShoppingSuggestionDTO.builder()
                     .itemName(displayName)  // Use display name instead of canonical name
                     .suggestedQuantity(pattern.getSuggestedQuantity())
                     .unitName(pattern.getUnitName())
                     .unitId(pattern.getUnitId())
                     .reason(pattern.getReason())
                     .confidenceScore(pattern.getConfidenceScore())
-                    .build());
+                    .build()));
             }
         }
         
-        return suggestions.stream().limit(4).collect(Collectors.toList());
+        // The four most confident patterns rather than the first four in hash order
+        return SuggestionMerger.merge(List.of(suggestions), Map.Entry::getKey, entry -> entry.getValue().getConfidenceScore(),
+                Set.of(), 4).stream().map(Map.Entry::getValue).collect(Collectors.toList());
     }
 
     // Add this helper method
@@ -105,47 +112,53 @@ public class UsagePatternServiceImpl implements UsagePatternService {
         User user = userRepository.findById(userId).orElse(null);
         if (kitchen == null || user == null) return;
         
-        Unit pieceUnit = unitRepository.findById(1L).orElse(null);
-        Unit literUnit = unitRepository.findById(2L).orElse(null);
-        Unit kgUnit = unitRepository.findById(3L).orElse(null);
+        Unit pieceUnit = referenceDataService.findUnitById(1L).orElse(null);
+        Unit literUnit = referenceDataService.findUnitById(2L).orElse(null);
+        Unit kgUnit = referenceDataService.findUnitById(3L).orElse(null);
         
         for (int i = 1; i <= 8; i++) {
-            consumptionEventRepository.save(ConsumptionEvent.builder()
+            saveAndRecord(ConsumptionEvent.builder()
                 .canonicalName("milk").quantityConsumed(BigDecimal.valueOf(1.0))
                 .unit(literUnit).kitchen(kitchen).reason(ConsumptionEvent.EventReason.CONSUMED)
                 .triggeredBy(user).createdAt(LocalDateTime.now().minusDays(i)).build());
         }
         
         for (int i = 1; i <= 6; i++) {
-            consumptionEventRepository.save(ConsumptionEvent.builder()
+            saveAndRecord(ConsumptionEvent.builder()
                 .canonicalName("bread").quantityConsumed(BigDecimal.valueOf(2.0))
                 .unit(pieceUnit).kitchen(kitchen).reason(ConsumptionEvent.EventReason.CONSUMED)
                 .triggeredBy(user).createdAt(LocalDateTime.now().minusDays(i)).build());
         }
         
         for (int i = 2; i <= 30; i += 7) {
-            consumptionEventRepository.save(ConsumptionEvent.builder()
+            saveAndRecord(ConsumptionEvent.builder()
                 .canonicalName("chicken").quantityConsumed(BigDecimal.valueOf(1.2))
                 .unit(kgUnit).kitchen(kitchen).reason(ConsumptionEvent.EventReason.CONSUMED)
                 .triggeredBy(user).createdAt(LocalDateTime.now().minusDays(i)).build());
         }
         
         for (int i = 5; i <= 90; i += 30) {
-            consumptionEventRepository.save(ConsumptionEvent.builder()
+            saveAndRecord(ConsumptionEvent.builder()
                 .canonicalName("rice").quantityConsumed(BigDecimal.valueOf(2.0))
                 .unit(kgUnit).kitchen(kitchen).reason(ConsumptionEvent.EventReason.CONSUMED)
                 .triggeredBy(user).createdAt(LocalDateTime.now().minusDays(i)).build());
         }
     }
 
-    private ItemShoppingPattern analyzeShoppingPattern(String itemName, List<ConsumptionEvent> events) {
-        double dailyConsumption = calculateDailyConsumption(events);
-        int daysBetweenConsumption = calculateAverageDaysBetween(events);
+    private void saveAndRecord(ConsumptionEvent event) {
+        consumptionEventRepository.save(event);
+        consumptionStatsService.record(event.getKitchen().getId(), event.getCanonicalName(), event.getQuantityConsumed(),
+                event.getUnit() != null ? event.getUnit().getId() : null, event.getCreatedAt());
+    }
+
+    private ItemShoppingPattern analyzeShoppingPattern(String itemName, ConsumptionItemStats stats) {
+        double dailyConsumption = calculateDailyConsumption(stats);
+        int daysBetweenConsumption = stats.getEventCount() < 2 ? 30 : (int) stats.getGapMeanDays();
         
         String recommendedListType = determineOptimalShoppingFrequency(itemName, dailyConsumption, daysBetweenConsumption);
         BigDecimal suggestedQuantity = calculateOptimalPurchaseQuantity(recommendedListType, dailyConsumption);
         
-        Unit unit = events.stream().map(ConsumptionEvent::getUnit).filter(Objects::nonNull).findFirst().orElse(null);
+        Unit unit = stats.getUnitId() != null ? referenceDataService.findUnitById(stats.getUnitId()).orElse(null) : null;
         
         return ItemShoppingPattern.builder()
             .recommendedListType(recommendedListType)
@@ -153,7 +166,7 @@ public class UsagePatternServiceImpl implements UsagePatternService {
             .unitName(unit != null ? unit.getName() : "Piece")
             .unitId(unit != null ? unit.getId() : null)
             .reason(generateReason(recommendedListType, dailyConsumption))
-            .confidenceScore(calculateConfidence(events.size()))
+            .confidenceScore(calculateConfidence(stats.getEventCount()))
             .build();
     }
 
@@ -193,27 +206,15 @@ public class UsagePatternServiceImpl implements UsagePatternService {
         }
     }
 
-    private double calculateDailyConsumption(List<ConsumptionEvent> events) {
-        if (events.isEmpty()) return 0;
+    private double calculateDailyConsumption(ConsumptionItemStats stats) {
+        if (stats.getEventCount() == 0) return 0;
         
-        double totalConsumption = events.stream().mapToDouble(e -> e.getQuantityConsumed().doubleValue()).sum();
-        LocalDateTime earliest = events.stream().map(ConsumptionEvent::getCreatedAt).min(LocalDateTime::compareTo).orElse(LocalDateTime.now());
-        long daysBetween = ChronoUnit.DAYS.between(earliest, LocalDateTime.now());
+        double totalConsumption = stats.getQuantitySum().doubleValue();
+        long daysBetween = ChronoUnit.DAYS.between(stats.getFirstEventAt(), LocalDateTime.now());
         return daysBetween > 0 ? totalConsumption / daysBetween : totalConsumption;
     }
 
-    private int calculateAverageDaysBetween(List<ConsumptionEvent> events) {
-        if (events.size() < 2) return 30;
-        
-        events.sort(Comparator.comparing(ConsumptionEvent::getCreatedAt));
-        long totalDays = 0;
-        for (int i = 1; i < events.size(); i++) {
-            totalDays += ChronoUnit.DAYS.between(events.get(i-1).getCreatedAt(), events.get(i).getCreatedAt());
-        }
-        return (int) (totalDays / (events.size() - 1));
-    }
-
-    private BigDecimal calculateConfidence(int eventCount) {
+    private BigDecimal calculateConfidence(long eventCount) {
         if (eventCount >= 10) return BigDecimal.valueOf(0.9);
         if (eventCount >= 5) return BigDecimal.valueOf(0.7);
         if (eventCount >= 2) return BigDecimal.valueOf(0.5);
@@ -221,10 +222,11 @@ public class UsagePatternServiceImpl implements UsagePatternService {
     }
 
     @Override
+    @Transactional
     public void recordConsumption(Long kitchenId, String itemName, Double quantity, Long unitId, Long userId) {
         Kitchen kitchen = kitchenRepository.findById(kitchenId).orElse(null);
         User user = userRepository.findById(userId).orElse(null);
-        Unit unit = unitId != null ? unitRepository.findById(unitId).orElse(null) : null;
+        Unit unit = unitId != null ? referenceDataService.findUnitById(unitId).orElse(null) : null;
         
         if (kitchen != null) {
             ConsumptionEvent event = ConsumptionEvent.builder()
@@ -236,7 +238,7 @@ public class UsagePatternServiceImpl implements UsagePatternService {
                 .triggeredBy(user)
                 .build();
                 
-            consumptionEventRepository.save(event);
+            saveAndRecord(event);
         }
     }
 }
@@ -1,4 +1,5 @@
 package com.innogent.pantry_mind.service.impl;
+import com.innogent.pantry_mind.config.JwtPrincipalCache;
 import com.innogent.pantry_mind.dto.request.ChangePasswordRequestDTO;
 import com.innogent.pantry_mind.dto.request.LoginRequestDTO;
 import com.innogent.pantry_mind.dto.request.RegisterRequestDTO;
@@ -9,6 +10,7 @@ import com.innogent.pantry_mind.service.OtpService;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import com.innogent.pantry_mind.dto.response.UserResponseDTO;
 import com.innogent.pantry_mind.entity.Role;
 import com.innogent.pantry_mind.entity.User;
@@ -16,6 +18,7 @@ import com.innogent.pantry_mind.exception.ResourceNotFoundException;
 import com.innogent.pantry_mind.mapper.UserMapper;
 import com.innogent.pantry_mind.repository.RoleRepository;
 import com.innogent.pantry_mind.repository.UserRepository;
+import com.innogent.pantry_mind.service.ReferenceDataService;
 import com.innogent.pantry_mind.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +31,8 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final RoleRepository roleRepository;
+    private final ReferenceDataService referenceDataService;
+    private final JwtPrincipalCache principalCache;
     private final OtpService otpService;
 
     @Override
@@ -47,7 +52,7 @@ public class UserServiceImpl implements UserService {
         user.setEmailVerified(false); // Not verified yet
 
         // Set default USER role
-        Role userRole = roleRepository.findByName("USER")
+        Role userRole = referenceDataService.findRoleByName("USER")
                 .orElseGet(() -> roleRepository.save(Role.builder().name("USER").build()));
         user.setRole(userRole);
         
@@ -96,9 +101,13 @@ public class UserServiceImpl implements UserService {
         
         if (request.getUsername() != null) user.setUsername(request.getUsername());
         if (request.getName() != null) user.setName(request.getName());
+        String previousEmail = user.getEmail();
         if (request.getEmail() != null) user.setEmail(request.getEmail());
         
         User updated = userRepository.save(user);
+        if (!Objects.equals(updated.getEmail(), previousEmail)) {
+            principalCache.revoke(previousEmail);
+        }
         return userMapper.toResponse(updated);
     }
 
@@ -107,6 +116,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         userRepository.delete(user);
+        principalCache.revoke(user.getEmail());
     }
 
     @Override
@@ -0,0 +1,55 @@
+package com.innogent.pantry_mind.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque keyset cursors: the sort key of the last row of a page, base64url encoded
+public class CursorCodec {
+
+    public record TimeCursor(LocalDateTime createdAt, Long id) {
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        return encode(createdAt + "|" + id);
+    }
+
+    public static TimeCursor decodeTime(String cursor) {
+        String[] parts = decode(cursor).split("\\|", 2);
+        try {
+            return new TimeCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static String encode(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Requested page sizes are clamped to [1, max]; absent means the default
+    public static int clampLimit(Integer requested, int defaultLimit, int max) {
+        int limit = requested != null ? requested : defaultLimit;
+        return Math.min(Math.max(limit, 1), max);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.innogent.pantry_mind.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Merges suggestion lists from several sources in linear time: one entry per key, the highest-priority source wins
+// (sources are passed highest priority first), and the result is ranked by confidence with priority as tie-break.
+public class SuggestionMerger {
+
+    private record Candidate<T>(T item, int priority, int order, BigDecimal confidence) {
+    }
+
+    private static final Comparator<Candidate<?>> RANKING = Comparator
+            .comparing((Candidate<?> c) -> c.confidence(), Comparator.reverseOrder())
+            .thenComparingInt(Candidate::priority)
+            .thenComparingInt(Candidate::order);
+
+    public static <T> List<T> merge(List<? extends Collection<T>> sourcesByPriority, Function<T, String> keyOf,
+                                    Function<T, BigDecimal> confidenceOf, Set<String> excludedKeys, int limit) {
+        Map<String, Candidate<T>> best = new HashMap<>();
+        int order = 0;
+        for (int priority = 0; priority < sourcesByPriority.size(); priority++) {
+            for (T item : sourcesByPriority.get(priority)) {
+                String key = keyOf.apply(item);
+                if (key == null || key.isEmpty() || excludedKeys.contains(key)) {
+                    continue;
+                }
+                BigDecimal confidence = confidenceOf.apply(item);
+                Candidate<T> candidate = new Candidate<>(item, priority, order++, confidence != null ? confidence : BigDecimal.ZERO);
+                // A lower-priority source never replaces a key; within one source the more confident duplicate wins
+                best.merge(key, candidate, (current, next) ->
+                        next.priority() == current.priority() && next.confidence().compareTo(current.confidence()) > 0 ? next : current);
+            }
+        }
+        List<Candidate<T>> ranked = new ArrayList<>(best.values());
+        ranked.sort(RANKING);
+        List<T> merged = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Candidate<T> candidate : ranked) {
+            if (merged.size() == limit) {
+                break;
+            }
+            merged.add(candidate.item());
+        }
+        return merged;
+    }
+
+    // Names as typed by users or external services; raw forms are kept so already-normalized input still matches
+    public static Set<String> exclusionKeys(Collection<String> names) {
+        Set<String> keys = new HashSet<>();
+        for (String name : names) {
+            if (name != null) {
+                keys.add(name);
+                keys.add(NameNormalizationUtil.normalizeName(name));
+            }
+        }
+        return keys;
+    }
+}
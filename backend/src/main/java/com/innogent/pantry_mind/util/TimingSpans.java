@@ -0,0 +1,60 @@
+package com.innogent.pantry_mind.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Per-request accumulation of time spent in the database, the Python services and DTO mapping.
+// Only active on threads where start() was called, so the hooks cost a ThreadLocal read otherwise.
+public class TimingSpans {
+
+    public enum Span {
+        DB, PYTHON, MAPPING
+    }
+
+    private static final ThreadLocal<Map<Span, long[]>> CURRENT = new ThreadLocal<>();
+
+    // long[] slots per span
+    private static final int TOTAL = 0;
+    private static final int DEPTH = 1;
+    private static final int STARTED = 2;
+
+    public static void start() {
+        Map<Span, long[]> spans = new EnumMap<>(Span.class);
+        for (Span span : Span.values()) {
+            spans.put(span, new long[3]);
+        }
+        CURRENT.set(spans);
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // Nested calls of the same span (a mapper calling another mapper) are counted once
+    public static void enter(Span span) {
+        Map<Span, long[]> spans = CURRENT.get();
+        if (spans == null) return;
+        long[] slot = spans.get(span);
+        if (slot[DEPTH]++ == 0) {
+            slot[STARTED] = System.nanoTime();
+        }
+    }
+
+    public static void exit(Span span) {
+        Map<Span, long[]> spans = CURRENT.get();
+        if (spans == null) return;
+        long[] slot = spans.get(span);
+        if (slot[DEPTH] > 0 && --slot[DEPTH] == 0) {
+            slot[TOTAL] += System.nanoTime() - slot[STARTED];
+        }
+    }
+
+    public static long millis(Span span) {
+        Map<Span, long[]> spans = CURRENT.get();
+        return spans == null ? 0 : spans.get(span)[TOTAL] / 1_000_000;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,189 @@
+package com.innogent.pantry_mind.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.entity.Role;
+import com.innogent.pantry_mind.entity.User;
+import com.innogent.pantry_mind.repository.KitchenRepository;
+import com.innogent.pantry_mind.repository.RoleRepository;
+import com.innogent.pantry_mind.repository.UserRepository;
+import com.innogent.pantry_mind.service.CustomUserDetailsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Bearer tokens with role and kitchen claims authenticate without a user lookup until the user's access changes
+@DataJpaTest
+@Import(CustomUserDetailsService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+    private static final int REQUESTS = 200;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    private final AtomicInteger userLookups = new AtomicInteger();
+    private JwtUtil jwtUtil;
+    private JwtPrincipalCache principalCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        jwtUtil.init();
+        principalCache = new JwtPrincipalCache(Duration.ofSeconds(60), 10_000, 3_600_000L, new SimpleMeterRegistry());
+
+        Role role = roleRepository.findByName("MEMBER").orElseGet(() -> roleRepository.save(Role.builder().name("MEMBER").build()));
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName("Token kitchen");
+        kitchen = kitchenRepository.save(kitchen);
+        user = new User();
+        user.setUsername("jwt-user");
+        user.setEmail("jwt-user-" + System.nanoTime() + "@example.com");
+        user.setPasswordHash("hash");
+        user.setRole(role);
+        user.setKitchen(kitchen);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void fastPathSkipsUserLookupAndRepeatVerification() throws Exception {
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), "MEMBER", user.getKitchen().getId());
+
+        JwtAuthenticationFilter legacy = filter(false);
+        JwtAuthenticationFilter fast = filter(true);
+
+        run(legacy, token, REQUESTS);
+        assertThat(userLookups.getAndSet(0)).isEqualTo(REQUESTS);
+        run(fast, token, REQUESTS);
+        assertThat(userLookups.get()).isZero();
+
+        Authentication authentication = authenticate(fast, token);
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertThat(principal.getUserId()).isEqualTo(user.getId());
+        assertThat(principal.getKitchenId()).isEqualTo(user.getKitchen().getId());
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("MEMBER");
+    }
+
+    @Test
+    void revokedTokensFallBackToTheDatabase() throws Exception {
+        JwtAuthenticationFilter fast = filter(true);
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), "MEMBER", user.getKitchen().getId());
+        assertThat(authenticate(fast, token)).isNotNull();
+
+        // Removed from the kitchen: the stale claims are replaced by one lookup, which is then cached
+        user.setKitchen(null);
+        user.setRole(roleRepository.findByName("USER").orElseGet(() -> roleRepository.save(Role.builder().name("USER").build())));
+        userRepository.save(user);
+        principalCache.revoke(user.getEmail());
+
+        userLookups.set(0);
+        AuthenticatedUser principal = (AuthenticatedUser) authenticate(fast, token).getPrincipal();
+        authenticate(fast, token);
+        assertThat(userLookups.get()).isEqualTo(1);
+        assertThat(principal.getKitchenId()).isNull();
+        assertThat(principal.getAuthorities()).extracting(Object::toString).containsExactly("USER");
+
+        // Deleted: the lookup fails and the request stays anonymous
+        userRepository.delete(user);
+        principalCache.revoke(user.getEmail());
+        assertThat(authenticate(fast, token)).isNull();
+    }
+
+    private JwtAuthenticationFilter filter(boolean fastPath) {
+        return filter(fastPath, principalCache);
+    }
+
+    private JwtAuthenticationFilter filter(boolean fastPath, JwtPrincipalCache cache) {
+        UserDetailsService counting = username -> {
+            userLookups.incrementAndGet();
+            return customUserDetailsService.loadUserByUsername(username);
+        };
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, counting, cache, userRepository);
+        ReflectionTestUtils.setField(filter, "fastPathEnabled", fastPath);
+        return filter;
+    }
+
+    @Test
+    void revocationsPersistedByAnotherInstanceAreHonoured() throws Exception {
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), "MEMBER", user.getKitchen().getId());
+
+        // Revoked on another instance: only the persisted cut-off reaches this one
+        user.setKitchen(null);
+        user.setRole(roleRepository.findByName("USER").orElseGet(() -> roleRepository.save(Role.builder().name("USER").build())));
+        user.setTokensValidAfter(LocalDateTime.now());
+        userRepository.save(user);
+
+        JwtAuthenticationFilter otherInstance = filter(true,
+                new JwtPrincipalCache(Duration.ofSeconds(60), 10_000, 3_600_000L, new SimpleMeterRegistry()));
+        userLookups.set(0);
+        AuthenticatedUser principal = (AuthenticatedUser) authenticate(otherInstance, token).getPrincipal();
+        assertThat(userLookups.get()).isEqualTo(1);
+        assertThat(principal.getKitchenId()).isNull();
+        assertThat(principal.getAuthorities()).extracting(Object::toString).containsExactly("USER");
+    }
+
+    @Test
+    void tokensIssuedAfterThePersistedCutOffKeepTheFastPath() throws Exception {
+        user.setTokensValidAfter(LocalDateTime.now().minusMinutes(1));
+        userRepository.save(user);
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), "MEMBER", user.getKitchen().getId());
+
+        userLookups.set(0);
+        AuthenticatedUser principal = (AuthenticatedUser) authenticate(filter(true), token).getPrincipal();
+        assertThat(userLookups.get()).isZero();
+        assertThat(principal.getKitchenId()).isEqualTo(user.getKitchen().getId());
+    }
+
+    private void run(JwtAuthenticationFilter filter, String token, int requests) throws Exception {
+        for (int i = 0; i < requests; i++) {
+            assertThat(authenticate(filter, token)).isNotNull();
+        }
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/inventory");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,81 @@
+package com.innogent.pantry_mind.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PythonBackendCircuitBreakerTest {
+
+    private PythonBackendCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new PythonBackendCircuitBreaker(mock(PythonHttpClients.class), new PythonCallMetrics(meterRegistry),
+                meterRegistry);
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 3);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 60_000L);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        for (int i = 0; i < 10; i++) {
+            failWith(() -> {
+                throw HttpClientErrorException.create(HttpStatus.UNPROCESSABLE_ENTITY, "bad request", null, null, null);
+            });
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(PythonBackendCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void connectionErrorsAndServerErrorsOpenTheCircuit() {
+        failWith(() -> {
+            throw new ResourceAccessException("timed out", new IOException("timed out"));
+        });
+        failWith(() -> {
+            throw HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "down", null, null, null);
+        });
+        assertThat(circuitBreaker.getState()).isEqualTo(PythonBackendCircuitBreaker.State.CLOSED);
+
+        failWith(() -> {
+            throw HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "down", null, null, null);
+        });
+
+        assertThat(circuitBreaker.getState()).isEqualTo(PythonBackendCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.isAvailable()).isFalse();
+    }
+
+    @Test
+    void clientErrorBreaksARunOfServerErrors() {
+        Supplier<Object> serverError = () -> {
+            throw HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR, "boom", null, null, null);
+        };
+        failWith(serverError);
+        failWith(serverError);
+        failWith(() -> {
+            throw HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "bad request", null, null, null);
+        });
+        failWith(serverError);
+        failWith(serverError);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(PythonBackendCircuitBreaker.State.CLOSED);
+    }
+
+    private void failWith(Supplier<Object> call) {
+        assertThatThrownBy(() -> circuitBreaker.call(call)).isInstanceOf(RuntimeException.class);
+    }
+}
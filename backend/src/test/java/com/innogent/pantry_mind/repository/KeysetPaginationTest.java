@@ -0,0 +1,166 @@
+package com.innogent.pantry_mind.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.controller.ConsumptionController;
+import com.innogent.pantry_mind.dto.InventorySummaryView;
+import com.innogent.pantry_mind.dto.response.ConsumptionEventResponseDTO;
+import com.innogent.pantry_mind.dto.response.CursorPageResponseDTO;
+import com.innogent.pantry_mind.dto.response.NotificationResponseDTO;
+import com.innogent.pantry_mind.entity.Inventory;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.entity.Notification;
+import com.innogent.pantry_mind.service.NotificationService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Cursor pages walk a whole history exactly once, with one statement per page regardless of depth
+@DataJpaTest
+@Import(NotificationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class KeysetPaginationTest {
+
+    private static final int ROWS = 103;
+    private static final int PAGE = 10;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ConsumptionEventRepository consumptionEventRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void notificationPagesAreStableUnderTiesAndInserts() {
+        long kitchenId = 500L;
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            notifications.add(Notification.builder().kitchenId(kitchenId).type("LOW_STOCK").title("Alert")
+                    .message("Notification " + i).severity(Notification.NotificationSeverity.INFO).build());
+        }
+        notificationRepository.saveAll(notifications);
+        // Groups of four share a timestamp so the id tie-breaker decides the order
+        jdbcTemplate.update("UPDATE notifications SET created_at = DATEADD('SECOND', -CAST(id / 4 AS INT), CAST(? AS TIMESTAMP)) WHERE kitchen_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(5)), kitchenId);
+
+        // A notification arriving mid-scroll lands before the cursor and does not shift later pages
+        List<Long> seen = walk(cursor -> notificationService.getNotificationPageForUser(kitchenId, 1L, "ADMIN", cursor, PAGE),
+                NotificationResponseDTO::getId,
+                () -> notificationRepository.save(Notification.builder().kitchenId(kitchenId).type("LOW_STOCK").title("New")
+                        .message("late").severity(Notification.NotificationSeverity.INFO).build()));
+
+        assertThat(seen).hasSize(ROWS).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(notifications.stream().map(Notification::getId).toList());
+    }
+
+    @Test
+    void consumptionHistoryPagesAreDtoProjections() {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName("Keyset");
+        Long kitchenId = kitchenRepository.save(kitchen).getId();
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{"item" + i, i + 1, kitchenId, "CONSUMED", Timestamp.valueOf(base.minusSeconds(i / 3))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO consumption_events (canonical_name, quantity_consumed, kitchen_id, reason, created_at) " +
+                "VALUES (?, ?, ?, ?, ?)", rows);
+        ConsumptionController controller = new ConsumptionController(consumptionEventRepository);
+        ReflectionTestUtils.setField(controller, "maxPageSize", PAGE);
+        ReflectionTestUtils.setField(controller, "maxHistoryDays", 365);
+
+        // Requests above the cap are clamped to it
+        List<Long> seen = walk(cursor -> controller.getConsumptionPage(kitchenId, 30, cursor, 1000).getBody(),
+                ConsumptionEventResponseDTO::getId, () -> { });
+
+        assertThat(seen).hasSize(ROWS).doesNotHaveDuplicates();
+        assertThat(controller.getConsumptionHistory(kitchenId, 30).getBody())
+                .extracting(ConsumptionEventResponseDTO::getId).containsExactlyElementsOf(seen);
+        assertThat(controller.getConsumptionPage(kitchenId, 30, "not a cursor", 5).getStatusCode().is4xxClientError()).isTrue();
+    }
+
+    @Test
+    void inventorySummaryPagesFollowIdOrder() {
+        long kitchenId = 600L;
+        List<Inventory> groups = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setName("Group " + i);
+            inventory.setKitchenId(kitchenId);
+            groups.add(inventory);
+        }
+        inventoryRepository.saveAll(groups);
+
+        Set<Long> seen = new HashSet<>();
+        long afterId = 0L;
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        while (true) {
+            statistics.clear();
+            List<InventorySummaryView> page = inventoryRepository.findSummariesByKitchenIdAfter(kitchenId, afterId, PageRequest.of(0, PAGE));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            if (page.isEmpty()) break;
+            page.forEach(view -> assertThat(seen.add(view.getId())).isTrue());
+            afterId = page.get(page.size() - 1).getId();
+        }
+        assertThat(seen).hasSize(ROWS);
+    }
+
+    // Follows nextCursor to the end, checking each page costs a single statement
+    private <T> List<Long> walk(Function<String, CursorPageResponseDTO<T>> fetch, Function<T, Long> idOf, Runnable betweenPages) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            if (cursor != null) {
+                betweenPages.run();
+            }
+            statistics.clear();
+            CursorPageResponseDTO<T> page = fetch.apply(cursor);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(PAGE);
+            page.getItems().forEach(item -> seen.add(idOf.apply(item)));
+            cursor = page.getNextCursor();
+            assertThat(cursor != null).isEqualTo(page.isHasMore());
+        } while (cursor != null);
+        return seen;
+    }
+}
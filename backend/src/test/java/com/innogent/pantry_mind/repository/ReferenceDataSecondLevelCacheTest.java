@@ -0,0 +1,81 @@
+package com.innogent.pantry_mind.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.entity.Category;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.entity.Location;
+import com.innogent.pantry_mind.entity.Role;
+import com.innogent.pantry_mind.entity.Unit;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Each repository call runs in its own session, so a warm lookup can only avoid SQL through the second-level cache
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataSecondLevelCacheTest {
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void warmReferenceLookupsIssueNoSql() {
+        Unit unit = new Unit();
+        unit.setName("litre");
+        unit.setType("volume");
+        unit = unitRepository.save(unit);
+        Category category = new Category();
+        category.setName("Beverages");
+        category = categoryRepository.save(category);
+        Location location = new Location();
+        location.setName("Cellar");
+        location = locationRepository.save(location);
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName("Cache kitchen");
+        kitchen = kitchenRepository.save(kitchen);
+        Role role = roleRepository.save(Role.builder().name("CACHE_ROLE").build());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        lookUp(unit.getId(), category.getId(), location.getId(), kitchen.getId(), role.getId());
+
+        statistics.clear();
+        lookUp(unit.getId(), category.getId(), location.getId(), kitchen.getId(), role.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(5);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+    }
+
+    private void lookUp(Long unitId, Long categoryId, Long locationId, Long kitchenId, Long roleId) {
+        assertThat(unitRepository.findById(unitId)).isPresent();
+        assertThat(categoryRepository.findById(categoryId)).isPresent();
+        assertThat(locationRepository.findById(locationId)).isPresent();
+        assertThat(kitchenRepository.findById(kitchenId)).isPresent();
+        assertThat(roleRepository.findById(roleId)).isPresent();
+        assertThat(unitRepository.findByName("litre")).isPresent();
+        assertThat(categoryRepository.findByName("Beverages")).isPresent();
+    }
+}
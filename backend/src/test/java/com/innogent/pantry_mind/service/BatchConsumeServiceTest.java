@@ -0,0 +1,173 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.innogent.pantry_mind.dto.request.ConsumeItemsRequestDTO;
+import com.innogent.pantry_mind.dto.response.ConsumeItemsResponseDTO;
+import com.innogent.pantry_mind.dto.response.ConsumeItemsResponseDTO.ConsumeItemResultDTO;
+import com.innogent.pantry_mind.dto.response.ConsumeItemsResponseDTO.ConsumeStatus;
+import com.innogent.pantry_mind.entity.Inventory;
+import com.innogent.pantry_mind.entity.InventoryItem;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.exception.ConcurrentInventoryChangeException;
+import com.innogent.pantry_mind.repository.InventoryItemRepository;
+import com.innogent.pantry_mind.repository.InventoryRepository;
+import com.innogent.pantry_mind.repository.KitchenRepository;
+
+// Per-line outcomes of a recipe consume, first-expiry-first-out depletion and the all-or-nothing quantity guard
+@DataJpaTest
+@Import({BatchConsumeService.class, InventoryTotalsService.class, ConsumptionStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchConsumeServiceTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Autowired
+    private BatchConsumeService batchConsumeService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long kitchenId;
+
+    @BeforeEach
+    void createKitchen() {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName("Consume");
+        kitchenId = kitchenRepository.save(kitchen).getId();
+        // Request ids resolve as items before groups, so item ids are kept clear of the group ids
+        Long maxItemId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM inventory_item", Long.class);
+        jdbcTemplate.execute("ALTER TABLE inventory_item ALTER COLUMN id RESTART WITH " + (maxItemId + 1_000_000));
+    }
+
+    @Test
+    void groupsAreDepletedEarliestExpiryFirst() {
+        Inventory milk = group("milk");
+        InventoryItem later = item(milk, 5, 10);
+        InventoryItem sooner = item(milk, 3, 2);
+        applyTotals(milk);
+
+        ConsumeItemsResponseDTO response = batchConsumeService.consume(request(line(milk.getId(), 4)));
+
+        ConsumeItemResultDTO result = response.getResults().get(0);
+        assertThat(result.getStatus()).isEqualTo(ConsumeStatus.CONSUMED);
+        assertThat(result.getConsumedQuantity()).isEqualTo(4L);
+        assertThat(inventoryItemRepository.findById(sooner.getId())).isEmpty();
+        assertThat(inventoryItemRepository.findById(later.getId())).get().extracting(InventoryItem::getQuantity).isEqualTo(4L);
+        assertThat(response.getItemsRemoved()).isEqualTo(1);
+        assertThat(response.getItemsUpdated()).isEqualTo(1);
+
+        Inventory reloaded = inventoryRepository.findById(milk.getId()).orElseThrow();
+        assertThat(reloaded.getTotalQuantity()).isEqualTo(4L);
+        assertThat(reloaded.getItemCount()).isEqualTo(1);
+    }
+
+    @Test
+    void eachLineReportsItsOwnOutcome() {
+        Inventory bread = group("bread");
+        InventoryItem loaf = item(bread, 2, 3);
+        Inventory rice = group("rice");
+        InventoryItem bag = item(rice, 2, 30);
+        applyTotals(bread);
+        applyTotals(rice);
+
+        ConsumeItemsResponseDTO response = batchConsumeService.consume(request(
+                line(loaf.getId(), 5),      // a single item is all-or-nothing
+                line(rice.getId(), 5),      // a group gives what it has
+                line(Long.MAX_VALUE, 1)));
+
+        assertThat(response.getResults()).extracting(ConsumeItemResultDTO::getStatus)
+                .containsExactly(ConsumeStatus.INSUFFICIENT_QUANTITY, ConsumeStatus.PARTIAL, ConsumeStatus.NOT_FOUND);
+        assertThat(response.getResults()).extracting(ConsumeItemResultDTO::getConsumedQuantity).containsExactly(0L, 2L, 0L);
+
+        assertThat(inventoryItemRepository.findById(loaf.getId())).get().extracting(InventoryItem::getQuantity).isEqualTo(2L);
+        assertThat(inventoryItemRepository.findById(bag.getId())).isEmpty();
+        // The emptied group is removed with its last item
+        assertThat(response.getGroupsRemoved()).isEqualTo(1);
+        assertThat(inventoryRepository.findById(rice.getId())).isEmpty();
+    }
+
+    @Test
+    void quantityChangedAfterPlanningRollsBackTheWholeRequest() {
+        Inventory eggs = group("egg");
+        InventoryItem tray = item(eggs, 6, 5);
+        Inventory oil = group("oil");
+        InventoryItem bottle = item(oil, 4, 60);
+        applyTotals(eggs);
+        applyTotals(oil);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            // The plan is built from the already loaded entity while the row underneath has moved on
+            inventoryItemRepository.findById(tray.getId()).orElseThrow();
+            jdbcTemplate.update("UPDATE inventory_item SET quantity = 1 WHERE id = ?", tray.getId());
+            batchConsumeService.consume(request(line(bottle.getId(), 1), line(tray.getId(), 2)));
+        })).isInstanceOf(ConcurrentInventoryChangeException.class);
+
+        assertThat(inventoryItemRepository.findById(bottle.getId())).get().extracting(InventoryItem::getQuantity).isEqualTo(4L);
+        assertThat(inventoryItemRepository.findById(tray.getId())).get().extracting(InventoryItem::getQuantity).isEqualTo(6L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM consumption_events WHERE kitchen_id = ?",
+                Long.class, kitchenId)).isZero();
+    }
+
+    private Inventory group(String name) {
+        Inventory inventory = new Inventory();
+        inventory.setName(name);
+        inventory.setKitchenId(kitchenId);
+        inventory.setTotalQuantity(0L);
+        inventory.setItemCount(0);
+        return inventoryRepository.save(inventory);
+    }
+
+    private InventoryItem item(Inventory inventory, long quantity, int expiresInDays) {
+        InventoryItem item = new InventoryItem();
+        item.setInventory(inventory);
+        item.setQuantity(quantity);
+        item.setExpiryDate(new Date(System.currentTimeMillis() + expiresInDays * DAY));
+        return inventoryItemRepository.save(item);
+    }
+
+    private void applyTotals(Inventory inventory) {
+        jdbcTemplate.update("UPDATE inventory SET total_quantity = (SELECT SUM(quantity) FROM inventory_item WHERE inventory_id = ?), " +
+                "item_count = (SELECT COUNT(*) FROM inventory_item WHERE inventory_id = ?) WHERE id = ?",
+                inventory.getId(), inventory.getId(), inventory.getId());
+    }
+
+    private static ConsumeItemsRequestDTO.ConsumeItemDTO line(Long id, double quantity) {
+        ConsumeItemsRequestDTO.ConsumeItemDTO line = new ConsumeItemsRequestDTO.ConsumeItemDTO();
+        line.setId(id);
+        line.setConsumedQuantity(quantity);
+        return line;
+    }
+
+    private static ConsumeItemsRequestDTO request(ConsumeItemsRequestDTO.ConsumeItemDTO... lines) {
+        ConsumeItemsRequestDTO request = new ConsumeItemsRequestDTO();
+        request.setItems(List.of(lines));
+        return request;
+    }
+}
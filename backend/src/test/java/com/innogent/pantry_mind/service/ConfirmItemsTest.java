@@ -0,0 +1,148 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import com.innogent.pantry_mind.dto.request.ConfirmItemsRequestDto;
+import com.innogent.pantry_mind.dto.response.ConfirmItemsResponseDTO;
+import com.innogent.pantry_mind.entity.Inventory;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.entity.OcrUpload;
+import com.innogent.pantry_mind.entity.User;
+
+// Confirming an OCR receipt is a bulk write: the JDBC statement count (JPA and JdbcTemplate alike) does not grow
+// with the receipt, and the group totals match the items written
+@DataJpaTest
+@Import({PantryService.class, InventoryTotalsService.class, ReferenceDataService.class, ConfirmItemsTest.StatementCounting.class})
+class ConfirmItemsTest {
+
+    private static final int[] LINE_COUNTS = {6, 40, 200};
+    private static final AtomicInteger statements = new AtomicInteger();
+
+    @TestConfiguration
+    static class StatementCounting {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                            (proxy, method, args) -> {
+                                Object result = method.invoke(dataSource, args);
+                                return result instanceof Connection connection ? counting(connection) : result;
+                            });
+                }
+            };
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                            statements.incrementAndGet();
+                        }
+                        return method.invoke(connection, args);
+                    });
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PantryService pantryService;
+
+    @Test
+    void confirmStatementCountStaysFlatAndTotalsAreMaintained() {
+        User user = new User();
+        user.setUsername("ocr-user");
+        Long userId = entityManager.persistAndGetId(user, Long.class);
+
+        for (int lines : LINE_COUNTS) {
+            Long kitchenId = entityManager.persistAndGetId(kitchen("Kitchen " + lines), Long.class);
+            OcrUpload upload = entityManager.persist(OcrUpload.builder()
+                    .kitchenId(kitchenId)
+                    .uploadedBy(userId)
+                    .documentType(OcrUpload.DocumentType.BILL)
+                    .status(OcrUpload.ProcessingStatus.COMPLETED)
+                    .build());
+            entityManager.flush();
+            entityManager.clear();
+
+            statements.set(0);
+            ConfirmItemsResponseDTO response = pantryService.confirmAndSaveItems(request(upload.getId(), lines));
+            entityManager.flush();
+            int issued = statements.get();
+
+            // Every line is the second purchase of a product, so half as many groups as lines
+            assertThat(response.getItemsCreated()).isEqualTo(lines);
+            assertThat(response.getGroupsCreated()).isEqualTo(lines / 2);
+            assertThat(issued).isLessThan(20);
+
+            entityManager.clear();
+            List<Inventory> groups = entityManager.getEntityManager()
+                    .createQuery("SELECT i FROM Inventory i WHERE i.kitchenId = :kitchenId", Inventory.class)
+                    .setParameter("kitchenId", kitchenId)
+                    .getResultList();
+            assertThat(groups).hasSize(lines / 2);
+            assertThat(groups).allSatisfy(group -> {
+                assertThat(group.getItemCount()).isEqualTo(2);
+                assertThat(group.getTotalQuantity()).isEqualTo(5L);
+            });
+        }
+    }
+
+    private ConfirmItemsRequestDto request(Long uploadId, int lines) {
+        ConfirmItemsRequestDto request = new ConfirmItemsRequestDto();
+        request.setOcrUploadId(uploadId);
+        List<ConfirmItemsRequestDto.ConfirmedItemDto> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            ConfirmItemsRequestDto.ConfirmedItemDto item = new ConfirmItemsRequestDto.ConfirmedItemDto();
+            item.setRawName(productName(i / 2));
+            item.setCanonicalName(productName(i / 2));
+            item.setCategoryName((i / 2) % 3 == 0 ? "Dairy" : "Produce");
+            item.setUnitName("piece");
+            item.setStorageType("Fridge");
+            item.setQuantity(i % 2 == 0 ? 2.0 : 3.0);
+            item.setExpiryDate("2030-01-01");
+            items.add(item);
+        }
+        request.setItems(items);
+        return request;
+    }
+
+    // Normalization strips digits, so product names are spelled out in letters
+    private String productName(int index) {
+        StringBuilder name = new StringBuilder("product ");
+        do {
+            name.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return name.toString();
+    }
+
+    private Kitchen kitchen(String name) {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName(name);
+        return kitchen;
+    }
+}
@@ -0,0 +1,161 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.dto.ConsumptionActivityView;
+import com.innogent.pantry_mind.entity.ConsumptionEvent;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.entity.Unit;
+import com.innogent.pantry_mind.repository.KitchenRepository;
+import com.innogent.pantry_mind.repository.UnitRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Compaction keeps the analytics totals intact while the history read shrinks to a fixed number of statements
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ConsumptionRollupService.class, ConsumptionHistoryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConsumptionRollupServiceTest {
+
+    private static final int ITEMS = 10;
+    private static final int DAYS = 120;
+    private static final int[] HOURS = {9, 13, 19};
+
+    @Autowired
+    private ConsumptionRollupService consumptionRollupService;
+
+    @Autowired
+    private ConsumptionHistoryService consumptionHistoryService;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void compactionPreservesTotalsAndPrunesRawEvents() {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName("Rollups");
+        kitchen = kitchenRepository.save(kitchen);
+        Unit unit = new Unit();
+        unit.setName("litre");
+        unit = unitRepository.save(unit);
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> events = new ArrayList<>();
+        for (int day = 1; day <= DAYS; day++) {
+            for (int item = 0; item < ITEMS; item++) {
+                for (int hour : HOURS) {
+                    ConsumptionEvent.EventReason reason = hour == 19 ? ConsumptionEvent.EventReason.EXPIRED_REMOVED
+                            : ConsumptionEvent.EventReason.CONSUMED;
+                    events.add(new Object[]{"item " + (char) ('a' + item), BigDecimal.valueOf(item + 1), unit.getId(),
+                            kitchen.getId(), reason.name(), Timestamp.valueOf(today.minusDays(day).atTime(hour, 0))});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO consumption_events " +
+                "(canonical_name, quantity_consumed, unit_id, kitchen_id, reason, created_at) VALUES (?, ?, ?, ?, ?, ?)", events);
+
+        // A Monday start keeps the window aligned with the weekly buckets
+        LocalDateTime since = ConsumptionRollupService.mondayOf(today.minusDays(90)).atStartOfDay();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<ConsumptionActivityView> raw = consumptionHistoryService.getActivitySince(kitchen.getId(), since);
+
+        ReflectionTestUtils.setField(consumptionRollupService, "pruneRawEvents", true);
+        ReflectionTestUtils.setField(consumptionRollupService, "dailyRetentionDays", 45);
+        int written = consumptionRollupService.compact(today);
+
+        statistics.clear();
+        List<ConsumptionActivityView> compacted = consumptionHistoryService.getActivitySince(kitchen.getId(), since);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(written).isPositive();
+        assertThat(statements).isEqualTo(3);
+        assertThat(compacted.size()).isLessThan(raw.size() / 2);
+        assertThat(totals(compacted)).isEqualTo(totals(raw));
+        assertThat(compacted).extracting(ConsumptionActivityView::getGranularity).contains("EVENT", "DAILY", "WEEKLY");
+        assertThat(compacted).allSatisfy(line -> assertThat(line.getUnitName()).isEqualTo("litre"));
+
+        // Only the tail inside the horizon is still stored as raw events
+        Long remaining = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM consumption_events WHERE kitchen_id = ?",
+                Long.class, kitchen.getId());
+        assertThat(remaining).isEqualTo(30L * ITEMS * HOURS.length);
+
+        // A second run finds nothing left to roll up
+        assertThat(consumptionRollupService.compact(today)).isZero();
+        assertThat(totals(consumptionHistoryService.getActivitySince(kitchen.getId(), since))).isEqualTo(totals(raw));
+    }
+
+    @Test
+    void lateEventsBelowTheWatermarkAreReadRawThenRolledUp() {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName("Late rollups");
+        kitchen = kitchenRepository.save(kitchen);
+        LocalDate today = LocalDate.now();
+        ReflectionTestUtils.setField(consumptionRollupService, "pruneRawEvents", true);
+        ReflectionTestUtils.setField(consumptionRollupService, "dailyRetentionDays", 45);
+        consumptionRollupService.compact(today);
+
+        // Back-dated after their days were compacted: one still kept per day, one only kept per week
+        List<Object[]> events = new ArrayList<>();
+        for (int daysAgo : new int[]{10, 35, 100}) {
+            events.add(new Object[]{"flour", BigDecimal.valueOf(daysAgo), kitchen.getId(), "CONSUMED",
+                    Timestamp.valueOf(today.minusDays(daysAgo).atTime(12, 0))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO consumption_events " +
+                "(canonical_name, quantity_consumed, kitchen_id, reason, created_at) VALUES (?, ?, ?, ?, ?)", events);
+
+        LocalDateTime since = ConsumptionRollupService.mondayOf(today.minusDays(120)).atStartOfDay();
+        List<ConsumptionActivityView> before = consumptionHistoryService.getActivitySince(kitchen.getId(), since);
+        assertThat(before).hasSize(3).extracting(ConsumptionActivityView::getGranularity).containsOnly("EVENT");
+
+        assertThat(consumptionRollupService.compact(today)).isPositive();
+
+        List<ConsumptionActivityView> after = consumptionHistoryService.getActivitySince(kitchen.getId(), since);
+        assertThat(totals(after)).isEqualTo(totals(before));
+        assertThat(after).extracting(ConsumptionActivityView::getGranularity).containsExactlyInAnyOrder("EVENT", "DAILY", "WEEKLY");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM consumption_events WHERE kitchen_id = ?",
+                Long.class, kitchen.getId())).isEqualTo(1L);
+        assertThat(consumptionRollupService.compact(today)).isZero();
+    }
+
+    private Map<String, String> totals(List<ConsumptionActivityView> activity) {
+        Map<String, BigDecimal> quantities = new TreeMap<>();
+        Map<String, Long> counts = new TreeMap<>();
+        for (ConsumptionActivityView line : activity) {
+            String key = line.getItemName() + "/" + line.getReason();
+            quantities.merge(key, line.getQuantity(), BigDecimal::add);
+            counts.merge(key, line.getEventCount(), Long::sum);
+        }
+        Map<String, String> totals = new TreeMap<>();
+        quantities.forEach((key, quantity) -> totals.put(key, quantity.stripTrailingZeros().toPlainString() + " x" + counts.get(key)));
+        return totals;
+    }
+}
@@ -0,0 +1,158 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.dto.response.ShoppingSuggestionDTO;
+import com.innogent.pantry_mind.entity.ConsumptionEvent;
+import com.innogent.pantry_mind.entity.ConsumptionItemStats;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.repository.ConsumptionEventRepository;
+import com.innogent.pantry_mind.repository.ConsumptionItemStatsRepository;
+import com.innogent.pantry_mind.repository.KitchenRepository;
+import com.innogent.pantry_mind.service.impl.UsagePatternServiceImpl;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Incremental stats match a full recomputation, and the pattern read no longer grows with the event history
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ConsumptionStatsService.class, UsagePatternServiceImpl.class, ReferenceDataService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConsumptionStatsServiceTest {
+
+    private static final int ITEMS = 40;
+    private static final int EVENTS_PER_ITEM = 50;
+
+    @Autowired
+    private ConsumptionStatsService consumptionStatsService;
+
+    @Autowired
+    private UsagePatternServiceImpl usagePatternService;
+
+    @Autowired
+    private ConsumptionItemStatsRepository statsRepository;
+
+    @Autowired
+    private ConsumptionEventRepository consumptionEventRepository;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void runningGapStatisticsMatchDirectComputation() {
+        Long kitchenId = kitchen("Welford").getId();
+        Random random = new Random(7);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(60);
+
+        List<LocalDateTime> times = new ArrayList<>();
+        LocalDateTime at = start;
+        for (int i = 0; i < EVENTS_PER_ITEM; i++) {
+            at = at.plusMinutes(60 + random.nextInt(3 * 24 * 60));
+            times.add(at);
+            consumptionStatsService.record(kitchenId, "milk", BigDecimal.ONE, null, at);
+        }
+        // A back-dated event before the first one extends the series at the front
+        LocalDateTime earliest = start.minusDays(2);
+        times.add(0, earliest);
+        consumptionStatsService.record(kitchenId, "milk", BigDecimal.ONE, null, earliest);
+
+        ConsumptionItemStats stats = statsRepository.findActiveSince(kitchenId, start).get(0);
+        List<Double> gaps = new ArrayList<>();
+        for (int i = 1; i < times.size(); i++) {
+            gaps.add(Duration.between(times.get(i - 1), times.get(i)).toMillis() / 86_400_000d);
+        }
+        double mean = gaps.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double variance = gaps.stream().mapToDouble(gap -> (gap - mean) * (gap - mean)).sum() / (gaps.size() - 1);
+
+        assertThat(stats.getEventCount()).isEqualTo(times.size());
+        assertThat(stats.getQuantitySum()).isEqualByComparingTo(BigDecimal.valueOf(times.size()));
+        assertThat(stats.getGapMeanDays()).isCloseTo(mean, within(1e-9));
+        assertThat(stats.getGapVarianceDays()).isCloseTo(variance, within(1e-9));
+
+        // An event inside the series keeps the mean exact
+        consumptionStatsService.record(kitchenId, "milk", BigDecimal.ONE, null, times.get(10).plusMinutes(1));
+        stats = statsRepository.findActiveSince(kitchenId, start).get(0);
+        double span = Duration.between(times.get(0), times.get(times.size() - 1)).toMillis() / 86_400_000d;
+        assertThat(stats.getGapMeanDays()).isCloseTo(span / times.size(), within(1e-9));
+    }
+
+    @Test
+    void patternReadIsOneStatementAndRebuildMatchesIncrementalRows() {
+        Kitchen kitchen = kitchen("Patterns");
+        LocalDateTime now = LocalDateTime.now();
+        for (int item = 0; item < ITEMS; item++) {
+            String name = "item " + (char) ('a' + item % 18) + (char) ('a' + item / 18);
+            List<ConsumptionEvent> events = new ArrayList<>();
+            for (int i = 0; i < EVENTS_PER_ITEM; i++) {
+                events.add(ConsumptionEvent.builder().canonicalName(name).quantityConsumed(BigDecimal.valueOf(2))
+                        .kitchen(kitchen).reason(ConsumptionEvent.EventReason.CONSUMED).build());
+            }
+            for (ConsumptionEvent event : consumptionEventRepository.saveAll(events)) {
+                consumptionStatsService.record(kitchen.getId(), name, event.getQuantityConsumed(), null, event.getCreatedAt());
+            }
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ShoppingSuggestionDTO> suggestions = usagePatternService.getDailyPatternSuggestions(kitchen.getId(), List.of());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(suggestions).hasSize(4).allSatisfy(suggestion ->
+                assertThat(suggestion.getConfidenceScore()).isEqualByComparingTo("0.9"));
+
+        List<ConsumptionItemStats> incremental = statsRepository.findActiveSince(kitchen.getId(), now.minusDays(1));
+        consumptionStatsService.rebuild();
+        List<ConsumptionItemStats> rebuilt = statsRepository.findActiveSince(kitchen.getId(), now.minusDays(1));
+        assertThat(rebuilt).hasSize(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            assertThat(rebuilt.get(i).getEventCount()).isEqualTo(incremental.get(i).getEventCount());
+            assertThat(rebuilt.get(i).getQuantitySum()).isEqualByComparingTo(incremental.get(i).getQuantitySum());
+            assertThat(rebuilt.get(i).getGapMeanDays()).isCloseTo(incremental.get(i).getGapMeanDays(), within(1e-6));
+        }
+    }
+
+    @Test
+    void startupBackfillRebuildsRowsWhenTheTableIsEmpty() {
+        Kitchen kitchen = kitchen("Backfill");
+        List<ConsumptionEvent> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(ConsumptionEvent.builder().canonicalName("rice").quantityConsumed(BigDecimal.valueOf(5))
+                    .kitchen(kitchen).reason(ConsumptionEvent.EventReason.CONSUMED).build());
+        }
+        consumptionEventRepository.saveAll(events);
+        statsRepository.deleteAllInBatch();
+
+        consumptionStatsService.backfillIfEmpty();
+
+        List<ConsumptionItemStats> rows = statsRepository.findActiveSince(kitchen.getId(), LocalDateTime.now().minusDays(1));
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.getEventCount()).isEqualTo(3);
+            assertThat(row.getQuantitySum()).isEqualByComparingTo("15");
+        });
+    }
+
+    private Kitchen kitchen(String name) {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName(name);
+        return kitchenRepository.save(kitchen);
+    }
+}
@@ -0,0 +1,158 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.config.SuggestionExecutorConfig;
+import com.innogent.pantry_mind.dto.response.ShoppingListItemResponseDTO;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.entity.ShoppingList;
+import com.innogent.pantry_mind.entity.ShoppingListItem;
+import com.innogent.pantry_mind.entity.SuggestionRunCheckpoint;
+import com.innogent.pantry_mind.repository.KitchenRepository;
+import com.innogent.pantry_mind.repository.ShoppingListItemRepository;
+import com.innogent.pantry_mind.repository.ShoppingListRepository;
+import com.innogent.pantry_mind.repository.SuggestionRunCheckpointRepository;
+import com.innogent.pantry_mind.service.impl.ScheduledSuggestionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// The daily job touches each kitchen's list with a fixed number of statements and survives failures and restarts
+@DataJpaTest
+@Import({ScheduledSuggestionService.class, SuggestionExecutorConfig.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailySuggestionJobTest {
+
+    private static final int SUGGESTIONS = 300;
+
+    @MockitoBean
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private ScheduledSuggestionService scheduledSuggestionService;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    @Autowired
+    private ShoppingListRepository shoppingListRepository;
+
+    @Autowired
+    private ShoppingListItemRepository shoppingListItemRepository;
+
+    @Autowired
+    private SuggestionRunCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void runAddsNewSuggestionsOncePerKitchen() {
+        jdbcTemplate.update("DELETE FROM suggestion_run_checkpoints");
+        List<Kitchen> kitchens = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            kitchens.add(kitchen("Daily " + i));
+        }
+        Kitchen withList = kitchens.get(0);
+        Kitchen broken = kitchens.get(1);
+        ShoppingList existing = shoppingListRepository.save(ShoppingList.builder().listType(ShoppingList.ListType.DAILY)
+                .kitchen(withList).status(ShoppingList.ListStatus.ACTIVE).build());
+        shoppingListItemRepository.save(ShoppingListItem.builder().shoppingList(existing).canonicalName("item-0")
+                .status(ShoppingListItem.ItemStatus.PENDING).build());
+
+        when(suggestionService.generateRuleSuggestions(anyLong())).thenReturn(suggestions(SUGGESTIONS));
+        when(suggestionService.generateRuleSuggestions(broken.getId())).thenThrow(new RuntimeException("AI service down"));
+
+        LocalDate runDate = LocalDate.of(2026, 5, 1);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        int processed = scheduledSuggestionService.runFor(runDate);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(processed).isEqualTo(kitchens.size());
+        // Per kitchen: list lookup, list insert, pending names, checkpoint update; nothing scales with suggestions
+        assertThat(statements).isLessThanOrEqualTo(4L + 4L * kitchens.size());
+        assertThat(pendingNames(withList)).hasSize(SUGGESTIONS).doesNotHaveDuplicates();
+        assertThat(pendingNames(kitchens.get(2))).hasSize(SUGGESTIONS);
+        assertThat(shoppingListRepository.findByKitchenIdAndListType(broken.getId(), ShoppingList.ListType.DAILY)).isEmpty();
+        assertThat(checkpointRepository.countByRunDateAndStatus(runDate, SuggestionRunCheckpoint.Status.DONE)).isEqualTo(5);
+        assertThat(checkpointRepository.countByRunDateAndStatus(runDate, SuggestionRunCheckpoint.Status.FAILED)).isEqualTo(1);
+
+        // Running the same date again finds no pending kitchens
+        assertThat(scheduledSuggestionService.runFor(runDate)).isZero();
+        verify(suggestionService, times(kitchens.size())).generateRuleSuggestions(anyLong());
+    }
+
+    @Test
+    void restartResumesPendingKitchensOnly() {
+        jdbcTemplate.update("DELETE FROM suggestion_run_checkpoints");
+        Kitchen done = kitchen("Resume done");
+        Kitchen pending = kitchen("Resume pending");
+        LocalDate today = LocalDate.now();
+        checkpointRepository.saveAll(List.of(
+                SuggestionRunCheckpoint.builder().runDate(today).kitchenId(done.getId())
+                        .status(SuggestionRunCheckpoint.Status.DONE).itemsAdded(3).updatedAt(LocalDateTime.now()).build(),
+                SuggestionRunCheckpoint.builder().runDate(today).kitchenId(pending.getId())
+                        .status(SuggestionRunCheckpoint.Status.PENDING).itemsAdded(0).updatedAt(LocalDateTime.now()).build()));
+        when(suggestionService.generateRuleSuggestions(anyLong())).thenReturn(suggestions(2));
+
+        scheduledSuggestionService.resumeInterruptedRun();
+
+        verify(suggestionService).generateRuleSuggestions(pending.getId());
+        verify(suggestionService, never()).generateRuleSuggestions(done.getId());
+        assertThat(pendingNames(pending)).hasSize(2);
+        assertThat(checkpointRepository.existsByRunDateAndStatus(today, SuggestionRunCheckpoint.Status.PENDING)).isFalse();
+    }
+
+    private Kitchen kitchen(String name) {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName(name);
+        return kitchenRepository.save(kitchen);
+    }
+
+    private List<String> pendingNames(Kitchen kitchen) {
+        ShoppingList list = shoppingListRepository.findByKitchenIdAndListType(kitchen.getId(), ShoppingList.ListType.DAILY)
+                .orElseThrow();
+        return shoppingListItemRepository.findCanonicalNamesByShoppingListIdAndStatus(list.getId(), ShoppingListItem.ItemStatus.PENDING);
+    }
+
+    // Includes a duplicate name, as rule and AI suggestions can overlap
+    private List<ShoppingListItemResponseDTO> suggestions(int count) {
+        List<ShoppingListItemResponseDTO> suggestions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ShoppingListItemResponseDTO suggestion = new ShoppingListItemResponseDTO();
+            suggestion.setCanonicalName("item-" + i);
+            suggestion.setSuggestedQuantity(BigDecimal.ONE);
+            suggestion.setSuggestionReason("Low stock");
+            suggestion.setConfidenceScore(new BigDecimal("0.8"));
+            suggestions.add(suggestion);
+        }
+        suggestions.add(suggestions.get(0));
+        return suggestions;
+    }
+}
@@ -0,0 +1,166 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innogent.pantry_mind.config.OcrJobExecutorConfig;
+import com.innogent.pantry_mind.config.PythonCallMetrics;
+import com.innogent.pantry_mind.config.PythonHttpClientConfig;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Bytes a 12 MP phone photo puts on the wire to the OCR service: passed through by default, downscaled and
+// re-encoded once preprocessing is switched on
+@DataJpaTest(properties = "ocr.cache.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OCRService.class, OcrResultCache.class, ImagePreprocessor.class, OcrPageMerger.class, OcrJobExecutorConfig.class,
+        PythonHttpClientConfig.class, PythonCallMetrics.class, ImagePreprocessingTest.Beans.class})
+class ImagePreprocessingTest {
+
+    private static final String RESPONSE = "{\"request_id\":\"stub\",\"raw_ocr_text\":\"\",\"items\":[]}";
+
+    private static HttpServer server;
+    private static final AtomicLong bytesReceived = new AtomicLong();
+    private static byte[] photo;
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private OCRService ocrService;
+
+    @Autowired
+    private ImagePreprocessor imagePreprocessor;
+
+    @DynamicPropertySource
+    static void ocrServer(DynamicPropertyRegistry registry) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            long read = 0;
+            try (InputStream body = exchange.getRequestBody()) {
+                byte[] buffer = new byte[64 * 1024];
+                int n;
+                while ((n = body.read(buffer)) != -1) {
+                    read += n;
+                }
+            }
+            bytesReceived.addAndGet(read);
+            byte[] response = RESPONSE.getBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        registry.add("ocr.api.base-url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @BeforeAll
+    static void createPhoto() throws IOException {
+        photo = receiptPhoto(4032, 3024);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void photosArePassedThroughUnlessPreprocessingIsEnabled() {
+        assertThat(bytesSent()).isGreaterThanOrEqualTo(photo.length);
+
+        ReflectionTestUtils.setField(imagePreprocessor, "enabled", true);
+        try {
+            assertThat(bytesSent()).isLessThan(photo.length / 4);
+        } finally {
+            ReflectionTestUtils.setField(imagePreprocessor, "enabled", false);
+        }
+    }
+
+    private long bytesSent() {
+        bytesReceived.set(0);
+        upload();
+        return bytesReceived.get();
+    }
+
+    private void upload() {
+        MockMultipartFile file = new MockMultipartFile("image", "bill.jpg", "image/jpeg", photo);
+        ocrService.processBill(file, 1L, 1L);
+    }
+
+    // Paper with printed lines over sensor noise, encoded the way a phone camera would
+    private static byte[] receiptPhoto(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int shade = 225 + random.nextInt(30);
+                image.setRGB(x, y, new Color(shade, shade - 5, shade - 15).getRGB());
+            }
+        }
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.DARK_GRAY);
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 72));
+        for (int line = 0; line < 30; line++) {
+            g.drawString("ITEM " + line + "  MILK 1L ........ 54.00", 300, 200 + line * 90);
+        }
+        g.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.92f);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,120 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.config.AlertExecutorConfig;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.entity.Notification;
+import com.innogent.pantry_mind.repository.KitchenRepository;
+import com.innogent.pantry_mind.repository.NotificationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Due kitchens are found through next_alert_at and cost a fixed number of statements each, whatever their alert minute
+@DataJpaTest
+@Import({InventoryAlertService.class, NotificationService.class, AlertExecutorConfig.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryAlertServiceTest {
+
+    private static final int IDLE_KITCHENS = 40;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private InventoryAlertService inventoryAlertService;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void dueKitchensAreEvaluatedOnceAtAnyMinute() {
+        // 08:07 never matched the old quarter-hour cron
+        LocalDateTime now = LocalDateTime.now().toLocalDate().atTime(8, 7, 30);
+        Kitchen stocked = kitchen(8, 7, true, now.minusSeconds(30));
+        Kitchen later = kitchen(9, 0, true, now.withHour(9).withMinute(0));
+        Kitchen disabled = kitchen(8, 7, false, now.minusSeconds(30));
+        for (int i = 0; i < IDLE_KITCHENS; i++) {
+            kitchen(8, i % 8, true, now.withMinute(i % 8).withSecond(0));
+        }
+
+        Long inventoryId = jdbcTemplate.queryForObject("SELECT id FROM FINAL TABLE (INSERT INTO inventory " +
+                "(name, kitchen_id, total_quantity, item_count, min_expiry_days_alert, min_stock) VALUES ('Milk', ?, 3, 4, 3, 5))",
+                Long.class, stocked.getId());
+        for (int offsetDays : new int[]{-2, 1, 3, 10}) {
+            jdbcTemplate.update("INSERT INTO inventory_item (inventory_id, quantity, expiry_date) VALUES (?, 1, ?)",
+                    inventoryId, Timestamp.valueOf(now.toLocalDate().plusDays(offsetDays).atTime(12, 0)));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        int dispatched = inventoryAlertService.dispatchDueAlerts(now);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(dispatched).isEqualTo(1 + IDLE_KITCHENS);
+        // claim query, one slot update and one aggregate per kitchen, three alerts for the stocked kitchen
+        assertThat(statements).isLessThanOrEqualTo(1 + 2L * dispatched + 3);
+
+        assertThat(notificationRepository.findByKitchenIdOrderByCreatedAtDesc(stocked.getId()))
+                .extracting(Notification::getType, Notification::getMessage)
+                .containsExactlyInAnyOrder(
+                        tuple("EXPIRY_CRITICAL", "1 items have expired or expiring today"),
+                        tuple("EXPIRY_WARNING", "2 items expiring soon"),
+                        tuple("LOW_STOCK", "1 items are running low on stock"));
+        assertThat(notificationRepository.findByKitchenIdOrderByCreatedAtDesc(later.getId())).isEmpty();
+        assertThat(notificationRepository.findByKitchenIdOrderByCreatedAtDesc(disabled.getId())).isEmpty();
+
+        assertThat(kitchenRepository.findById(stocked.getId()).orElseThrow().getNextAlertAt())
+                .isEqualTo(now.toLocalDate().plusDays(1).atTime(8, 7));
+        assertThat(inventoryAlertService.dispatchDueAlerts(now)).isZero();
+        assertThat(inventoryAlertService.dispatchDueAlerts(now.withHour(9).withMinute(0))).isEqualTo(1);
+    }
+
+    @Test
+    void nextSlotFollowsSettings() {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setAlertTimeHour(18);
+        kitchen.setAlertTimeMinute(45);
+        LocalDateTime morning = LocalDateTime.of(2026, 3, 1, 9, 0);
+        kitchen.scheduleNextAlert(morning);
+        assertThat(kitchen.getNextAlertAt()).isEqualTo(LocalDateTime.of(2026, 3, 1, 18, 45));
+        kitchen.scheduleNextAlert(LocalDateTime.of(2026, 3, 1, 18, 45));
+        assertThat(kitchen.getNextAlertAt()).isEqualTo(LocalDateTime.of(2026, 3, 2, 18, 45));
+    }
+
+    private Kitchen kitchen(int hour, int minute, boolean enabled, LocalDateTime nextAlertAt) {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName("Kitchen " + hour + ":" + minute + " " + System.nanoTime());
+        kitchen.setAlertTimeHour(hour);
+        kitchen.setAlertTimeMinute(minute);
+        kitchen.setAlertsEnabled(enabled);
+        kitchen.setNextAlertAt(nextAlertAt);
+        return kitchenRepository.save(kitchen);
+    }
+}
@@ -0,0 +1,131 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.innogent.pantry_mind.dto.response.InventoryResponseDTO;
+import com.innogent.pantry_mind.entity.Category;
+import com.innogent.pantry_mind.entity.Inventory;
+import com.innogent.pantry_mind.entity.InventoryItem;
+import com.innogent.pantry_mind.entity.Unit;
+import com.innogent.pantry_mind.mapper.InventoryItemMapperImpl;
+import com.innogent.pantry_mind.mapper.InventoryMapperImpl;
+import com.innogent.pantry_mind.service.impl.InventoryServiceImpl;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// GET /api/inventory?kitchenId= reads every group with its item count and earliest expiry in one projection query
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({InventoryServiceImpl.class, InventoryMapperImpl.class, InventoryItemMapperImpl.class,
+        InventoryTotalsService.class, BatchConsumeService.class, ReferenceDataService.class,
+        ConsumptionStatsService.class})
+class InventoryListingTest {
+
+    private static final int[] GROUP_COUNTS = {10, 100, 400};
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Test
+    void projectionListingStatementCountStaysFlat() {
+        ReflectionTestUtils.setField(inventoryService, "projectionListingEnabled", true);
+
+        long kitchenId = 1L;
+        for (int groups : GROUP_COUNTS) {
+            seedKitchen(kitchenId, groups);
+            long statements = countStatements(kitchenId, groups);
+            assertThat(statements).isEqualTo(1);
+            kitchenId++;
+        }
+    }
+
+    @Test
+    void legacyListingStatementCountGrowsWithGroups() {
+        ReflectionTestUtils.setField(inventoryService, "projectionListingEnabled", false);
+
+        long kitchenId = 100L;
+        for (int groups : GROUP_COUNTS) {
+            seedKitchen(kitchenId, groups);
+            long statements = countStatements(kitchenId, groups);
+            assertThat(statements).isGreaterThan(groups);
+            kitchenId++;
+        }
+    }
+
+    private long countStatements(long kitchenId, int groups) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<InventoryResponseDTO> result = inventoryService.getInventoryItemsByKitchen(kitchenId);
+
+        assertThat(result).hasSize(groups);
+        assertThat(result).allSatisfy(dto -> {
+            assertThat(dto.getItemCount()).isEqualTo(2);
+            // The sooner of the two batches, five days out
+            assertThat(dto.getEarliestExpiry().getTime() - System.currentTimeMillis()).isBetween(3L * DAY, 6L * DAY);
+            assertThat(dto.getCategoryName()).isEqualTo("Dairy");
+            assertThat(dto.getUnitName()).isEqualTo("gm");
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedKitchen(long kitchenId, int groups) {
+        Category category = new Category();
+        category.setName("Dairy");
+        entityManager.persist(category);
+
+        Unit unit = new Unit();
+        unit.setName("gm");
+        unit.setType("weight");
+        entityManager.persist(unit);
+
+        for (int i = 0; i < groups; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setName("item " + alphaName(i));
+            inventory.setCategory(category);
+            inventory.setUnit(unit);
+            inventory.setKitchenId(kitchenId);
+            inventory.setTotalQuantity(200L);
+            inventory.setItemCount(2);
+            entityManager.persist(inventory);
+
+            for (int j = 1; j <= 2; j++) {
+                InventoryItem item = new InventoryItem();
+                item.setInventory(inventory);
+                item.setQuantity(100L);
+                item.setExpiryDate(new Date(System.currentTimeMillis() + j * 5 * DAY));
+                entityManager.persist(item);
+            }
+        }
+        entityManager.flush();
+    }
+
+    // Name normalization drops digits, so group names are spelled with letters only
+    private static String alphaName(int index) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return name.toString();
+    }
+}
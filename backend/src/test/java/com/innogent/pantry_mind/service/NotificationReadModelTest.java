@@ -0,0 +1,147 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.dto.response.NotificationResponseDTO;
+import com.innogent.pantry_mind.entity.Notification;
+import com.innogent.pantry_mind.repository.NotificationRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Statement counts of the per-user notification read model as a kitchen's history grows
+@DataJpaTest
+@Import({NotificationService.class, NotificationRetentionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationReadModelTest {
+
+    private static final int[] HISTORY_SIZES = {50, 500};
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRetentionService retentionService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void readModelStatementCountStaysFlat() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long kitchenId = 100L;
+        long userId = 7L;
+        for (int size : HISTORY_SIZES) {
+            List<Notification> seeded = seed(kitchenId, size, LocalDateTime.now());
+            // Every tenth notification is a membership event that members do not see
+            long memberVisible = size - size / 10;
+
+            statistics.clear();
+            List<NotificationResponseDTO> listed = notificationService.getNotificationsForUser(kitchenId, userId, "MEMBER");
+            long listStatements = statistics.getPrepareStatementCount();
+            statistics.clear();
+            long unread = notificationService.getUnreadCount(kitchenId, userId, "MEMBER");
+            long countStatements = statistics.getPrepareStatementCount();
+            statistics.clear();
+            int marked = notificationService.markAllAsRead(kitchenId, userId, "ADMIN");
+            long markStatements = statistics.getPrepareStatementCount();
+
+            assertThat(listed).hasSize((int) memberVisible).noneMatch(NotificationResponseDTO::isRead);
+            assertThat(unread).isEqualTo(memberVisible);
+            assertThat(marked).isEqualTo(size);
+            assertThat(listStatements).isEqualTo(1);
+            assertThat(countStatements).isEqualTo(1);
+            assertThat(markStatements).isEqualTo(2);
+
+            assertThat(notificationService.getUnreadCount(kitchenId, userId, "ADMIN")).isZero();
+            assertThat(notificationService.getUnreadCount(kitchenId, userId + 1, "ADMIN")).isEqualTo(size);
+
+            // Deleting hides the notification for that user only
+            notificationService.deleteForUser(seeded.get(0).getId(), userId);
+            List<NotificationResponseDTO> afterDelete = notificationService.getNotificationsForUser(kitchenId, userId, "ADMIN");
+            assertThat(afterDelete).hasSize(size - 1).allMatch(NotificationResponseDTO::isRead);
+            assertThat(notificationService.getNotificationsForUser(kitchenId, userId + 1, "ADMIN"))
+                    .hasSize(size).noneMatch(NotificationResponseDTO::isRead);
+            kitchenId++;
+        }
+    }
+
+    @Test
+    void retentionArchivesOldNotificationsWithTheirState() {
+        long kitchenId = 200L;
+        List<Notification> old = seed(kitchenId, 30, LocalDateTime.now().minusDays(120));
+        seed(kitchenId, 5, LocalDateTime.now());
+        notificationService.markAllAsRead(kitchenId, 1L, "ADMIN");
+
+        int archived = retentionService.archiveOlderThan(LocalDateTime.now().minusDays(90));
+
+        assertThat(archived).isEqualTo(30);
+        assertThat(notificationRepository.findByKitchenIdOrderByCreatedAtDesc(kitchenId)).hasSize(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications_archive WHERE kitchen_id = ?", Long.class, kitchenId))
+                .isEqualTo(30);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_user_state WHERE notification_id = ?",
+                Long.class, old.get(0).getId())).isZero();
+    }
+
+    @Test
+    void legacyElementCollectionStateIsMigrated() {
+        long kitchenId = 300L;
+        List<Notification> seeded = seed(kitchenId, 4, LocalDateTime.now());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notification_read_by (notification_id BIGINT NOT NULL, user_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notification_deleted_by (notification_id BIGINT NOT NULL, user_id BIGINT)");
+        jdbcTemplate.update("INSERT INTO notification_read_by VALUES (?, 9), (?, 9)", seeded.get(0).getId(), seeded.get(1).getId());
+        jdbcTemplate.update("INSERT INTO notification_deleted_by VALUES (?, 9)", seeded.get(1).getId());
+
+        retentionService.migrateLegacyState();
+        retentionService.migrateLegacyState();
+
+        assertThat(notificationService.getUnreadCount(kitchenId, 9L, "ADMIN")).isEqualTo(2);
+        assertThat(notificationService.getNotificationsForUser(kitchenId, 9L, "ADMIN"))
+                .hasSize(3)
+                .filteredOn(NotificationResponseDTO::isRead).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_read_by", Long.class)).isZero();
+    }
+
+    private List<Notification> seed(long kitchenId, int count, LocalDateTime createdAt) {
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            notifications.add(Notification.builder()
+                    .kitchenId(kitchenId)
+                    .type(i % 10 == 0 ? "MEMBER_JOINED" : "LOW_STOCK")
+                    .title("Alert")
+                    .message("Notification " + i)
+                    .severity(Notification.NotificationSeverity.INFO)
+                    .build());
+        }
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        // created_at is set by Hibernate on insert, so back-dated rows are adjusted directly
+        jdbcTemplate.update("UPDATE notifications SET created_at = ? WHERE kitchen_id = ? AND created_at > ?",
+                Timestamp.valueOf(createdAt), kitchenId, Timestamp.valueOf(createdAt.plusSeconds(1)));
+        return saved;
+    }
+}
@@ -0,0 +1,134 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.innogent.pantry_mind.dto.response.OCRResponseDto;
+
+class OcrPageMergerTest {
+
+    private final OcrPageMerger merger = new OcrPageMerger();
+
+    @Test
+    void overlapBetweenAdjacentPagesIsKeptOnce() {
+        OCRResponseDto first = page("r1", item("Milk", 1.0, 55.0, 0.9), item("Bread", 1.0, 40.0, 0.9));
+        OCRResponseDto second = page("r2", item("Bread", 1.0, 40.0, 0.9), item("Rice", 2.0, 120.0, 0.9));
+
+        OCRResponseDto merged = merger.merge(List.of(first, second));
+
+        assertThat(merged.getItems()).extracting(OCRResponseDto.OCRItemDto::getCanonicalName)
+                .containsExactly("Milk", "Bread", "Rice");
+        assertThat(merged.getRequestId()).isEqualTo("r1,r2");
+    }
+
+    @Test
+    void repeatsWithinAPageStay() {
+        OCRResponseDto first = page("r1", item("Milk", 1.0, 55.0, 0.9), item("Milk", 1.0, 55.0, 0.9));
+        // At most the two lines the previous photo ends with can be the overlap
+        OCRResponseDto second = page("r2", item("Milk", 1.0, 55.0, 0.9), item("Milk", 1.0, 55.0, 0.9),
+                item("Milk", 1.0, 55.0, 0.9));
+
+        OCRResponseDto merged = merger.merge(List.of(first, second));
+
+        assertThat(merged.getItems()).hasSize(3);
+    }
+
+    @Test
+    void repeatAwayFromThePageEdgesIsASecondPurchase() {
+        OCRResponseDto first = page("r1", item("Bread", 1.0, 40.0, 0.9), item("Milk", 1.0, 55.0, 0.9));
+        OCRResponseDto second = page("r2", item("Rice", 2.0, 120.0, 0.9), item("Bread", 1.0, 40.0, 0.9));
+
+        OCRResponseDto merged = merger.merge(List.of(first, second));
+
+        assertThat(merged.getItems()).extracting(OCRResponseDto.OCRItemDto::getCanonicalName)
+                .containsExactly("Bread", "Milk", "Rice", "Bread");
+    }
+
+    @Test
+    void overlapIsTheLongestRunEndingOnePageAndStartingTheNext() {
+        OCRResponseDto first = page("r1", item("Bread", 1.0, 40.0, 0.9), item("Milk", 1.0, 55.0, 0.9),
+                item("Eggs", 12.0, 84.0, 0.9));
+        OCRResponseDto second = page("r2", item("Milk", 1.0, 55.0, 0.9), item("Eggs", 12.0, 84.0, 0.9),
+                item("Bread", 1.0, 40.0, 0.9));
+
+        OCRResponseDto merged = merger.merge(List.of(first, second));
+
+        assertThat(merged.getItems()).extracting(OCRResponseDto.OCRItemDto::getCanonicalName)
+                .containsExactly("Bread", "Milk", "Eggs", "Bread");
+    }
+
+    @Test
+    void sameNameWithDifferentQuantityOrPriceIsNotOverlap() {
+        OCRResponseDto first = page("r1", item("Bread", 1.0, 40.0, 0.9));
+        OCRResponseDto second = page("r2", item("Bread", 2.0, 80.0, 0.9));
+
+        assertThat(merger.merge(List.of(first, second)).getItems()).hasSize(2);
+    }
+
+    @Test
+    void oneMisreadCharacterIsToleratedOnLongerNames() {
+        OCRResponseDto first = page("r1", item("Paneer", 1.0, 90.0, 0.9));
+        OCRResponseDto second = page("r2", item("Paner", 1.0, 90.0, 0.9));
+
+        assertThat(merger.merge(List.of(first, second)).getItems()).hasSize(1);
+    }
+
+    @Test
+    void twoMisreadCharactersAreNotTolerated() {
+        OCRResponseDto first = page("r1", item("Paneer", 1.0, 90.0, 0.9));
+        OCRResponseDto second = page("r2", item("Panxxr", 1.0, 90.0, 0.9));
+
+        assertThat(merger.merge(List.of(first, second)).getItems()).hasSize(2);
+    }
+
+    @Test
+    void shortNamesMustMatchExactly() {
+        // "rice" and "rica" are one edit apart but too short to be treated as a misread
+        OCRResponseDto first = page("r1", item("Rice", 1.0, 60.0, 0.9));
+        OCRResponseDto second = page("r2", item("Rica", 1.0, 60.0, 0.9));
+
+        assertThat(merger.merge(List.of(first, second)).getItems()).hasSize(2);
+    }
+
+    @Test
+    void higherConfidenceReadingWins() {
+        OCRResponseDto first = page("r1", item("Paner", 1.0, 90.0, 0.6), item("Bread", 1.0, 40.0, 0.95));
+        OCRResponseDto second = page("r2", item("Paneer", 1.0, 90.0, 0.9), item("Bread", 1.0, 40.0, 0.7));
+
+        OCRResponseDto merged = merger.merge(List.of(first, second));
+
+        assertThat(merged.getItems()).extracting(OCRResponseDto.OCRItemDto::getCanonicalName)
+                .containsExactly("Paneer", "Bread");
+        assertThat(merged.getItems()).extracting(OCRResponseDto.OCRItemDto::getConfidence)
+                .containsExactly(0.9, 0.95);
+    }
+
+    @Test
+    void overlapIsOnlyCheckedAgainstThePreviousPage() {
+        OCRResponseDto first = page("r1", item("Bread", 1.0, 40.0, 0.9));
+        OCRResponseDto second = page("r2", item("Milk", 1.0, 55.0, 0.9));
+        OCRResponseDto third = page("r3", item("Bread", 1.0, 40.0, 0.9));
+
+        assertThat(merger.merge(List.of(first, second, third)).getItems()).hasSize(3);
+    }
+
+    private static OCRResponseDto page(String requestId, OCRResponseDto.OCRItemDto... items) {
+        OCRResponseDto page = new OCRResponseDto();
+        page.setRequestId(requestId);
+        page.setItems(List.of(items));
+        return page;
+    }
+
+    private static OCRResponseDto.OCRItemDto item(String name, Double quantity, Double price, Double confidence) {
+        OCRResponseDto.OCRItemDto item = new OCRResponseDto.OCRItemDto();
+        item.setRawName(name);
+        item.setCanonicalName(name);
+        item.setQuantity(quantity);
+        item.setPrice(price);
+        item.setConfidence(confidence);
+        return item;
+    }
+}
@@ -0,0 +1,192 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innogent.pantry_mind.config.OcrJobExecutorConfig;
+import com.innogent.pantry_mind.config.PythonCallMetrics;
+import com.innogent.pantry_mind.config.PythonHttpClientConfig;
+import com.innogent.pantry_mind.entity.OcrUpload;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Bill uploads are streamed from disk to the OCR server: 50 concurrent 10 MB uploads never hold an image on the heap
+@DataJpaTest(properties = {"python.http.ocr.max-connections=50", "ocr.cache.enabled=false", "ocr.preprocess.enabled=false"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OCRService.class, OcrResultCache.class, ImagePreprocessor.class, OcrPageMerger.class, OcrJobExecutorConfig.class,
+        PythonHttpClientConfig.class, PythonCallMetrics.class, OcrUploadStreamingTest.Beans.class})
+class OcrUploadStreamingTest {
+
+    private static final int UPLOADS = 50;
+    private static final int IMAGE_BYTES = 10 * 1024 * 1024;
+    private static final String RESPONSE = "{\"request_id\":\"stub\",\"raw_ocr_text\":\"\",\"items\":[]}";
+
+    private static HttpServer server;
+    private static Path image;
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private OCRService ocrService;
+
+    @DynamicPropertySource
+    static void ocrServer(DynamicPropertyRegistry registry) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(UPLOADS));
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(java.io.OutputStream.nullOutputStream());
+            }
+            byte[] response = RESPONSE.getBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        registry.add("ocr.api.base-url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @BeforeAll
+    static void createImage() throws IOException {
+        image = Files.createTempFile("ocr-upload-", ".jpg");
+        Files.write(image, new byte[IMAGE_BYTES]);
+    }
+
+    @AfterAll
+    static void cleanUp() throws IOException {
+        server.stop(0);
+        Files.deleteIfExists(image);
+    }
+
+    @Test
+    void streamedForwardingDoesNotMaterializeTheImage() throws Exception {
+        ReflectionTestUtils.setField(ocrService, "streamingEnabled", true);
+        assertThat(allocatedPerUpload()).isLessThan(IMAGE_BYTES / 4);
+    }
+
+    @Test
+    void inMemoryForwardingAllocatesTheWholeImage() throws Exception {
+        ReflectionTestUtils.setField(ocrService, "streamingEnabled", false);
+        assertThat(allocatedPerUpload()).isGreaterThanOrEqualTo(IMAGE_BYTES);
+    }
+
+    // Average bytes allocated by the uploading threads, measured from inside each thread
+    private long allocatedPerUpload() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ExecutorService pool = Executors.newFixedThreadPool(UPLOADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < UPLOADS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    long before = threads.getCurrentThreadAllocatedBytes();
+                    OCRService.OCRProcessingResult result = ocrService.processBill(new DiskMultipartFile(image), 1L, 1L);
+                    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+                    assertThat(result.getOcrUpload().getStatus()).isEqualTo(OcrUpload.ProcessingStatus.COMPLETED);
+                    return allocated;
+                }));
+            }
+            start.countDown();
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return total / UPLOADS;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Stands in for a servlet multipart part spooled to disk by the container
+    private static class DiskMultipartFile implements MultipartFile {
+        private final Path path;
+
+        DiskMultipartFile(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public String getName() {
+            return "image";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "bill.jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public long getSize() {
+            return IMAGE_BYTES;
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(java.io.File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.innogent.pantry_mind.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innogent.pantry_mind.dto.response.ShoppingListItemResponseDTO;
+import com.innogent.pantry_mind.entity.Inventory;
+import com.innogent.pantry_mind.entity.Kitchen;
+import com.innogent.pantry_mind.entity.SuggestionRule;
+import com.innogent.pantry_mind.entity.Unit;
+import com.innogent.pantry_mind.repository.InventoryRepository;
+import com.innogent.pantry_mind.repository.KitchenRepository;
+import com.innogent.pantry_mind.repository.SuggestionRuleRepository;
+import com.innogent.pantry_mind.repository.UnitRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Both evaluation modes agree and cost a fixed number of queries, however many groups and rules a kitchen has
+@DataJpaTest
+@Import(SuggestionRuleEngine.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SuggestionRuleEngineTest {
+
+    private static final int GROUPS = 200;
+
+    @Autowired
+    private SuggestionRuleEngine suggestionRuleEngine;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private SuggestionRuleRepository suggestionRuleRepository;
+
+    @Autowired
+    private KitchenRepository kitchenRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void memoryAndSqlModesProduceTheSameSuggestions() {
+        Kitchen kitchen = new Kitchen();
+        kitchen.setName("Rules");
+        kitchen = kitchenRepository.save(kitchen);
+        Unit unit = new Unit();
+        unit.setName("kg");
+        unit = unitRepository.save(unit);
+
+        List<Inventory> unsaved = new ArrayList<>();
+        for (int i = 0; i < GROUPS; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setName("Item " + (char) ('a' + i % 26) + (char) ('a' + i / 26));
+            inventory.setKitchenId(kitchen.getId());
+            inventory.setUnit(unit);
+            inventory.setTotalQuantity((long) (i % 20));
+            unsaved.add(inventory);
+        }
+        List<Inventory> groups = inventoryRepository.saveAll(unsaved);
+
+        List<SuggestionRule> rules = new ArrayList<>();
+        for (int i = 0; i < GROUPS; i += 4) {
+            // Raised thresholds on every fourth group; legacy rules without is_active still apply
+            rules.add(SuggestionRule.builder().canonicalName(groups.get(i).getNormalizedName()).kitchen(kitchen)
+                    .reorderThreshold(BigDecimal.valueOf(15)).suggestedQuantity(BigDecimal.valueOf(3))
+                    .isActive(i % 8 == 0 ? true : null).build());
+        }
+        // An inactive rule is ignored, so the default threshold of 5 applies to that group
+        rules.add(SuggestionRule.builder().canonicalName(groups.get(1).getNormalizedName()).kitchen(kitchen)
+                .reorderThreshold(BigDecimal.valueOf(100)).suggestedQuantity(BigDecimal.valueOf(7)).isActive(false).build());
+        suggestionRuleRepository.saveAll(rules);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ReflectionTestUtils.setField(suggestionRuleEngine, "evaluationMode", "memory");
+        statistics.clear();
+        List<ShoppingListItemResponseDTO> inMemory = suggestionRuleEngine.evaluate(kitchen.getId());
+        long memoryStatements = statistics.getPrepareStatementCount();
+
+        ReflectionTestUtils.setField(suggestionRuleEngine, "evaluationMode", "sql");
+        statistics.clear();
+        List<ShoppingListItemResponseDTO> inDatabase = suggestionRuleEngine.evaluate(kitchen.getId());
+        long sqlStatements = statistics.getPrepareStatementCount();
+
+        assertThat(memoryStatements).isEqualTo(2);
+        assertThat(sqlStatements).isEqualTo(1);
+        assertThat(inDatabase).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(inMemory);
+
+        // Ruled groups (i % 4 == 0) reorder at 15 with quantity 3, the rest at the default 5 with quantity 10
+        long expected = 0;
+        for (int i = 0; i < GROUPS; i++) {
+            expected += (i % 20) <= (i % 4 == 0 ? 15 : 5) ? 1 : 0;
+        }
+        assertThat(inMemory).hasSize((int) expected).allMatch(s -> "kg".equals(s.getUnitName()));
+        assertThat(inMemory).filteredOn(s -> s.getCanonicalName().equals(groups.get(1).getName()))
+                .singleElement().extracting(ShoppingListItemResponseDTO::getSuggestedQuantity).isEqualTo(BigDecimal.valueOf(10));
+    }
+}
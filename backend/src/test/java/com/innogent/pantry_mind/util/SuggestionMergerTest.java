@@ -0,0 +1,71 @@
+package com.innogent.pantry_mind.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.innogent.pantry_mind.dto.response.ShoppingListItemResponseDTO;
+
+class SuggestionMergerTest {
+
+    @Test
+    void higherPrioritySourceWinsForTheSameItem() {
+        List<ShoppingListItemResponseDTO> ai = List.of(suggestion("Onions", "AI", "0.6"));
+        List<ShoppingListItemResponseDTO> rules = List.of(suggestion("onion", "RULE", "0.9"), suggestion("Garlic", "RULE", "0.7"));
+
+        List<ShoppingListItemResponseDTO> merged = merge(List.of(ai, rules), List.of(), Integer.MAX_VALUE);
+
+        // A more confident rule suggestion does not replace the AI one, even under a different spelling
+        assertThat(merged).extracting(ShoppingListItemResponseDTO::getSuggestedBy).containsExactly("RULE", "AI");
+        assertThat(merged).extracting(ShoppingListItemResponseDTO::getCanonicalName).containsExactly("Garlic", "Onions");
+    }
+
+    @Test
+    void itemsAlreadyOnTheListAreSkipped() {
+        List<ShoppingListItemResponseDTO> rules = List.of(suggestion("Milk", "RULE", "0.8"), suggestion("Eggs", "RULE", "0.8"));
+
+        List<ShoppingListItemResponseDTO> merged = merge(List.of(rules), List.of("milk"), Integer.MAX_VALUE);
+
+        assertThat(merged).extracting(ShoppingListItemResponseDTO::getCanonicalName).containsExactly("Eggs");
+    }
+
+    @Test
+    void equalConfidenceKeepsSourcePriorityThenInputOrder() {
+        List<ShoppingListItemResponseDTO> ai = List.of(suggestion("Bread", "AI", "0.8"));
+        List<ShoppingListItemResponseDTO> rules = List.of(suggestion("Rice", "RULE", "0.8"), suggestion("Dal", "RULE", "0.8"));
+
+        List<ShoppingListItemResponseDTO> merged = merge(List.of(rules, ai), List.of(), Integer.MAX_VALUE);
+
+        assertThat(merged).extracting(ShoppingListItemResponseDTO::getCanonicalName).containsExactly("Rice", "Dal", "Bread");
+    }
+
+    @Test
+    void limitKeepsTheMostConfidentAndSkipsExcluded() {
+        List<ShoppingListItemResponseDTO> source = List.of(
+                suggestion("Milk", "RULE", "0.5"), suggestion("Eggs", "RULE", "0.9"),
+                suggestion("milk", "RULE", "0.7"), suggestion("Bread", "RULE", "0.95"), suggestion("Rice", "RULE", "0.6"));
+
+        List<ShoppingListItemResponseDTO> top = merge(List.of(source), List.of("Bread"), 2);
+
+        // Duplicates within a source keep the more confident entry
+        assertThat(top).extracting(ShoppingListItemResponseDTO::getCanonicalName).containsExactly("Eggs", "milk");
+    }
+
+    private static List<ShoppingListItemResponseDTO> merge(List<List<ShoppingListItemResponseDTO>> sources,
+                                                           List<String> existing, int limit) {
+        return SuggestionMerger.merge(sources, s -> NameNormalizationUtil.normalizeName(s.getCanonicalName()),
+                ShoppingListItemResponseDTO::getConfidenceScore, SuggestionMerger.exclusionKeys(existing), limit);
+    }
+
+    private static ShoppingListItemResponseDTO suggestion(String name, String source, String confidence) {
+        ShoppingListItemResponseDTO suggestion = new ShoppingListItemResponseDTO();
+        suggestion.setCanonicalName(name);
+        suggestion.setSuggestedBy(source);
+        suggestion.setSuggestedQuantity(BigDecimal.ONE);
+        suggestion.setConfidenceScore(new BigDecimal(confidence));
+        return suggestion;
+    }
+}
@@ -116,7 +116,7 @@ export default function AdminDashboard() {
               {notifications.length > 0 ? (
                 <div className="space-y-2">
                   {notifications.map((notification) => {
-                    const isUnread = !notification.readByUsers?.includes(user?.id);
+                    const isUnread = !notification.read;
                     return (
                       <div key={notification.id} className={`bg-white p-3 rounded border-l-4 flex justify-between items-start ${
                         notification.type === 'MEMBER_JOINED' ? 'border-green-500' : 
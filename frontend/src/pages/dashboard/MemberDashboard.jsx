@@ -65,7 +65,7 @@ export default function MemberDashboard() {
           {notifications.length > 0 ? (
             <div className="space-y-2">
               {notifications.map((notification) => {
-                const isUnread = !notification.readByUsers?.includes(user?.id);
+                const isUnread = !notification.read;
                 return (
                   <div key={notification.id} className={`bg-white p-3 rounded border-l-4 flex justify-between items-start ${
                     notification.severity === 'CRITICAL' ? 'border-red-500' : 
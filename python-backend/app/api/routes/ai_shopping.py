@@ -25,6 +25,14 @@ def normalize_name(name: str) -> str:
     
     return normalized
 
+def with_event_counts(df: pd.DataFrame) -> pd.DataFrame:
+    """Daily and weekly rollup lines stand for eventCount events; raw events count once"""
+    if 'eventCount' in df.columns:
+        df['eventCount'] = pd.to_numeric(df['eventCount'], errors='coerce').fillna(1).astype(int)
+    else:
+        df['eventCount'] = 1
+    return df
+
 # def categorize_by_inventory_data(item_name: str, inventory_items: List[Dict]) -> str:
 #     """Categorize based on actual inventory category and expiry patterns"""
     
@@ -309,7 +317,7 @@ def analyze_consumption_by_inventory_data(consumption_data, list_type, existing_
         return []
     
     try:
-        df = pd.DataFrame(events)
+        df = with_event_counts(pd.DataFrame(events))
         df['consumedAt'] = pd.to_datetime(df['consumedAt'])
         df['quantity'] = pd.to_numeric(df['quantity'], errors='coerce').fillna(1)
         
@@ -319,7 +327,7 @@ def analyze_consumption_by_inventory_data(consumption_data, list_type, existing_
         if df.empty:
             return []
         
-        print(f"Analyzing {len(df)} events using inventory-based categorization")
+        print(f"Analyzing {int(df['eventCount'].sum())} events using inventory-based categorization")
         print(f"Looking for {list_type} items")
         
         suggestions = []
@@ -351,7 +359,7 @@ def analyze_consumption_by_inventory_data(consumption_data, list_type, existing_
                 # Only suggest items that match the requested list type
                 if item_category == list_type:
                     
-                    consumption_events = len(item_df)
+                    consumption_events = int(item_df['eventCount'].sum())
                     days_since_last = (datetime.now() - item_df['consumedAt'].max().to_pydatetime()).days
                     
                     # More lenient suggestion criteria
@@ -456,9 +464,10 @@ async def analyze_consumption_endpoint(request: Dict[str, Any]) -> Dict[str, Any
                 "insights": ["No consumption data available"]
             }
         
-        df = pd.DataFrame(consumption_events)
+        df = with_event_counts(pd.DataFrame(consumption_events))
         df['consumedAt'] = pd.to_datetime(df['consumedAt'])
         df['quantity'] = pd.to_numeric(df['quantity'], errors='coerce').fillna(1)
+        total_events = int(df['eventCount'].sum())
         
         # Get inventory data for categorization
         inventory_data = request.get("currentInventory", [])
@@ -470,14 +479,14 @@ async def analyze_consumption_endpoint(request: Dict[str, Any]) -> Dict[str, Any
         
         return {
             "analysisType": "INVENTORY_BASED_CATEGORIZATION",
-            "totalEvents": len(consumption_events),
+            "totalEvents": total_events,
             "uniqueItems": df['itemName'].nunique(),
             "analysisStartDate": df['consumedAt'].min().isoformat(),
             "analysisEndDate": df['consumedAt'].max().isoformat(),
             "itemsByCategory": categories,
             "topConsumedItems": df.groupby('itemName')['quantity'].sum().nlargest(5).to_dict(),
             "insights": [
-                f"Analyzed {len(consumption_events)} consumption events",
+                f"Analyzed {total_events} consumption events",
                 f"Found {df['itemName'].nunique()} unique items",
                 f"Daily items: {categories['DAILY']}, Weekly: {categories['WEEKLY']}, Monthly: {categories['MONTHLY']}",
                 "Using inventory categories and expiry data for categorization"